@@ -0,0 +1,172 @@
+/*
+ *     Copyright (C) 2020 Florian Stober
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.codecrafter47.taboverlay;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Limits the rate at which updates of a {@link TabView} are sent to the client.
+ * <p>
+ * Views request a frame when they have pending changes. All pending changes are then sent together at the next
+ * frame, at most once per frame interval. This bounds the update rate per viewer regardless of how often the
+ * displayed content changes.
+ * <p>
+ * {@link #requestFrame(Runnable)} and {@link #recordDirtySlots(int)} must be called from the executor of the frame
+ * scheduler, usually the tab event queue. The metrics can be read from any thread.
+ */
+public final class FrameScheduler {
+
+    private final ScheduledExecutorService executor;
+    private final Logger logger;
+    @Getter
+    private final int framesPerSecond;
+    private final long frameIntervalNanos;
+    private final LongSupplier nanoTime;
+
+    private final Set<Runnable> pendingTasks = new LinkedHashSet<>();
+    private final Runnable frame = this::frame;
+    private boolean frameScheduled = false;
+    private long lastFrameNanos;
+
+    private volatile long frameCount = 0;
+    private volatile long dirtySlotCount = 0;
+    private volatile int lastFrameDirtySlotCount = 0;
+    private volatile long outOfFrameDirtySlotCount = 0;
+    private int currentFrameDirtySlotCount = 0;
+    private boolean inFrame = false;
+
+    public FrameScheduler(ScheduledExecutorService executor, int framesPerSecond, Logger logger) {
+        this(executor, framesPerSecond, logger, System::nanoTime);
+    }
+
+    FrameScheduler(ScheduledExecutorService executor, int framesPerSecond, Logger logger, LongSupplier nanoTime) {
+        if (framesPerSecond <= 0) {
+            throw new IllegalArgumentException("framesPerSecond must be positive");
+        }
+        this.executor = executor;
+        this.logger = logger;
+        this.framesPerSecond = framesPerSecond;
+        this.frameIntervalNanos = TimeUnit.SECONDS.toNanos(1) / framesPerSecond;
+        this.nanoTime = nanoTime;
+        this.lastFrameNanos = nanoTime.getAsLong() - frameIntervalNanos;
+    }
+
+    /**
+     * Run the given task with the next frame. Requesting the same task multiple times before the next frame runs it
+     * only once.
+     *
+     * @param task the task sending the pending changes
+     */
+    public void requestFrame(Runnable task) {
+        pendingTasks.add(task);
+        if (!frameScheduled) {
+            frameScheduled = true;
+            long delay = lastFrameNanos + frameIntervalNanos - nanoTime.getAsLong();
+            if (delay <= 0) {
+                executor.execute(frame);
+            } else {
+                executor.schedule(frame, delay, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    /**
+     * Record the number of slots sent to the client. Slots sent outside of a frame, e.g. by an explicit flush, are
+     * counted separately.
+     *
+     * @param count the number of dirty slots
+     */
+    public void recordDirtySlots(int count) {
+        if (inFrame) {
+            currentFrameDirtySlotCount += count;
+        } else {
+            dirtySlotCount += count;
+            outOfFrameDirtySlotCount += count;
+        }
+    }
+
+    private void frame() {
+        frameScheduled = false;
+        lastFrameNanos = nanoTime.getAsLong();
+        currentFrameDirtySlotCount = 0;
+
+        List<Runnable> tasks = new ArrayList<>(pendingTasks);
+        pendingTasks.clear();
+        inFrame = true;
+        try {
+            for (Runnable task : tasks) {
+                try {
+                    task.run();
+                } catch (Throwable th) {
+                    logger.log(Level.SEVERE, "Unexpected exception while rendering frame", th);
+                }
+            }
+        } finally {
+            inFrame = false;
+        }
+
+        frameCount++;
+        dirtySlotCount += currentFrameDirtySlotCount;
+        lastFrameDirtySlotCount = currentFrameDirtySlotCount;
+    }
+
+    /**
+     * Get the number of frames sent so far.
+     *
+     * @return the number of frames
+     */
+    public long getFrameCount() {
+        return frameCount;
+    }
+
+    /**
+     * Get the total number of dirty slots sent so far, including slots sent outside of a frame.
+     *
+     * @return the number of dirty slots
+     */
+    public long getDirtySlotCount() {
+        return dirtySlotCount;
+    }
+
+    /**
+     * Get the number of dirty slots sent in the last frame.
+     *
+     * @return the number of dirty slots
+     */
+    public int getLastFrameDirtySlotCount() {
+        return lastFrameDirtySlotCount;
+    }
+
+    /**
+     * Get the number of dirty slots sent outside of a frame so far, e.g. by an explicit flush.
+     *
+     * @return the number of dirty slots
+     */
+    public long getOutOfFrameDirtySlotCount() {
+        return outOfFrameDirtySlotCount;
+    }
+}
@@ -19,7 +19,9 @@ package de.codecrafter47.taboverlay;
 
 import de.codecrafter47.taboverlay.handler.TabOverlayHandler;
 import lombok.Getter;
+import lombok.Setter;
 
+import javax.annotation.Nullable;
 import java.util.concurrent.Executor;
 import java.util.logging.Logger;
 
@@ -34,6 +36,17 @@ public class TabView {
     @Getter
     private final TabOverlayProviderSet tabOverlayProviders;
 
+    /**
+     * Optional frame scheduler limiting the rate of updates sent to the client. Without a frame scheduler changes
+     * are sent at the end of each task on the tab event queue.
+     * <p>
+     * Must be set before a tab overlay provider is activated to take effect.
+     */
+    @Nullable
+    @Getter
+    @Setter
+    private volatile FrameScheduler frameScheduler;
+
     public TabView(Logger logger, Executor updateExecutor) {
         this.logger = logger;
         tabOverlayProviders = new TabOverlayProviderSet(this, updateExecutor);
@@ -24,6 +24,7 @@ import de.codecrafter47.taboverlay.Icon;
 import de.codecrafter47.taboverlay.TabOverlayProvider;
 import de.codecrafter47.taboverlay.TabView;
 import de.codecrafter47.taboverlay.config.context.Context;
+import de.codecrafter47.taboverlay.config.context.ContextKeys;
 import de.codecrafter47.taboverlay.config.dsl.*;
 import de.codecrafter47.taboverlay.config.dsl.components.*;
 import de.codecrafter47.taboverlay.config.dsl.yaml.*;
@@ -34,14 +35,18 @@ import de.codecrafter47.taboverlay.config.placeholder.*;
 import de.codecrafter47.taboverlay.config.platform.EventListener;
 import de.codecrafter47.taboverlay.config.platform.Platform;
 import de.codecrafter47.taboverlay.config.player.GlobalPlayerSetFactory;
+import de.codecrafter47.taboverlay.config.player.MirroredPlayerProvider;
 import de.codecrafter47.taboverlay.config.player.Player;
 import de.codecrafter47.taboverlay.config.player.PlayerProvider;
+import de.codecrafter47.taboverlay.config.player.PlayerSetRetentionPolicy;
 import de.codecrafter47.taboverlay.config.template.AbstractTabOverlayTemplate;
 import de.codecrafter47.taboverlay.config.template.HeaderFooterOnlyTabOverlayTemplate;
 import de.codecrafter47.taboverlay.config.template.TemplateCreationContext;
 import de.codecrafter47.taboverlay.config.template.icon.IconTemplate;
 import de.codecrafter47.taboverlay.config.template.ping.PingTemplate;
 import de.codecrafter47.taboverlay.config.template.text.TextTemplate;
+import de.codecrafter47.taboverlay.config.view.components.DefaultSlotRegistry;
+import de.codecrafter47.taboverlay.config.view.text.SharedTextViewRegistry;
 import lombok.*;
 import org.yaml.snakeyaml.DumperOptions;
 import org.yaml.snakeyaml.Yaml;
@@ -76,7 +81,10 @@ public class ConfigTabOverlayManager {
     @Setter
     @Getter
     private TimeZone timeZone = null;
+    @Getter
     private final GlobalPlayerSetFactory globalPlayerSetFactory;
+    private final List<TabEventLoop> tabEventLoops = new ArrayList<>();
+    private final PlayerSetPlaceholderResolver playerSetPlaceholderResolver = new PlayerSetPlaceholderResolver();
 
     private final List<AbstractTabOverlayTemplateConfiguration<?>> configurations = new ArrayList<>();
     private final List<AbstractTabOverlayTemplate> templates = new ArrayList<>();
@@ -102,7 +110,27 @@ public class ConfigTabOverlayManager {
         this.expressionEngine = constructExpressionEngine(options);
         this.tabEventQueue = tabEventQueue;
         this.iconManager = iconManager;
-        this.globalPlayerSetFactory = new GlobalPlayerSetFactory(playerProvider, tabEventQueue, logger, options.playerInvisibleDataKey, options.playerCanSeeInvisibleDataKey);
+        this.globalPlayerSetFactory = new GlobalPlayerSetFactory(playerProvider, tabEventQueue, logger, options.playerInvisibleDataKey, options.playerCanSeeInvisibleDataKey,
+                options.playerSetRetentionPolicy != null ? options.playerSetRetentionPolicy : PlayerSetRetentionPolicy.NONE);
+        if (options.tabViewEventQueues == null || options.tabViewEventQueues.isEmpty()) {
+            tabEventLoops.add(new TabEventLoop(TabEventLoop.createContext(tabEventQueue, playerProvider, globalPlayerSetFactory, logger), playerProvider, globalPlayerSetFactory, null));
+        } else {
+            if (!additionalGlobalPlaceholderResolvers.isEmpty() && !options.globalPlaceholderResolversThreadSafe) {
+                throw new IllegalArgumentException("Additional global placeholder resolvers must be declared thread safe to use multiple tab view event queues");
+            }
+            List<DataKey<?>> initialKeys = new ArrayList<>();
+            for (DataKey<?> key : Arrays.asList(options.playerIconDataKey, options.playerPingDataKey, options.playerInvisibleDataKey, options.playerCanSeeInvisibleDataKey)) {
+                if (key != null) {
+                    initialKeys.add(key);
+                }
+            }
+            for (ScheduledExecutorService eventQueue : options.tabViewEventQueues) {
+                MirroredPlayerProvider mirroredPlayerProvider = new MirroredPlayerProvider(playerProvider, tabEventQueue, eventQueue, initialKeys);
+                GlobalPlayerSetFactory loopPlayerSetFactory = new GlobalPlayerSetFactory(mirroredPlayerProvider, eventQueue, logger, options.playerInvisibleDataKey, options.playerCanSeeInvisibleDataKey,
+                        options.playerSetRetentionPolicy != null ? options.playerSetRetentionPolicy : PlayerSetRetentionPolicy.NONE);
+                tabEventLoops.add(new TabEventLoop(TabEventLoop.createContext(eventQueue, mirroredPlayerProvider, loopPlayerSetFactory, logger), mirroredPlayerProvider, loopPlayerSetFactory, mirroredPlayerProvider));
+            }
+        }
         this.playerIconDataKey = options.playerIconDataKey;
         this.playerPingDataKey = options.playerPingDataKey;
         this.sortingRulePreprocessor = options.sortingRulePreprocessor;
@@ -203,7 +231,7 @@ public class ConfigTabOverlayManager {
             placeholderResolverChain.addResolver(new PlayerPlaceholderResolver(playerPlaceholderResolver, PlayerPlaceholderResolver.BindPoint.PLAYER));
             placeholderResolverChain.addResolver(new TimePlaceholderResolver(this));
             placeholderResolverChain.addResolver(new TextTransformPlaceholderResolver());
-            placeholderResolverChain.addResolver(new PlayerSetPlaceholderResolver());
+            placeholderResolverChain.addResolver(playerSetPlaceholderResolver);
             for (PlaceholderResolver<Context> placeholderResolver : additionalGlobalPlaceholderResolvers) {
                 placeholderResolverChain.addResolver(placeholderResolver);
             }
@@ -275,12 +303,18 @@ public class ConfigTabOverlayManager {
             // add new ones
             List<TabOverlayProvider> providers = new ArrayList<>();
             for (AbstractTabOverlayTemplate template : templates) {
-                providers.add(new ConfigTabOverlayProvider(tabView, template, viewer, tabEventQueue, playerProvider, globalPlayerSetFactory, logger));
+                providers.add(createProvider(tabView, template, viewer));
             }
             tabView.getTabOverlayProviders().addProviders(providers);
         }
     }
 
+    private ConfigTabOverlayProvider createProvider(TabView tabView, AbstractTabOverlayTemplate template, Player viewer) {
+        TabEventLoop loop = tabEventLoops.get(Math.floorMod(viewer.getUniqueID().hashCode(), tabEventLoops.size()));
+        Player loopViewer = loop.mirroredPlayerProvider != null ? loop.mirroredPlayerProvider.getPlayer(viewer) : viewer;
+        return new ConfigTabOverlayProvider(tabView, template, loopViewer, loop.context, loop.playerProvider, loop.globalPlayerSetFactory, logger);
+    }
+
     public List<AbstractTabOverlayTemplate> getTemplates() {
         return Collections.unmodifiableList(templates);
     }
@@ -293,7 +327,7 @@ public class ConfigTabOverlayManager {
                 tabViews.put(tabView, viewer);
                 List<TabOverlayProvider> providers = new ArrayList<>();
                 for (AbstractTabOverlayTemplate template : templates) {
-                    providers.add(new ConfigTabOverlayProvider(tabView, template, viewer, tabEventQueue, playerProvider, globalPlayerSetFactory, logger));
+                    providers.add(createProvider(tabView, template, viewer));
                 }
                 tabView.getTabOverlayProviders().addProviders(providers);
             }
@@ -308,6 +342,26 @@ public class ConfigTabOverlayManager {
         }
     }
 
+    /**
+     * A tab event loop tab views can be assigned to. Each loop has its own shared player sets and shared views.
+     */
+    @Value
+    private static class TabEventLoop {
+        Context context;
+        PlayerProvider playerProvider;
+        GlobalPlayerSetFactory globalPlayerSetFactory;
+        @Nullable
+        MirroredPlayerProvider mirroredPlayerProvider;
+
+        private static Context createContext(ScheduledExecutorService eventQueue, PlayerProvider playerProvider, GlobalPlayerSetFactory globalPlayerSetFactory, Logger logger) {
+            Context context = Context.from(null, eventQueue);
+            context.setCustomObject(ContextKeys.DEFAULT_SLOT_REGISTRY, new DefaultSlotRegistry());
+            context.setCustomObject(ContextKeys.SHARED_TEXT_VIEW_REGISTRY, new SharedTextViewRegistry(playerProvider, globalPlayerSetFactory, logger));
+            context.setCustomObject(ContextKeys.SHARED_PLACEHOLDER_DATA_PROVIDER_REGISTRY, new SharedPlaceholderDataProviderRegistry());
+            return context;
+        }
+    }
+
     @Builder
     @Value
     public static class Options {
@@ -341,5 +395,29 @@ public class ConfigTabOverlayManager {
 
         @Nullable
         SortingRulePreprocessor sortingRulePreprocessor;
+
+        @Nullable
+        PlayerSetRetentionPolicy playerSetRetentionPolicy;
+
+        /**
+         * Single threaded event loops the tab views are distributed over, by viewer. If empty all tab views use the
+         * main tab event queue.
+         * <p>
+         * Players and their data are mirrored onto each loop, and every data key used on a loop is mirrored for all
+         * players. Shared player sets are not shared across loops, each loop builds and updates its own copy. This
+         * multiplies the memory and the cpu time spent on shared player sets by the number of loops.
+         * <p>
+         * Additional global placeholder resolvers are not mirrored, they are used from all loops concurrently. Using
+         * them together with this option requires {@link #globalPlaceholderResolversThreadSafe}.
+         */
+        @Singular
+        ImmutableList<ScheduledExecutorService> tabViewEventQueues;
+
+        /**
+         * Declares that the additional global placeholder resolvers, and the data holders they read, are safe to use
+         * from multiple tab event loops concurrently. Required if {@link #tabViewEventQueues} is used together with
+         * additional global placeholder resolvers.
+         */
+        boolean globalPlaceholderResolversThreadSafe;
     }
 }
@@ -34,7 +34,6 @@ import lombok.NonNull;
 import lombok.SneakyThrows;
 
 import javax.annotation.Nonnull;
-import java.util.concurrent.ScheduledExecutorService;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -46,12 +45,13 @@ public class ConfigTabOverlayProvider extends AbstractPlayerTabOverlayProvider {
     private final Context context;
     private TabOverlayView tabOverlayView;
 
-    ConfigTabOverlayProvider(@Nonnull @NonNull TabView tabView, @Nonnull @NonNull AbstractTabOverlayTemplate template, @Nonnull @NonNull Player viewer, @Nonnull @NonNull ScheduledExecutorService eventQueue, @Nonnull @NonNull PlayerProvider playerProvider, @Nonnull @NonNull GlobalPlayerSetFactory globalPlayerSetFactory, @Nonnull @NonNull Logger logger) {
+    ConfigTabOverlayProvider(@Nonnull @NonNull TabView tabView, @Nonnull @NonNull AbstractTabOverlayTemplate template, @Nonnull @NonNull Player viewer, @Nonnull @NonNull Context loopContext, @Nonnull @NonNull PlayerProvider playerProvider, @Nonnull @NonNull GlobalPlayerSetFactory globalPlayerSetFactory, @Nonnull @NonNull Logger logger) {
         super(tabView, template.getPath().toString(), template.getPriority());
         this.template = template;
         this.activationHandler = new ActivationHandler(template.getViewerPredicate().instantiateWithBooleanResult());
         this.logger = logger;
-        this.context = Context.from(viewer, eventQueue);
+        this.context = loopContext.clone();
+        this.context.setViewer(viewer);
         this.context.setPlayerSetFactory(new PlayerSetFactory(playerProvider, globalPlayerSetFactory, tabView.getLogger(), context));
     }
 
@@ -46,6 +46,40 @@ public interface Area {
 
     void setPing(int index, int ping);
 
+    /**
+     * Sets all slots from {@code start} (inclusive) to {@code end} (exclusive) to the same content.
+     *
+     * @param start              first slot
+     * @param end                end of the range, exclusive
+     * @param icon               the icon
+     * @param text               the text
+     * @param alternateColorChar alternate color char used in the text
+     * @param ping               the ping
+     */
+    default void fillSlots(int start, int end, Icon icon, String text, char alternateColorChar, int ping) {
+        for (int i = start; i < end; i++) {
+            setSlot(i, icon, text, alternateColorChar, ping);
+        }
+    }
+
+    default void fillIcon(int start, int end, Icon icon) {
+        for (int i = start; i < end; i++) {
+            setIcon(i, icon);
+        }
+    }
+
+    default void fillText(int start, int end, String text, char alternateColorChar) {
+        for (int i = start; i < end; i++) {
+            setText(i, text, alternateColorChar);
+        }
+    }
+
+    default void fillPing(int start, int end, int ping) {
+        for (int i = start; i < end; i++) {
+            setPing(i, ping);
+        }
+    }
+
     int getSize();
 
     int getSlotWidth();
@@ -53,7 +87,7 @@ public interface Area {
     default Area createChild(int firstIndex, int size) {
         Preconditions.checkArgument(firstIndex <= getSize(), "firstIndex <= getSize()");
         Preconditions.checkArgument(firstIndex + size <= getSize(), "firstIndex + size <= getSize()");
-        return new AreaWithOffset(this, firstIndex, size);
+        return FlatArea.createChild(this, firstIndex, size);
     }
 
     RectangularArea asRectangularArea();
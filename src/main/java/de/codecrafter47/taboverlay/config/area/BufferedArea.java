@@ -0,0 +1,397 @@
+/*
+ *     Copyright (C) 2020 Florian Stober
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.codecrafter47.taboverlay.config.area;
+
+import de.codecrafter47.taboverlay.FrameScheduler;
+import de.codecrafter47.taboverlay.Icon;
+import de.codecrafter47.taboverlay.handler.RectangularTabOverlay;
+import de.codecrafter47.taboverlay.handler.SimpleTabOverlay;
+import de.codecrafter47.taboverlay.handler.TabOverlayHandle;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+
+/**
+ * Render buffer between the component views and a tab overlay handle.
+ * <p>
+ * Keeps the state of all slots. Writes which don't change a slot are dropped, all other writes are collected and
+ * sent to the handle in a single batch modification at the end of the current task on the tab event queue, or
+ * with the next frame if a {@link FrameScheduler} is used.
+ * <p>
+ * Must only be used from the tab event queue.
+ */
+public final class BufferedArea implements RectangularArea {
+
+    private static final byte FIELD_UUID = 1;
+    private static final byte FIELD_ICON = 2;
+    private static final byte FIELD_TEXT = 4;
+    private static final byte FIELD_PING = 8;
+    private static final byte FIELD_ALL = FIELD_UUID | FIELD_ICON | FIELD_TEXT | FIELD_PING;
+
+    private static final char NO_ALTERNATE_COLOR_CHAR = 0;
+
+    private final TabOverlayHandle.BatchModifiable handle;
+    private final RectangularArea target;
+    private final Executor tabEventQueue;
+    @Nullable
+    private final FrameScheduler frameScheduler;
+    private final Runnable flushTask = () -> {
+        flushScheduled = false;
+        flush();
+    };
+
+    private UUID[] uuids;
+    private Icon[] icons;
+    private String[] texts;
+    private char[] alternateColorChars;
+    private int[] pings;
+    /**
+     * Fields which have been written at least once. The state of the other fields on the client is unknown.
+     */
+    private byte[] known;
+    private byte[] dirty;
+    private int[] dirtySlots;
+    private int dirtySlotCount = 0;
+    private boolean flushScheduled = false;
+
+    private BufferedArea(TabOverlayHandle.BatchModifiable handle, RectangularArea target, Executor tabEventQueue, @Nullable FrameScheduler frameScheduler) {
+        this.handle = handle;
+        this.target = target;
+        this.tabEventQueue = tabEventQueue;
+        this.frameScheduler = frameScheduler;
+        int size = target.getSize();
+        this.uuids = new UUID[size];
+        this.icons = new Icon[size];
+        this.texts = new String[size];
+        this.alternateColorChars = new char[size];
+        this.pings = new int[size];
+        this.known = new byte[size];
+        this.dirty = new byte[size];
+        this.dirtySlots = new int[size];
+    }
+
+    public static BufferedArea of(RectangularTabOverlay tabOverlay, Executor tabEventQueue) {
+        return of(tabOverlay, tabEventQueue, null);
+    }
+
+    public static BufferedArea of(RectangularTabOverlay tabOverlay, Executor tabEventQueue, @Nullable FrameScheduler frameScheduler) {
+        return new BufferedArea(tabOverlay, RectangularArea.of(tabOverlay), tabEventQueue, frameScheduler);
+    }
+
+    public static BufferedArea of(SimpleTabOverlay tabOverlay, Executor tabEventQueue) {
+        return of(tabOverlay, tabEventQueue, null);
+    }
+
+    public static BufferedArea of(SimpleTabOverlay tabOverlay, Executor tabEventQueue, @Nullable FrameScheduler frameScheduler) {
+        return new BufferedArea(tabOverlay, RectangularArea.of(tabOverlay).asRectangularArea(), tabEventQueue, frameScheduler);
+    }
+
+    @Override
+    public void setSlot(int index, UUID uuid, Icon icon, String text, char alternateColorChar, int ping) {
+        checkIndex(index);
+        writeUuid(index, uuid);
+        writeIcon(index, icon);
+        writeText(index, text, alternateColorChar);
+        writePing(index, ping);
+    }
+
+    @Override
+    public void setSlot(int index, UUID uuid, Icon icon, String text, int ping) {
+        setSlot(index, uuid, icon, text, NO_ALTERNATE_COLOR_CHAR, ping);
+    }
+
+    @Override
+    public void setSlot(int index, Icon icon, String text, char alternateColorChar, int ping) {
+        setSlot(index, null, icon, text, alternateColorChar, ping);
+    }
+
+    @Override
+    public void setSlot(int index, Icon icon, String text, int ping) {
+        setSlot(index, null, icon, text, NO_ALTERNATE_COLOR_CHAR, ping);
+    }
+
+    @Override
+    public void setUuid(int index, UUID uuid) {
+        checkIndex(index);
+        writeUuid(index, uuid);
+    }
+
+    @Override
+    public void setIcon(int index, Icon icon) {
+        checkIndex(index);
+        writeIcon(index, icon);
+    }
+
+    @Override
+    public void setText(int index, String text) {
+        checkIndex(index);
+        writeText(index, text, NO_ALTERNATE_COLOR_CHAR);
+    }
+
+    @Override
+    public void setText(int index, String text, char alternateColorChar) {
+        checkIndex(index);
+        writeText(index, text, alternateColorChar);
+    }
+
+    @Override
+    public void setPing(int index, int ping) {
+        checkIndex(index);
+        writePing(index, ping);
+    }
+
+    @Override
+    public void fillSlots(int start, int end, Icon icon, String text, char alternateColorChar, int ping) {
+        checkRange(start, end);
+        for (int i = start; i < end; i++) {
+            writeUuid(i, null);
+            writeIcon(i, icon);
+            writeText(i, text, alternateColorChar);
+            writePing(i, ping);
+        }
+    }
+
+    @Override
+    public void fillIcon(int start, int end, Icon icon) {
+        checkRange(start, end);
+        for (int i = start; i < end; i++) {
+            writeIcon(i, icon);
+        }
+    }
+
+    @Override
+    public void fillText(int start, int end, String text, char alternateColorChar) {
+        checkRange(start, end);
+        for (int i = start; i < end; i++) {
+            writeText(i, text, alternateColorChar);
+        }
+    }
+
+    @Override
+    public void fillPing(int start, int end, int ping) {
+        checkRange(start, end);
+        for (int i = start; i < end; i++) {
+            writePing(i, ping);
+        }
+    }
+
+    @Override
+    public void setSlot(int column, int row, UUID uuid, Icon icon, String text, int ping) {
+        setSlot(index(column, row), uuid, icon, text, ping);
+    }
+
+    @Override
+    public void setSlot(int column, int row, UUID uuid, Icon icon, String text, char alternateColorChar, int ping) {
+        setSlot(index(column, row), uuid, icon, text, alternateColorChar, ping);
+    }
+
+    @Override
+    public void setUuid(int column, int row, UUID uuid) {
+        setUuid(index(column, row), uuid);
+    }
+
+    @Override
+    public void setIcon(int column, int row, Icon icon) {
+        setIcon(index(column, row), icon);
+    }
+
+    @Override
+    public void setText(int column, int row, String text) {
+        setText(index(column, row), text);
+    }
+
+    @Override
+    public void setText(int column, int row, String text, char alternateColorChar) {
+        setText(index(column, row), text, alternateColorChar);
+    }
+
+    @Override
+    public void setPing(int column, int row, int ping) {
+        setPing(index(column, row), ping);
+    }
+
+    @Override
+    public int getRows() {
+        return target.getRows();
+    }
+
+    @Override
+    public int getColumns() {
+        return target.getColumns();
+    }
+
+    @Override
+    public int getSize() {
+        return target.getSize();
+    }
+
+    @Override
+    public int getSlotWidth() {
+        return target.getSlotWidth();
+    }
+
+    /**
+     * Sends all pending changes to the tab overlay handle.
+     * <p>
+     * Called automatically at the end of the current task or with the next frame. Must be called explicitly before
+     * the size of the tab overlay is changed.
+     */
+    public void flush() {
+        if (dirtySlotCount == 0) {
+            return;
+        }
+        if (!handle.isValid()) {
+            dirtySlotCount = 0;
+            return;
+        }
+        if (frameScheduler != null) {
+            frameScheduler.recordDirtySlots(dirtySlotCount);
+        }
+        handle.beginBatchModification();
+        try {
+            for (int i = 0; i < dirtySlotCount; i++) {
+                int index = dirtySlots[i];
+                byte fields = dirty[index];
+                dirty[index] = 0;
+                if (fields == FIELD_ALL) {
+                    if (alternateColorChars[index] == NO_ALTERNATE_COLOR_CHAR) {
+                        target.setSlot(index, uuids[index], icons[index], texts[index], pings[index]);
+                    } else {
+                        target.setSlot(index, uuids[index], icons[index], texts[index], alternateColorChars[index], pings[index]);
+                    }
+                } else {
+                    if ((fields & FIELD_UUID) != 0) {
+                        target.setUuid(index, uuids[index]);
+                    }
+                    if ((fields & FIELD_ICON) != 0) {
+                        target.setIcon(index, icons[index]);
+                    }
+                    if ((fields & FIELD_TEXT) != 0) {
+                        if (alternateColorChars[index] == NO_ALTERNATE_COLOR_CHAR) {
+                            target.setText(index, texts[index]);
+                        } else {
+                            target.setText(index, texts[index], alternateColorChars[index]);
+                        }
+                    }
+                    if ((fields & FIELD_PING) != 0) {
+                        target.setPing(index, pings[index]);
+                    }
+                }
+            }
+        } finally {
+            dirtySlotCount = 0;
+            handle.completeBatchModification();
+        }
+    }
+
+    /**
+     * Adapts the buffer to the new size of a {@link SimpleTabOverlay}.
+     * <p>
+     * Slots which exist in both the old and the new size keep their state, so components which did not move don't
+     * need to write them again. Pending changes must be flushed before the size of the tab overlay is changed.
+     *
+     * @throws IllegalStateException if the buffer does not belong to a {@link SimpleTabOverlay}, or if there are
+     *                               pending changes
+     */
+    public void resize() {
+        if (!(handle instanceof SimpleTabOverlay)) {
+            throw new IllegalStateException("Only the buffer of a SimpleTabOverlay can be resized");
+        }
+        if (dirtySlotCount != 0) {
+            throw new IllegalStateException("Buffer must be flushed before resizing the tab overlay");
+        }
+        int size = target.getSize();
+        if (size == uuids.length) {
+            return;
+        }
+        this.uuids = Arrays.copyOf(uuids, size);
+        this.icons = Arrays.copyOf(icons, size);
+        this.texts = Arrays.copyOf(texts, size);
+        this.alternateColorChars = Arrays.copyOf(alternateColorChars, size);
+        this.pings = Arrays.copyOf(pings, size);
+        this.known = Arrays.copyOf(known, size);
+        this.dirty = new byte[size];
+        this.dirtySlots = new int[size];
+    }
+
+    private void writeUuid(int index, UUID uuid) {
+        if ((known[index] & FIELD_UUID) == 0 || !Objects.equals(uuids[index], uuid)) {
+            uuids[index] = uuid;
+            markDirty(index, FIELD_UUID);
+        }
+    }
+
+    private void writeIcon(int index, Icon icon) {
+        if ((known[index] & FIELD_ICON) == 0 || !Objects.equals(icons[index], icon)) {
+            icons[index] = icon;
+            markDirty(index, FIELD_ICON);
+        }
+    }
+
+    private void writeText(int index, String text, char alternateColorChar) {
+        if ((known[index] & FIELD_TEXT) == 0 || alternateColorChars[index] != alternateColorChar || !Objects.equals(texts[index], text)) {
+            texts[index] = text;
+            alternateColorChars[index] = alternateColorChar;
+            markDirty(index, FIELD_TEXT);
+        }
+    }
+
+    private void writePing(int index, int ping) {
+        if ((known[index] & FIELD_PING) == 0 || pings[index] != ping) {
+            pings[index] = ping;
+            markDirty(index, FIELD_PING);
+        }
+    }
+
+    private void markDirty(int index, byte field) {
+        if (dirty[index] == 0) {
+            dirtySlots[dirtySlotCount++] = index;
+        }
+        dirty[index] |= field;
+        known[index] |= field;
+        if (!flushScheduled) {
+            flushScheduled = true;
+            if (frameScheduler != null) {
+                frameScheduler.requestFrame(flushTask);
+            } else {
+                tabEventQueue.execute(flushTask);
+            }
+        }
+    }
+
+    private int index(int column, int row) {
+        if (column < 0 || column >= getColumns() || row < 0 || row >= getRows()) {
+            throw new IndexOutOfBoundsException("Index c=" + column + "r=" + row + " out of bounds(columns=" + getColumns() + ", rows=" + getRows() + ").");
+        }
+        return row * getColumns() + column;
+    }
+
+    private void checkRange(int start, int end) {
+        if (start < 0 || end > uuids.length) {
+            throw new IndexOutOfBoundsException("Range " + start + "-" + end + " out of bounds(size=" + uuids.length + ").");
+        }
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= uuids.length) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds(size=" + uuids.length + ").");
+        }
+    }
+}
@@ -0,0 +1,253 @@
+/*
+ *     Copyright (C) 2020 Florian Stober
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package de.codecrafter47.taboverlay.config.area;
+
+import de.codecrafter47.taboverlay.Icon;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * An area which maps its slots directly to slots of the root area, i.e. the area of the tab overlay.
+ * <p>
+ * The mapping is composed when the area is created, so child areas of child areas don't delegate through
+ * their parents. A slot update is a single array lookup followed by a call to the root area.
+ */
+public final class FlatArea implements RectangularArea {
+
+    private final Area root;
+    private final int[] slots;
+    private final int columns;
+    private final int rows;
+
+    private FlatArea(Area root, int[] slots, int columns, int rows) {
+        this.root = root;
+        this.slots = slots;
+        this.columns = columns;
+        this.rows = rows;
+    }
+
+    static FlatArea createChild(Area parent, int firstIndex, int size) {
+        int[] slots = new int[size];
+        for (int i = 0; i < size; i++) {
+            slots[i] = absoluteIndex(parent, firstIndex + i);
+        }
+        return new FlatArea(rootOf(parent), slots, 1, size);
+    }
+
+    static FlatArea createRectangularChild(RectangularArea parent, int column, int row, int columns, int rows) {
+        int parentColumns = parent.getColumns();
+        int[] slots = new int[columns * rows];
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < columns; c++) {
+                slots[r * columns + c] = absoluteIndex(parent, (row + r) * parentColumns + column + c);
+            }
+        }
+        return new FlatArea(rootOf(parent), slots, columns, rows);
+    }
+
+    /**
+     * Creates an area with a single column containing the slots of the given area in column-major order.
+     *
+     * @param area the area
+     * @return the transposed area
+     */
+    public static FlatArea transpose(RectangularArea area) {
+        int columns = area.getColumns();
+        int rows = area.getRows();
+        int[] slots = new int[columns * rows];
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = absoluteIndex(area, (i % rows) * columns + i / rows);
+        }
+        return new FlatArea(rootOf(area), slots, 1, slots.length);
+    }
+
+    private static int absoluteIndex(Area area, int index) {
+        return area instanceof FlatArea ? ((FlatArea) area).slots[index] : index;
+    }
+
+    private static Area rootOf(Area area) {
+        return area instanceof FlatArea ? ((FlatArea) area).root : area;
+    }
+
+    @Override
+    public void setSlot(int index, UUID uuid, Icon icon, String text, char alternateColorChar, int ping) {
+        root.setSlot(slots[index], uuid, icon, text, alternateColorChar, ping);
+    }
+
+    @Override
+    public void setSlot(int index, UUID uuid, Icon icon, String text, int ping) {
+        root.setSlot(slots[index], uuid, icon, text, ping);
+    }
+
+    @Override
+    public void setSlot(int index, Icon icon, String text, char alternateColorChar, int ping) {
+        root.setSlot(slots[index], icon, text, alternateColorChar, ping);
+    }
+
+    @Override
+    public void setSlot(int index, Icon icon, String text, int ping) {
+        root.setSlot(slots[index], icon, text, ping);
+    }
+
+    @Override
+    public void setUuid(int index, UUID uuid) {
+        root.setUuid(slots[index], uuid);
+    }
+
+    @Override
+    public void setIcon(int index, Icon icon) {
+        root.setIcon(slots[index], icon);
+    }
+
+    @Override
+    public void setText(int index, String text) {
+        root.setText(slots[index], text);
+    }
+
+    @Override
+    public void setText(int index, String text, char alternateColorChar) {
+        root.setText(slots[index], text, alternateColorChar);
+    }
+
+    @Override
+    public void setPing(int index, int ping) {
+        root.setPing(slots[index], ping);
+    }
+
+    @Override
+    public void fillSlots(int start, int end, Icon icon, String text, char alternateColorChar, int ping) {
+        for (int i = start; i < end; i++) {
+            root.setSlot(slots[i], icon, text, alternateColorChar, ping);
+        }
+    }
+
+    @Override
+    public void fillIcon(int start, int end, Icon icon) {
+        for (int i = start; i < end; i++) {
+            root.setIcon(slots[i], icon);
+        }
+    }
+
+    @Override
+    public void fillText(int start, int end, String text, char alternateColorChar) {
+        for (int i = start; i < end; i++) {
+            root.setText(slots[i], text, alternateColorChar);
+        }
+    }
+
+    @Override
+    public void fillPing(int start, int end, int ping) {
+        for (int i = start; i < end; i++) {
+            root.setPing(slots[i], ping);
+        }
+    }
+
+    @Override
+    public void setSlot(int column, int row, UUID uuid, Icon icon, String text, int ping) {
+        root.setSlot(slot(column, row), uuid, icon, text, ping);
+    }
+
+    @Override
+    public void setSlot(int column, int row, UUID uuid, Icon icon, String text, char alternateColorChar, int ping) {
+        root.setSlot(slot(column, row), uuid, icon, text, alternateColorChar, ping);
+    }
+
+    @Override
+    public void setSlot(int column, int row, Icon icon, String text, int ping) {
+        root.setSlot(slot(column, row), icon, text, ping);
+    }
+
+    @Override
+    public void setSlot(int column, int row, Icon icon, String text, char alternateColorChar, int ping) {
+        root.setSlot(slot(column, row), icon, text, alternateColorChar, ping);
+    }
+
+    @Override
+    public void setUuid(int column, int row, UUID uuid) {
+        root.setUuid(slot(column, row), uuid);
+    }
+
+    @Override
+    public void setIcon(int column, int row, Icon icon) {
+        root.setIcon(slot(column, row), icon);
+    }
+
+    @Override
+    public void setText(int column, int row, String text) {
+        root.setText(slot(column, row), text);
+    }
+
+    @Override
+    public void setText(int column, int row, String text, char alternateColorChar) {
+        root.setText(slot(column, row), text, alternateColorChar);
+    }
+
+    @Override
+    public void setPing(int column, int row, int ping) {
+        root.setPing(slot(column, row), ping);
+    }
+
+    private int slot(int column, int row) {
+        if (column < 0 || column >= columns || row < 0 || row >= rows) {
+            throw new IndexOutOfBoundsException("Index c=" + column + "r=" + row + " out of bounds(columns=" + columns + ", rows=" + rows + ").");
+        }
+        return slots[row * columns + column];
+    }
+
+    @Override
+    public int getRows() {
+        return rows;
+    }
+
+    @Override
+    public int getColumns() {
+        return columns;
+    }
+
+    @Override
+    public int getSize() {
+        return slots.length;
+    }
+
+    @Override
+    public int getSlotWidth() {
+        return root.getSlotWidth();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof FlatArea)) {
+            return false;
+        }
+        FlatArea that = (FlatArea) o;
+        return columns == that.columns
+                && root.equals(that.root)
+                && Arrays.equals(slots, that.slots);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Objects.hash(root, columns) + Arrays.hashCode(slots);
+    }
+}
@@ -102,7 +102,7 @@ public interface RectangularArea extends Area {
         Preconditions.checkArgument(row < getRows(), "row <= getRows()");
         Preconditions.checkArgument(column + columns <= getColumns(), "column + columns <= getColumns()");
         Preconditions.checkArgument(row + rows <= getRows(), "row + rows <= getRows()");
-        return new RectangularAreaWithOffset(this, column, row, columns, rows);
+        return FlatArea.createRectangularChild(this, column, row, columns, rows);
     }
 
     @Override
@@ -186,16 +186,6 @@ public interface RectangularArea extends Area {
     }
 
     static Area of(SimpleTabOverlay tabOverlay) {
-        int size = tabOverlay.getSize();
-        int slotWidth = 80;
-        if (size <= 20) {
-            slotWidth = 360;
-        } else if (size <= 40) {
-            slotWidth = 180;
-        } else if (size <= 60) {
-            slotWidth = 110;
-        }
-        int finalSlotWidth = slotWidth;
         return new RectangularArea() {
             @Override
             public void setSlot(int index, UUID uuid, Icon icon, String text, char alternateColorChar, int ping) {
@@ -340,7 +330,16 @@ public interface RectangularArea extends Area {
 
             @Override
             public int getSlotWidth() {
-                return finalSlotWidth;
+                // the size of the tab overlay may change
+                int size = tabOverlay.getSize();
+                if (size <= 20) {
+                    return 360;
+                } else if (size <= 40) {
+                    return 180;
+                } else if (size <= 60) {
+                    return 110;
+                }
+                return 80;
             }
 
             @Override
@@ -18,6 +18,7 @@
 package de.codecrafter47.taboverlay.config.context;
 
 
+import de.codecrafter47.taboverlay.config.expression.ModificationCounter;
 import de.codecrafter47.taboverlay.config.player.Player;
 import de.codecrafter47.taboverlay.config.player.PlayerSetFactory;
 import lombok.AccessLevel;
@@ -28,15 +29,26 @@ import lombok.SneakyThrows;
 import lombok.val;
 
 import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.ScheduledExecutorService;
 
 @RequiredArgsConstructor(access = AccessLevel.PACKAGE)
 public final class Context implements Cloneable {
 
+    /**
+     * Create a new root context. Contexts derived from it by cloning share its {@link ModificationCounter}.
+     *
+     * @param viewer     the viewer
+     * @param eventQueue the tab event queue
+     * @return the context
+     */
     public static Context from(Player viewer, ScheduledExecutorService eventQueue) {
         Context context = new Context();
         context.setViewer(viewer);
         context.setTabEventQueue(eventQueue);
+        context.setCustomObject(ContextKeys.EXPRESSION_MODIFICATION_COUNTER, new ModificationCounter());
         return context;
     }
 
@@ -71,6 +83,16 @@ public final class Context implements Cloneable {
         return null;
     }
 
+    /**
+     * Get the custom objects of this context as an immutable list of alternating keys and values. Contexts with
+     * the same custom objects return equal lists.
+     *
+     * @return the custom objects
+     */
+    public List<Object> getCustomObjects() {
+        return customObjects != null ? Collections.unmodifiableList(Arrays.asList(customObjects)) : Collections.emptyList();
+    }
+
     public <T> void setCustomObject(ContextKey<T> key, T value) {
         if (customObjects == null) {
             customObjects = new Object[]{key, value};
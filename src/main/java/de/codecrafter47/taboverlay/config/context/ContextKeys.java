@@ -17,7 +17,11 @@
 
 package de.codecrafter47.taboverlay.config.context;
 
+import de.codecrafter47.taboverlay.config.expression.ModificationCounter;
 import de.codecrafter47.taboverlay.config.expression.template.ExpressionTemplate;
+import de.codecrafter47.taboverlay.config.placeholder.SharedPlaceholderDataProviderRegistry;
+import de.codecrafter47.taboverlay.config.view.components.DefaultSlotRegistry;
+import de.codecrafter47.taboverlay.config.view.text.SharedTextViewRegistry;
 
 public class ContextKeys {
 
@@ -26,4 +30,8 @@ public class ContextKeys {
     public static final ContextKey<ExpressionTemplate> BAR_PERCENTAGE = new ContextKey<>("BAR_PERCENTAGE");
     public static final ContextKey<ExpressionTemplate> BAR_MIN_VALUE = new ContextKey<>("BAR_MIN_VALUE");
     public static final ContextKey<ExpressionTemplate> BAR_MAX_VALUE = new ContextKey<>("BAR_MAX_VALUE");
+    public static final ContextKey<DefaultSlotRegistry> DEFAULT_SLOT_REGISTRY = new ContextKey<>("DEFAULT_SLOT_REGISTRY");
+    public static final ContextKey<SharedTextViewRegistry> SHARED_TEXT_VIEW_REGISTRY = new ContextKey<>("SHARED_TEXT_VIEW_REGISTRY");
+    public static final ContextKey<SharedPlaceholderDataProviderRegistry> SHARED_PLACEHOLDER_DATA_PROVIDER_REGISTRY = new ContextKey<>("SHARED_PLACEHOLDER_DATA_PROVIDER_REGISTRY");
+    public static final ContextKey<ModificationCounter> EXPRESSION_MODIFICATION_COUNTER = new ContextKey<>("EXPRESSION_MODIFICATION_COUNTER");
 }
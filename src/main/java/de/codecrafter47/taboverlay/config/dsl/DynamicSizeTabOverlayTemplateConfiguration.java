@@ -18,11 +18,14 @@
 package de.codecrafter47.taboverlay.config.dsl;
 
 import de.codecrafter47.taboverlay.config.dsl.util.ConfigValidationUtil;
+import de.codecrafter47.taboverlay.config.dsl.yaml.MarkedFloatProperty;
+import de.codecrafter47.taboverlay.config.dsl.yaml.MarkedIntegerProperty;
 import de.codecrafter47.taboverlay.config.dsl.yaml.MarkedListProperty;
 import de.codecrafter47.taboverlay.config.dsl.yaml.MarkedStringProperty;
 import de.codecrafter47.taboverlay.config.placeholder.PlayerPlaceholderResolver;
 import de.codecrafter47.taboverlay.config.template.DynamicSizeTabOverlayTemplate;
 import de.codecrafter47.taboverlay.config.template.TemplateCreationContext;
+import de.codecrafter47.taboverlay.config.template.component.PooledComponentTemplate;
 import de.codecrafter47.taboverlay.config.template.icon.PlayerIconTemplate;
 import de.codecrafter47.taboverlay.config.template.ping.PlayerPingTemplate;
 import lombok.Getter;
@@ -32,6 +35,8 @@ import lombok.Setter;
 @Setter
 public class DynamicSizeTabOverlayTemplateConfiguration extends AbstractTabOverlayTemplateConfiguration<DynamicSizeTabOverlayTemplate> {
 
+    private static final int PLAYER_COMPONENT_POOL_SIZE = 64;
+
     private PlayerOrderConfiguration playerOrder = PlayerOrderConfiguration.DEFAULT;
 
     private MarkedListProperty<PlayerOrdersConfiguration> playerOrders = null;
@@ -42,6 +47,10 @@ public class DynamicSizeTabOverlayTemplateConfiguration extends AbstractTabOverl
 
     private ComponentConfiguration playerComponent;
 
+    private MarkedFloatProperty shrinkDelay = new MarkedFloatProperty(5.0f);
+
+    private MarkedIntegerProperty shrinkMargin = new MarkedIntegerProperty(2);
+
     @Override
     protected DynamicSizeTabOverlayTemplate createTemplate() {
         return new DynamicSizeTabOverlayTemplate();
@@ -71,12 +80,21 @@ public class DynamicSizeTabOverlayTemplateConfiguration extends AbstractTabOverl
             staticPlayerOrdersXD = playerOrders;
         }
 
+        if (ConfigValidationUtil.checkNotNull(tcc, "DYNAMIC_SIZE tab overlay", "shrinkDelay", shrinkDelay, null)
+                && ConfigValidationUtil.checkRange(tcc, "DYNAMIC_SIZE tab overlay", "shrinkDelay", shrinkDelay.getValue(), 0.0f, 9999.0f, shrinkDelay.getStartMark())) {
+            template.setShrinkDelay(shrinkDelay.getValue());
+        }
+        if (ConfigValidationUtil.checkNotNull(tcc, "DYNAMIC_SIZE tab overlay", "shrinkMargin", shrinkMargin, null)
+                && ConfigValidationUtil.checkRange(tcc, "DYNAMIC_SIZE tab overlay", "shrinkMargin", shrinkMargin.getValue(), 0, 80, shrinkMargin.getStartMark())) {
+            template.setShrinkMargin(shrinkMargin.getValue());
+        }
+
         if (ConfigValidationUtil.checkNotNull(tcc, "DYNAMIC_SIZE tab overlay", "playerComponent", playerComponent, null)) {
             TemplateCreationContext childContext = tcc.clone();
             childContext.setDefaultIcon(new PlayerIconTemplate(PlayerPlaceholderResolver.BindPoint.PLAYER, tcc.getPlayerIconDataKey()));
             childContext.setDefaultPing(new PlayerPingTemplate(PlayerPlaceholderResolver.BindPoint.PLAYER, tcc.getPlayerPingDataKey()));
             childContext.setPlayerAvailable(true);
-            template.setPlayerComponent(playerComponent.toTemplate(childContext));
+            template.setPlayerComponent(PooledComponentTemplate.of(playerComponent.toTemplate(childContext), PLAYER_COMPONENT_POOL_SIZE));
         }
         template.setMorePlayersComponent(tcc.emptyComponent());
     }
@@ -18,6 +18,7 @@
 package de.codecrafter47.taboverlay.config.dsl;
 
 import de.codecrafter47.taboverlay.config.dsl.util.ConfigValidationUtil;
+import de.codecrafter47.taboverlay.config.dsl.yaml.MarkedFloatProperty;
 import de.codecrafter47.taboverlay.config.dsl.yaml.MarkedIntegerProperty;
 import de.codecrafter47.taboverlay.config.template.RectangularTabOverlayTemplate;
 import de.codecrafter47.taboverlay.config.template.TemplateCreationContext;
@@ -38,6 +39,10 @@ public class RectangularTabOverlayTemplateConfiguration extends AbstractTabOverl
 
     private ComponentConfiguration components;
 
+    private MarkedFloatProperty shrinkDelay = new MarkedFloatProperty(5.0f);
+
+    private MarkedIntegerProperty shrinkMargin = new MarkedIntegerProperty(2);
+
     @Override
     protected RectangularTabOverlayTemplate createTemplate() {
         return new RectangularTabOverlayTemplate();
@@ -73,6 +78,15 @@ public class RectangularTabOverlayTemplateConfiguration extends AbstractTabOverl
             tcc.getErrorHandler().addWarning("columns must not be greater than 4.", columns.getStartMark());
         }
 
+        if (ConfigValidationUtil.checkNotNull(tcc, "RECTANGULAR tab overlay", "shrinkDelay", shrinkDelay, null)
+                && ConfigValidationUtil.checkRange(tcc, "RECTANGULAR tab overlay", "shrinkDelay", shrinkDelay.getValue(), 0.0f, 9999.0f, shrinkDelay.getStartMark())) {
+            template.setShrinkDelay(shrinkDelay.getValue());
+        }
+        if (ConfigValidationUtil.checkNotNull(tcc, "RECTANGULAR tab overlay", "shrinkMargin", shrinkMargin, null)
+                && ConfigValidationUtil.checkRange(tcc, "RECTANGULAR tab overlay", "shrinkMargin", shrinkMargin.getValue(), 0, 80, shrinkMargin.getStartMark())) {
+            template.setShrinkMargin(shrinkMargin.getValue());
+        }
+
         if (ConfigValidationUtil.checkNotNull(tcc, "RECTANGULAR tab overlay", "defaultIcon", defaultIcon, null)) {
             child.setDefaultIcon(defaultIcon.toTemplate(tcc));
         }
@@ -26,6 +26,7 @@ import de.codecrafter47.taboverlay.config.expression.template.ExpressionTemplate
 import de.codecrafter47.taboverlay.config.template.TemplateCreationContext;
 import de.codecrafter47.taboverlay.config.template.component.ComponentTemplate;
 import de.codecrafter47.taboverlay.config.template.component.ConditionalComponentTemplate;
+import de.codecrafter47.taboverlay.config.template.component.PooledComponentTemplate;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -33,6 +34,8 @@ import lombok.Setter;
 @Setter
 public class ConditionalComponentConfiguration extends MarkedPropertyBase implements ComponentConfiguration {
 
+    private static final int REPLACEMENT_POOL_SIZE = 16;
+
     private MarkedStringProperty condition;
     private ComponentConfiguration trueReplacement;
     private ComponentConfiguration falseReplacement;
@@ -70,8 +73,8 @@ public class ConditionalComponentConfiguration extends MarkedPropertyBase implem
 
         return ConditionalComponentTemplate.builder()
                 .condition(expressionTemplate)
-                .trueReplacement(trueReplacement != null ? trueReplacement.toTemplate(tcc) : tcc.emptyComponent())
-                .falseReplacement(falseReplacement != null ? falseReplacement.toTemplate(tcc) : tcc.emptyComponent())
+                .trueReplacement(PooledComponentTemplate.of(trueReplacement != null ? trueReplacement.toTemplate(tcc) : tcc.emptyComponent(), REPLACEMENT_POOL_SIZE))
+                .falseReplacement(PooledComponentTemplate.of(falseReplacement != null ? falseReplacement.toTemplate(tcc) : tcc.emptyComponent(), REPLACEMENT_POOL_SIZE))
                 .build();
     }
 }
@@ -29,6 +29,7 @@ import de.codecrafter47.taboverlay.config.template.PlayerOrderTemplate;
 import de.codecrafter47.taboverlay.config.template.TemplateCreationContext;
 import de.codecrafter47.taboverlay.config.template.component.ComponentTemplate;
 import de.codecrafter47.taboverlay.config.template.component.PlayersComponentTemplate;
+import de.codecrafter47.taboverlay.config.template.component.PooledComponentTemplate;
 import de.codecrafter47.taboverlay.config.template.icon.PlayerIconTemplate;
 import de.codecrafter47.taboverlay.config.template.ping.PlayerPingTemplate;
 import lombok.Getter;
@@ -40,6 +41,8 @@ import javax.annotation.Nullable;
 @Setter
 public class PlayersComponentConfiguration extends MarkedPropertyBase implements ComponentConfiguration {
 
+    private static final int PLAYER_COMPONENT_POOL_SIZE = 64;
+
     private PlayerOrderConfiguration playerOrder = PlayerOrderConfiguration.DEFAULT;
     private MarkedStringProperty playerSet = null;
     private ComponentConfiguration playerComponent = new BasicComponentConfiguration("${player name}");
@@ -108,7 +111,7 @@ public class PlayersComponentConfiguration extends MarkedPropertyBase implements
         return PlayersComponentTemplate.builder()
                 .playerOrder(playerOrderTemplate)
                 .playerSet(tcc.getPlayerSets().get(playerSet.getValue()))
-                .playerComponent(playerComponentTemplate)
+                .playerComponent(PooledComponentTemplate.of(playerComponentTemplate, PLAYER_COMPONENT_POOL_SIZE))
                 .morePlayersComponent(morePlayersComponentTemplate)
                 .fillSlotsVertical(fillSlotsVertical)
                 .minSize(minSize.getValue())
@@ -24,11 +24,13 @@ public abstract class AbstractBinaryToDoubleExpression<T extends Expression> ext
 
     protected final T a;
     protected final T b;
+    private double result;
 
     @Override
     protected void onActivation() {
-        a.activate(getContext(), getListener());
-        b.activate(getContext(), getListener());
+        invalidateResult();
+        a.activate(getContext(), this);
+        b.activate(getContext(), this);
     }
 
     @Override
@@ -36,4 +38,20 @@ public abstract class AbstractBinaryToDoubleExpression<T extends Expression> ext
         a.deactivate();
         b.deactivate();
     }
+
+    @Override
+    public final double evaluate() {
+        if (!isResultValid()) {
+            result = computeResult();
+            setResultValid();
+        }
+        return result;
+    }
+
+    /**
+     * Compute the result of the expression from its operands.
+     *
+     * @return the result
+     */
+    protected abstract double computeResult();
 }
@@ -25,11 +25,13 @@ import java.util.Collection;
 public abstract class AbstractToBooleanExpression<T extends Expression> extends ExpressionBase implements ToBooleanExpression {
 
     protected final Collection<T> operands;
+    private boolean result;
 
     @Override
     protected void onActivation() {
+        invalidateResult();
         for (T operand : operands) {
-            operand.activate(getContext(), getListener());
+            operand.activate(getContext(), this);
         }
     }
 
@@ -39,4 +41,20 @@ public abstract class AbstractToBooleanExpression<T extends Expression> extends
             operand.deactivate();
         }
     }
+
+    @Override
+    public final boolean evaluate() {
+        if (!isResultValid()) {
+            result = computeResult();
+            setResultValid();
+        }
+        return result;
+    }
+
+    /**
+     * Compute the result of the expression from its operands.
+     *
+     * @return the result
+     */
+    protected abstract boolean computeResult();
 }
@@ -25,11 +25,13 @@ import java.util.Collection;
 public abstract class AbstractToStringExpression<T extends Expression> extends ExpressionBase implements ToStringExpression {
 
     protected final Collection<T> operands;
+    private String result;
 
     @Override
     protected void onActivation() {
+        invalidateResult();
         for (T operand : operands) {
-            operand.activate(getContext(), getListener());
+            operand.activate(getContext(), this);
         }
     }
 
@@ -39,4 +41,20 @@ public abstract class AbstractToStringExpression<T extends Expression> extends E
             operand.deactivate();
         }
     }
+
+    @Override
+    public final String evaluate() {
+        if (!isResultValid()) {
+            result = computeResult();
+            setResultValid();
+        }
+        return result;
+    }
+
+    /**
+     * Compute the result of the expression from its operands.
+     *
+     * @return the result
+     */
+    protected abstract String computeResult();
 }
@@ -23,14 +23,32 @@ import lombok.RequiredArgsConstructor;
 public abstract class AbstractUnaryToDoubleExpression<T extends Expression> extends ExpressionBase implements ToDoubleExpression {
 
     protected final T delegate;
+    private double result;
 
     @Override
     protected void onActivation() {
-        delegate.activate(getContext(), getListener());
+        invalidateResult();
+        delegate.activate(getContext(), this);
     }
 
     @Override
     protected void onDeactivation() {
         delegate.deactivate();
     }
+
+    @Override
+    public final double evaluate() {
+        if (!isResultValid()) {
+            result = computeResult();
+            setResultValid();
+        }
+        return result;
+    }
+
+    /**
+     * Compute the result of the expression from its operands.
+     *
+     * @return the result
+     */
+    protected abstract double computeResult();
 }
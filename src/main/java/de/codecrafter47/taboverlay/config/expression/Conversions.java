@@ -34,37 +34,40 @@ public class Conversions {
     }
 
     public ToBooleanExpression toBoolean(ToDoubleExpression expression) {
+        if (expression instanceof BooleanToDoubleExpression) {
+            // boolean -> double -> boolean is lossless
+            return ((BooleanToDoubleExpression) expression).delegate;
+        }
         return new AbstractUnaryToBooleanExpression<ToDoubleExpression>(expression) {
             @Override
-            public boolean evaluate() {
+            protected boolean computeResult() {
                 return delegate.evaluate() != 0;
             }
         };
     }
 
     public ToBooleanExpression toBoolean(ToStringExpression expression) {
+        if (expression instanceof BooleanToStringExpression) {
+            // boolean -> string -> boolean is lossless
+            return ((BooleanToStringExpression) expression).delegate;
+        }
         return new AbstractUnaryToBooleanExpression<ToStringExpression>(expression) {
             @Override
-            public boolean evaluate() {
+            protected boolean computeResult() {
                 return Boolean.parseBoolean(delegate.evaluate());
             }
         };
     }
 
     public ToDoubleExpression toDouble(ToBooleanExpression expression) {
-        return new AbstractUnaryToDoubleExpression<ToBooleanExpression>(expression) {
-            @Override
-            public double evaluate() {
-                return delegate.evaluate() ? 1 : 0;
-            }
-        };
+        return new BooleanToDoubleExpression(expression);
     }
 
     public ToDoubleExpression toDouble(ToStringExpression expression) {
         return new AbstractUnaryToDoubleExpression<ToStringExpression>(expression) {
 
             @Override
-            public double evaluate() {
+            protected double computeResult() {
                 String result = delegate.evaluate();
                 try {
                     return NUMBER_FORMAT.parse(result).doubleValue();
@@ -76,21 +79,40 @@ public class Conversions {
     }
 
     public ToStringExpression toString(ToBooleanExpression expression) {
-        return new AbstractUnaryToStringExpression<ToBooleanExpression>(expression) {
-            @Override
-            public String evaluate() {
-                return Boolean.toString(delegate.evaluate());
-            }
-        };
+        return new BooleanToStringExpression(expression);
     }
 
     public ToStringExpression toString(ToDoubleExpression expression) {
         return new AbstractUnaryToStringExpression<ToDoubleExpression>(expression) {
             @Override
-            public String evaluate() {
+            protected String computeResult() {
                 double result = delegate.evaluate();
                 return result == (int) result ? Integer.toString((int) result) : Double.toString(result);
             }
         };
     }
+
+    private static class BooleanToDoubleExpression extends AbstractUnaryToDoubleExpression<ToBooleanExpression> {
+
+        private BooleanToDoubleExpression(ToBooleanExpression delegate) {
+            super(delegate);
+        }
+
+        @Override
+        protected double computeResult() {
+            return delegate.evaluate() ? 1 : 0;
+        }
+    }
+
+    private static class BooleanToStringExpression extends AbstractUnaryToStringExpression<ToBooleanExpression> {
+
+        private BooleanToStringExpression(ToBooleanExpression delegate) {
+            super(delegate);
+        }
+
+        @Override
+        protected String computeResult() {
+            return Boolean.toString(delegate.evaluate());
+        }
+    }
 }
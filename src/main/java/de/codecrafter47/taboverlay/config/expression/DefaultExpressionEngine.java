@@ -44,7 +44,7 @@ public class DefaultExpressionEngine implements ExpressionEngine {
 
     @Override
     public ExpressionTemplate compile(TemplateCreationContext tcc, String expression, Mark mark) {
-        return templateParser.parse(tcc, tokenizer.parse(tcc, expression, mark), mark);
+        return ExpressionTemplates.optimize(templateParser.parse(tcc, tokenizer.parse(tcc, expression, mark), mark));
     }
 
     @Builder
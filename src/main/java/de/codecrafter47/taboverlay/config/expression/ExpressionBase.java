@@ -17,7 +17,72 @@
 
 package de.codecrafter47.taboverlay.config.expression;
 
+import de.codecrafter47.taboverlay.config.context.ContextKeys;
 import de.codecrafter47.taboverlay.config.view.AbstractActiveElement;
 
-public abstract class ExpressionBase extends AbstractActiveElement<ExpressionUpdateListener> {
+/**
+ * Base class for expressions with operands.
+ * <p>
+ * The expression caches the result of the last evaluation until any operand of any expression activated with the
+ * same root context reports a change. The cache can't be invalidated per operand: if multiple operands depend on the
+ * same data they are notified one after another, and an evaluation in between would combine the new value of one
+ * operand with the cached result computed from the old value of another one. Changes are counted by the
+ * {@link ModificationCounter} of the context, so expressions on different tab event loops don't affect each other.
+ * Results are only cached while the expression is active, as operands only report changes while active, and only if
+ * the context has a counter.
+ */
+public abstract class ExpressionBase extends AbstractActiveElement<ExpressionUpdateListener> implements ExpressionUpdateListener {
+
+    private static final long INVALID = -1;
+
+    /**
+     * Counter of the context, taken from the context on activation.
+     */
+    private ModificationCounter modificationCounter;
+    private long resultModificationCount = INVALID;
+    private long computingModificationCount = INVALID;
+
+    /**
+     * Check whether the result of the last evaluation can be reused.
+     *
+     * @return true if the cached result is up to date
+     */
+    protected final boolean isResultValid() {
+        if (modificationCounter == null || !isActive()) {
+            computingModificationCount = INVALID;
+            return false;
+        }
+        long count = modificationCounter.get();
+        if (resultModificationCount == count) {
+            return true;
+        }
+        // changes while the result is computed invalidate it
+        computingModificationCount = count;
+        return false;
+    }
+
+    /**
+     * Called after the result has been computed and cached.
+     */
+    protected final void setResultValid() {
+        resultModificationCount = isActive() ? computingModificationCount : INVALID;
+    }
+
+    /**
+     * Discard the cached result. Must be called when the expression is activated.
+     */
+    protected final void invalidateResult() {
+        modificationCounter = getContext().getCustomObject(ContextKeys.EXPRESSION_MODIFICATION_COUNTER);
+        resultModificationCount = INVALID;
+    }
+
+    @Override
+    public void onExpressionUpdate() {
+        if (modificationCounter != null) {
+            modificationCounter.increment();
+        }
+        if (hasListener()) {
+            getListener().onExpressionUpdate();
+        }
+    }
 }
@@ -30,7 +30,7 @@ public class Expressions {
     public ToBooleanExpression negate(ToBooleanExpression expression) {
         return new AbstractUnaryToBooleanExpression<ToBooleanExpression>(expression) {
             @Override
-            public boolean evaluate() {
+            protected boolean computeResult() {
                 return !delegate.evaluate();
             }
         };
@@ -39,7 +39,7 @@ public class Expressions {
     public static ToBooleanExpression and(Collection<ToBooleanExpression> operands) {
         return new AbstractToBooleanExpression<ToBooleanExpression>(operands) {
             @Override
-            public boolean evaluate() {
+            protected boolean computeResult() {
                 for (val operand : operands) {
                     if (!operand.evaluate()) {
                         return false;
@@ -53,7 +53,7 @@ public class Expressions {
     public static ToBooleanExpression or(Collection<ToBooleanExpression> operands) {
         return new AbstractToBooleanExpression<ToBooleanExpression>(operands) {
             @Override
-            public boolean evaluate() {
+            protected boolean computeResult() {
                 for (val operand : operands) {
                     if (operand.evaluate()) {
                         return true;
@@ -68,7 +68,7 @@ public class Expressions {
         return new AbstractToStringExpression<ToStringExpression>(operands) {
 
             @Override
-            public String evaluate() {
+            protected String computeResult() {
                 StringBuilder result = new StringBuilder();
                 for (val operand : operands) {
                     result.append(operand.evaluate());
@@ -81,7 +81,7 @@ public class Expressions {
     public static ToBooleanExpression equal(ToStringExpression a, ToStringExpression b) {
         return new AbstractBinaryToBooleanExpression<ToStringExpression>(a, b) {
             @Override
-            public boolean evaluate() {
+            protected boolean computeResult() {
                 return Objects.equals(a.evaluate(), b.evaluate());
             }
         };
@@ -90,7 +90,7 @@ public class Expressions {
     public static ToBooleanExpression notEqual(ToStringExpression a, ToStringExpression b) {
         return new AbstractBinaryToBooleanExpression<ToStringExpression>(a, b) {
             @Override
-            public boolean evaluate() {
+            protected boolean computeResult() {
                 return !Objects.equals(a.evaluate(), b.evaluate());
             }
         };
@@ -99,7 +99,7 @@ public class Expressions {
     public static ToBooleanExpression greaterThan(ToDoubleExpression a, ToDoubleExpression b) {
         return new AbstractBinaryToBooleanExpression<ToDoubleExpression>(a, b) {
             @Override
-            public boolean evaluate() {
+            protected boolean computeResult() {
                 return a.evaluate() > b.evaluate();
             }
         };
@@ -108,7 +108,7 @@ public class Expressions {
     public static ToBooleanExpression greaterOrEqualThan(ToDoubleExpression a, ToDoubleExpression b) {
         return new AbstractBinaryToBooleanExpression<ToDoubleExpression>(a, b) {
             @Override
-            public boolean evaluate() {
+            protected boolean computeResult() {
                 return a.evaluate() >= b.evaluate();
             }
         };
@@ -117,7 +117,7 @@ public class Expressions {
     public static ToBooleanExpression lesserThan(ToDoubleExpression a, ToDoubleExpression b) {
         return new AbstractBinaryToBooleanExpression<ToDoubleExpression>(a, b) {
             @Override
-            public boolean evaluate() {
+            protected boolean computeResult() {
                 return a.evaluate() < b.evaluate();
             }
         };
@@ -126,7 +126,7 @@ public class Expressions {
     public static ToBooleanExpression lesserOrEqualThan(ToDoubleExpression a, ToDoubleExpression b) {
         return new AbstractBinaryToBooleanExpression<ToDoubleExpression>(a, b) {
             @Override
-            public boolean evaluate() {
+            protected boolean computeResult() {
                 return a.evaluate() <= b.evaluate();
             }
         };
@@ -136,7 +136,7 @@ public class Expressions {
         return new AbstractToDoubleExpression<ToDoubleExpression>(operands) {
 
             @Override
-            public double evaluate() {
+            protected double computeResult() {
                 double result = 0;
                 for (val operand : operands) {
                     result += operand.evaluate();
@@ -150,7 +150,7 @@ public class Expressions {
         return new AbstractToDoubleExpression<ToDoubleExpression>(operands) {
 
             @Override
-            public double evaluate() {
+            protected double computeResult() {
                 double result = 1;
                 for (val operand : operands) {
                     result *= operand.evaluate();
@@ -163,7 +163,7 @@ public class Expressions {
     public static ToDoubleExpression sub(ToDoubleExpression a, ToDoubleExpression b) {
         return new AbstractBinaryToDoubleExpression<ToDoubleExpression>(a, b) {
             @Override
-            public double evaluate() {
+            protected double computeResult() {
                 return a.evaluate() - b.evaluate();
             }
         };
@@ -172,7 +172,7 @@ public class Expressions {
     public static ToDoubleExpression div(ToDoubleExpression a, ToDoubleExpression b) {
         return new AbstractBinaryToDoubleExpression<ToDoubleExpression>(a, b) {
             @Override
-            public double evaluate() {
+            protected double computeResult() {
                 return a.evaluate() / b.evaluate();
             }
         };
@@ -181,7 +181,7 @@ public class Expressions {
     public ToDoubleExpression negateNumber(ToDoubleExpression a) {
         return new AbstractUnaryToDoubleExpression<ToDoubleExpression>(a) {
             @Override
-            public double evaluate() {
+            protected double computeResult() {
                 return -delegate.evaluate();
             }
         };
@@ -190,7 +190,7 @@ public class Expressions {
     public ToStringExpression applyToStringFunction(ToStringExpression expression, Function<String, String> function) {
         return new AbstractUnaryToStringExpression<ToStringExpression>(expression) {
             @Override
-            public String evaluate() {
+            protected String computeResult() {
                 return function.apply(delegate.evaluate());
             }
         };
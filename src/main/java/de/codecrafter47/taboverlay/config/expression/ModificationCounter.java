@@ -0,0 +1,36 @@
+/*
+ *     Copyright (C) 2020 Florian Stober
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.codecrafter47.taboverlay.config.expression;
+
+/**
+ * Counts changes of expression operands, see {@link ExpressionBase}.
+ * <p>
+ * One counter is shared by all expressions activated with contexts derived from the same root context, which all live
+ * on the same tab event loop. Must only be used from that tab event loop.
+ */
+public final class ModificationCounter {
+
+    private long count;
+
+    long get() {
+        return count;
+    }
+
+    void increment() {
+        count++;
+    }
+}
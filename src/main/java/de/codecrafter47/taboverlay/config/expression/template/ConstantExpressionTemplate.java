@@ -53,6 +53,17 @@ public class ConstantExpressionTemplate implements ExpressionTemplate {
         return new ConstantExpressionTemplate(Boolean.toString(booleanValue), booleanValue ? 1 : 0, booleanValue);
     }
 
+    /**
+     * Creates a constant template holding the results of the given template. The template must not depend on any
+     * context, i.e. all its operands must be constant.
+     *
+     * @param template the template to evaluate
+     * @return constant template with the same results
+     */
+    static ConstantExpressionTemplate fold(ExpressionTemplate template) {
+        return new ConstantExpressionTemplate(template.instantiateWithStringResult().evaluate(), template.instantiateWithDoubleResult().evaluate(), template.instantiateWithBooleanResult().evaluate());
+    }
+
     @Override
     public ToStringExpression instantiateWithStringResult() {
         return stringExpression;
@@ -17,10 +17,13 @@
 
 package de.codecrafter47.taboverlay.config.expression.template;
 
+import de.codecrafter47.data.api.DataKey;
 import de.codecrafter47.taboverlay.config.expression.ToBooleanExpression;
 import de.codecrafter47.taboverlay.config.expression.ToDoubleExpression;
 import de.codecrafter47.taboverlay.config.expression.ToStringExpression;
 
+import java.util.Set;
+
 public interface ExpressionTemplate {
 
     ToStringExpression instantiateWithStringResult();
@@ -30,4 +33,17 @@ public interface ExpressionTemplate {
     ToBooleanExpression instantiateWithBooleanResult();
 
     boolean requiresViewerContext();
+
+    /**
+     * Collects the data keys of the viewer the result of this expression depends on.
+     * <p>
+     * If this returns true, the expression evaluates to the same result for all viewers which have the same
+     * values for the collected data keys.
+     *
+     * @param keys set to add the data keys to
+     * @return true if the viewer dependencies of this expression are fully described by the collected keys
+     */
+    default boolean collectViewerDataKeys(Set<DataKey<?>> keys) {
+        return !requiresViewerContext();
+    }
 }
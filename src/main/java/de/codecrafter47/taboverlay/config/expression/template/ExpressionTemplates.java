@@ -17,6 +17,7 @@
 
 package de.codecrafter47.taboverlay.config.expression.template;
 
+import de.codecrafter47.data.api.DataKey;
 import de.codecrafter47.taboverlay.config.expression.Expressions;
 import de.codecrafter47.taboverlay.config.expression.ToBooleanExpression;
 import de.codecrafter47.taboverlay.config.expression.ToDoubleExpression;
@@ -24,7 +25,13 @@ import de.codecrafter47.taboverlay.config.expression.ToStringExpression;
 import lombok.EqualsAndHashCode;
 import lombok.experimental.UtilityClass;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BinaryOperator;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -96,8 +103,96 @@ public class ExpressionTemplates {
 
     ;
 
+    /**
+     * Simplifies an expression template. Subexpressions with only constant operands are replaced by their result,
+     * constant operands of and, or and concat are merged or dropped if they don't affect the result, and duplicate
+     * operands of and and or are removed.
+     * <p>
+     * The simplified template evaluates to the same results as the original, but instantiates fewer expressions.
+     *
+     * @param template the template
+     * @return the simplified template
+     */
+    public ExpressionTemplate optimize(ExpressionTemplate template) {
+        if (template instanceof OptimizableExpressionTemplate) {
+            return ((OptimizableExpressionTemplate) template).optimize();
+        }
+        return template;
+    }
+
+    private ExpressionTemplate optimizeUnary(ExpressionTemplate template, ExpressionTemplate operand, Function<ExpressionTemplate, ExpressionTemplate> constructor) {
+        ExpressionTemplate optimized = optimize(operand);
+        ExpressionTemplate result = optimized == operand ? template : constructor.apply(optimized);
+        return optimized instanceof ConstantExpressionTemplate ? ConstantExpressionTemplate.fold(result) : result;
+    }
+
+    private ExpressionTemplate optimizeBinary(ExpressionTemplate template, ExpressionTemplate a, ExpressionTemplate b, BinaryOperator<ExpressionTemplate> constructor) {
+        ExpressionTemplate optimizedA = optimize(a);
+        ExpressionTemplate optimizedB = optimize(b);
+        ExpressionTemplate result = optimizedA == a && optimizedB == b ? template : constructor.apply(optimizedA, optimizedB);
+        return optimizedA instanceof ConstantExpressionTemplate && optimizedB instanceof ConstantExpressionTemplate ? ConstantExpressionTemplate.fold(result) : result;
+    }
+
+    private ExpressionTemplate optimizeList(ExpressionTemplate template, Collection<ExpressionTemplate> operands, Function<Collection<ExpressionTemplate>, ExpressionTemplate> constructor) {
+        List<ExpressionTemplate> optimized = new ArrayList<>(operands.size());
+        boolean changed = false;
+        boolean constant = true;
+        for (ExpressionTemplate operand : operands) {
+            ExpressionTemplate optimizedOperand = optimize(operand);
+            changed |= optimizedOperand != operand;
+            constant &= optimizedOperand instanceof ConstantExpressionTemplate;
+            optimized.add(optimizedOperand);
+        }
+        ExpressionTemplate result = changed ? constructor.apply(optimized) : template;
+        return constant ? ConstantExpressionTemplate.fold(result) : result;
+    }
+
+    /**
+     * Simplifies the operands of and/ or.
+     *
+     * @param operands        the operands
+     * @param neutralElement  true for and, false for or
+     * @param nestedOperands  returns the operands of a nested junction of the same type, null otherwise
+     * @param constructor     creates the junction
+     * @return the simplified template
+     */
+    private ExpressionTemplate optimizeJunction(Collection<ExpressionTemplate> operands, boolean neutralElement, Function<ExpressionTemplate, Collection<ExpressionTemplate>> nestedOperands, Function<Collection<ExpressionTemplate>, ExpressionTemplate> constructor) {
+        Set<ExpressionTemplate> result = new LinkedHashSet<>();
+        for (ExpressionTemplate operand : operands) {
+            operand = optimize(operand);
+            if (operand instanceof ConstantExpressionTemplate) {
+                if (operand.instantiateWithBooleanResult().evaluate() != neutralElement) {
+                    return ConstantExpressionTemplate.of(!neutralElement);
+                }
+            } else {
+                Collection<ExpressionTemplate> nested = nestedOperands.apply(operand);
+                if (nested != null) {
+                    result.addAll(nested);
+                } else {
+                    result.add(operand);
+                }
+            }
+        }
+        if (result.isEmpty()) {
+            return ConstantExpressionTemplate.of(neutralElement);
+        }
+        if (result.size() == 1) {
+            ExpressionTemplate operand = result.iterator().next();
+            // only boolean templates convert their result to string and number the same way and/ or do
+            if (operand instanceof AbstractBooleanExpressionTemplate) {
+                return operand;
+            }
+        }
+        return constructor.apply(new ArrayList<>(result));
+    }
+
+    private interface OptimizableExpressionTemplate extends ExpressionTemplate {
+
+        ExpressionTemplate optimize();
+    }
+
     @EqualsAndHashCode(callSuper = false)
-    private static class Negation extends AbstractBooleanExpressionTemplate {
+    private static class Negation extends AbstractBooleanExpressionTemplate implements OptimizableExpressionTemplate {
         private final ExpressionTemplate template;
 
         Negation(ExpressionTemplate template) {
@@ -109,14 +204,24 @@ public class ExpressionTemplates {
             return Expressions.negate(template.instantiateWithBooleanResult());
         }
 
+        @Override
+        public ExpressionTemplate optimize() {
+            return optimizeUnary(this, template, Negation::new);
+        }
+
         @Override
         public boolean requiresViewerContext() {
             return template.requiresViewerContext();
         }
+
+        @Override
+        public boolean collectViewerDataKeys(Set<DataKey<?>> keys) {
+            return template.collectViewerDataKeys(keys);
+        }
     }
 
     @EqualsAndHashCode(callSuper = false)
-    private static class And extends AbstractBooleanExpressionTemplate {
+    private static class And extends AbstractBooleanExpressionTemplate implements OptimizableExpressionTemplate {
         private final Collection<ExpressionTemplate> operands;
 
         And(Collection<ExpressionTemplate> operands) {
@@ -128,14 +233,24 @@ public class ExpressionTemplates {
             return Expressions.and(operands.stream().map(ExpressionTemplate::instantiateWithBooleanResult).collect(Collectors.toList()));
         }
 
+        @Override
+        public ExpressionTemplate optimize() {
+            return optimizeJunction(operands, true, template -> template instanceof And ? ((And) template).operands : null, And::new);
+        }
+
         @Override
         public boolean requiresViewerContext() {
             return operands.stream().anyMatch(ExpressionTemplate::requiresViewerContext);
         }
+
+        @Override
+        public boolean collectViewerDataKeys(Set<DataKey<?>> keys) {
+            return operands.stream().allMatch(operand -> operand.collectViewerDataKeys(keys));
+        }
     }
 
     @EqualsAndHashCode(callSuper = false)
-    private static class Or extends AbstractBooleanExpressionTemplate {
+    private static class Or extends AbstractBooleanExpressionTemplate implements OptimizableExpressionTemplate {
         private final Collection<ExpressionTemplate> operands;
 
         Or(Collection<ExpressionTemplate> operands) {
@@ -147,14 +262,24 @@ public class ExpressionTemplates {
             return Expressions.or(operands.stream().map(ExpressionTemplate::instantiateWithBooleanResult).collect(Collectors.toList()));
         }
 
+        @Override
+        public ExpressionTemplate optimize() {
+            return optimizeJunction(operands, false, template -> template instanceof Or ? ((Or) template).operands : null, Or::new);
+        }
+
         @Override
         public boolean requiresViewerContext() {
             return operands.stream().anyMatch(ExpressionTemplate::requiresViewerContext);
         }
+
+        @Override
+        public boolean collectViewerDataKeys(Set<DataKey<?>> keys) {
+            return operands.stream().allMatch(operand -> operand.collectViewerDataKeys(keys));
+        }
     }
 
     @EqualsAndHashCode(callSuper = false)
-    private static class Concatenate extends AbstractStringExpressionTemplate {
+    private static class Concatenate extends AbstractStringExpressionTemplate implements OptimizableExpressionTemplate {
         private final Collection<ExpressionTemplate> operands;
 
         Concatenate(Collection<ExpressionTemplate> operands) {
@@ -166,14 +291,51 @@ public class ExpressionTemplates {
             return Expressions.concat(operands.stream().map(ExpressionTemplate::instantiateWithStringResult).collect(Collectors.toList()));
         }
 
+        @Override
+        public ExpressionTemplate optimize() {
+            List<ExpressionTemplate> result = new ArrayList<>(operands.size());
+            StringBuilder constant = new StringBuilder();
+            for (ExpressionTemplate operand : operands) {
+                operand = ExpressionTemplates.optimize(operand);
+                Collection<ExpressionTemplate> parts = operand instanceof Concatenate ? ((Concatenate) operand).operands : Collections.singletonList(operand);
+                for (ExpressionTemplate part : parts) {
+                    if (part instanceof ConstantExpressionTemplate) {
+                        constant.append(part.instantiateWithStringResult().evaluate());
+                    } else {
+                        if (constant.length() > 0) {
+                            result.add(ConstantExpressionTemplate.of(constant.toString()));
+                            constant.setLength(0);
+                        }
+                        result.add(part);
+                    }
+                }
+            }
+            if (result.isEmpty()) {
+                // constant strings are converted to numbers differently, so evaluate the concatenation itself
+                return ConstantExpressionTemplate.fold(new Concatenate(Collections.singletonList(ConstantExpressionTemplate.of(constant.toString()))));
+            }
+            if (constant.length() > 0) {
+                result.add(ConstantExpressionTemplate.of(constant.toString()));
+            }
+            if (result.size() == 1 && result.get(0) instanceof AbstractStringExpressionTemplate) {
+                return result.get(0);
+            }
+            return new Concatenate(result);
+        }
+
         @Override
         public boolean requiresViewerContext() {
             return operands.stream().anyMatch(ExpressionTemplate::requiresViewerContext);
         }
+
+        @Override
+        public boolean collectViewerDataKeys(Set<DataKey<?>> keys) {
+            return operands.stream().allMatch(operand -> operand.collectViewerDataKeys(keys));
+        }
     }
 
     @EqualsAndHashCode(callSuper = false)
-    private static class Equal extends AbstractBooleanExpressionTemplate {
+    private static class Equal extends AbstractBooleanExpressionTemplate implements OptimizableExpressionTemplate {
         private final ExpressionTemplate a;
         private final ExpressionTemplate b;
 
@@ -187,14 +349,24 @@ public class ExpressionTemplates {
             return Expressions.equal(a.instantiateWithStringResult(), b.instantiateWithStringResult());
         }
 
+        @Override
+        public ExpressionTemplate optimize() {
+            return optimizeBinary(this, a, b, Equal::new);
+        }
+
         @Override
         public boolean requiresViewerContext() {
             return a.requiresViewerContext() || b.requiresViewerContext();
         }
+
+        @Override
+        public boolean collectViewerDataKeys(Set<DataKey<?>> keys) {
+            return a.collectViewerDataKeys(keys) & b.collectViewerDataKeys(keys);
+        }
     }
 
     @EqualsAndHashCode(callSuper = false)
-    private static class NotEqual extends AbstractBooleanExpressionTemplate {
+    private static class NotEqual extends AbstractBooleanExpressionTemplate implements OptimizableExpressionTemplate {
         private final ExpressionTemplate a;
         private final ExpressionTemplate b;
 
@@ -208,14 +380,24 @@ public class ExpressionTemplates {
             return Expressions.notEqual(a.instantiateWithStringResult(), b.instantiateWithStringResult());
         }
 
+        @Override
+        public ExpressionTemplate optimize() {
+            return optimizeBinary(this, a, b, NotEqual::new);
+        }
+
         @Override
         public boolean requiresViewerContext() {
             return a.requiresViewerContext() || b.requiresViewerContext();
         }
+
+        @Override
+        public boolean collectViewerDataKeys(Set<DataKey<?>> keys) {
+            return a.collectViewerDataKeys(keys) & b.collectViewerDataKeys(keys);
+        }
     }
 
     @EqualsAndHashCode(callSuper = false)
-    private static class Greater extends AbstractBooleanExpressionTemplate {
+    private static class Greater extends AbstractBooleanExpressionTemplate implements OptimizableExpressionTemplate {
         private final ExpressionTemplate a;
         private final ExpressionTemplate b;
 
@@ -229,14 +411,24 @@ public class ExpressionTemplates {
             return Expressions.greaterThan(a.instantiateWithDoubleResult(), b.instantiateWithDoubleResult());
         }
 
+        @Override
+        public ExpressionTemplate optimize() {
+            return optimizeBinary(this, a, b, Greater::new);
+        }
+
         @Override
         public boolean requiresViewerContext() {
             return a.requiresViewerContext() || b.requiresViewerContext();
         }
+
+        @Override
+        public boolean collectViewerDataKeys(Set<DataKey<?>> keys) {
+            return a.collectViewerDataKeys(keys) & b.collectViewerDataKeys(keys);
+        }
     }
 
     @EqualsAndHashCode(callSuper = false)
-    private static class GreaterOrEqual extends AbstractBooleanExpressionTemplate {
+    private static class GreaterOrEqual extends AbstractBooleanExpressionTemplate implements OptimizableExpressionTemplate {
         private final ExpressionTemplate a;
         private final ExpressionTemplate b;
 
@@ -250,14 +442,24 @@ public class ExpressionTemplates {
             return Expressions.greaterOrEqualThan(a.instantiateWithDoubleResult(), b.instantiateWithDoubleResult());
         }
 
+        @Override
+        public ExpressionTemplate optimize() {
+            return optimizeBinary(this, a, b, GreaterOrEqual::new);
+        }
+
         @Override
         public boolean requiresViewerContext() {
             return a.requiresViewerContext() || b.requiresViewerContext();
         }
+
+        @Override
+        public boolean collectViewerDataKeys(Set<DataKey<?>> keys) {
+            return a.collectViewerDataKeys(keys) & b.collectViewerDataKeys(keys);
+        }
     }
 
     @EqualsAndHashCode(callSuper = false)
-    private static class Less extends AbstractBooleanExpressionTemplate {
+    private static class Less extends AbstractBooleanExpressionTemplate implements OptimizableExpressionTemplate {
         private final ExpressionTemplate a;
         private final ExpressionTemplate b;
 
@@ -271,14 +473,24 @@ public class ExpressionTemplates {
             return Expressions.lesserThan(a.instantiateWithDoubleResult(), b.instantiateWithDoubleResult());
         }
 
+        @Override
+        public ExpressionTemplate optimize() {
+            return optimizeBinary(this, a, b, Less::new);
+        }
+
         @Override
         public boolean requiresViewerContext() {
             return a.requiresViewerContext() || b.requiresViewerContext();
         }
+
+        @Override
+        public boolean collectViewerDataKeys(Set<DataKey<?>> keys) {
+            return a.collectViewerDataKeys(keys) & b.collectViewerDataKeys(keys);
+        }
     }
 
     @EqualsAndHashCode(callSuper = false)
-    private static class LessOrEqual extends AbstractBooleanExpressionTemplate {
+    private static class LessOrEqual extends AbstractBooleanExpressionTemplate implements OptimizableExpressionTemplate {
         private final ExpressionTemplate a;
         private final ExpressionTemplate b;
 
@@ -292,14 +504,24 @@ public class ExpressionTemplates {
             return Expressions.lesserOrEqualThan(a.instantiateWithDoubleResult(), b.instantiateWithDoubleResult());
         }
 
+        @Override
+        public ExpressionTemplate optimize() {
+            return optimizeBinary(this, a, b, LessOrEqual::new);
+        }
+
         @Override
         public boolean requiresViewerContext() {
             return a.requiresViewerContext() || b.requiresViewerContext();
         }
+
+        @Override
+        public boolean collectViewerDataKeys(Set<DataKey<?>> keys) {
+            return a.collectViewerDataKeys(keys) & b.collectViewerDataKeys(keys);
+        }
     }
 
     @EqualsAndHashCode(callSuper = false)
-    private static class Sum extends AbstractDoubleExpressionTemplate {
+    private static class Sum extends AbstractDoubleExpressionTemplate implements OptimizableExpressionTemplate {
         private final Collection<ExpressionTemplate> operands;
 
         Sum(Collection<ExpressionTemplate> operands) {
@@ -311,14 +533,24 @@ public class ExpressionTemplates {
             return Expressions.sum(operands.stream().map(ExpressionTemplate::instantiateWithDoubleResult).collect(Collectors.toList()));
         }
 
+        @Override
+        public ExpressionTemplate optimize() {
+            return optimizeList(this, operands, Sum::new);
+        }
+
         @Override
         public boolean requiresViewerContext() {
             return operands.stream().anyMatch(ExpressionTemplate::requiresViewerContext);
         }
+
+        @Override
+        public boolean collectViewerDataKeys(Set<DataKey<?>> keys) {
+            return operands.stream().allMatch(operand -> operand.collectViewerDataKeys(keys));
+        }
     }
 
     @EqualsAndHashCode(callSuper = false)
-    private static class Product extends AbstractDoubleExpressionTemplate {
+    private static class Product extends AbstractDoubleExpressionTemplate implements OptimizableExpressionTemplate {
         private final Collection<ExpressionTemplate> operands;
 
         Product(Collection<ExpressionTemplate> operands) {
@@ -330,14 +562,24 @@ public class ExpressionTemplates {
             return Expressions.product(operands.stream().map(ExpressionTemplate::instantiateWithDoubleResult).collect(Collectors.toList()));
         }
 
+        @Override
+        public ExpressionTemplate optimize() {
+            return optimizeList(this, operands, Product::new);
+        }
+
         @Override
         public boolean requiresViewerContext() {
             return operands.stream().anyMatch(ExpressionTemplate::requiresViewerContext);
         }
+
+        @Override
+        public boolean collectViewerDataKeys(Set<DataKey<?>> keys) {
+            return operands.stream().allMatch(operand -> operand.collectViewerDataKeys(keys));
+        }
     }
 
     @EqualsAndHashCode(callSuper = false)
-    private static class Sub extends AbstractDoubleExpressionTemplate {
+    private static class Sub extends AbstractDoubleExpressionTemplate implements OptimizableExpressionTemplate {
         private final ExpressionTemplate a;
         private final ExpressionTemplate b;
 
@@ -351,14 +593,24 @@ public class ExpressionTemplates {
             return Expressions.sub(a.instantiateWithDoubleResult(), b.instantiateWithDoubleResult());
         }
 
+        @Override
+        public ExpressionTemplate optimize() {
+            return optimizeBinary(this, a, b, Sub::new);
+        }
+
         @Override
         public boolean requiresViewerContext() {
             return a.requiresViewerContext() || b.requiresViewerContext();
         }
+
+        @Override
+        public boolean collectViewerDataKeys(Set<DataKey<?>> keys) {
+            return a.collectViewerDataKeys(keys) & b.collectViewerDataKeys(keys);
+        }
     }
 
     @EqualsAndHashCode(callSuper = false)
-    private static class Div extends AbstractDoubleExpressionTemplate {
+    private static class Div extends AbstractDoubleExpressionTemplate implements OptimizableExpressionTemplate {
         private final ExpressionTemplate a;
         private final ExpressionTemplate b;
 
@@ -372,14 +624,24 @@ public class ExpressionTemplates {
             return Expressions.div(a.instantiateWithDoubleResult(), b.instantiateWithDoubleResult());
         }
 
+        @Override
+        public ExpressionTemplate optimize() {
+            return optimizeBinary(this, a, b, Div::new);
+        }
+
         @Override
         public boolean requiresViewerContext() {
             return a.requiresViewerContext() || b.requiresViewerContext();
         }
+
+        @Override
+        public boolean collectViewerDataKeys(Set<DataKey<?>> keys) {
+            return a.collectViewerDataKeys(keys) & b.collectViewerDataKeys(keys);
+        }
     }
 
     @EqualsAndHashCode(callSuper = false)
-    private static class NegationNumber extends AbstractDoubleExpressionTemplate {
+    private static class NegationNumber extends AbstractDoubleExpressionTemplate implements OptimizableExpressionTemplate {
         private final ExpressionTemplate template;
 
         NegationNumber(ExpressionTemplate template) {
@@ -391,14 +653,24 @@ public class ExpressionTemplates {
             return Expressions.negateNumber(template.instantiateWithDoubleResult());
         }
 
+        @Override
+        public ExpressionTemplate optimize() {
+            return optimizeUnary(this, template, NegationNumber::new);
+        }
+
         @Override
         public boolean requiresViewerContext() {
             return template.requiresViewerContext();
         }
+
+        @Override
+        public boolean collectViewerDataKeys(Set<DataKey<?>> keys) {
+            return template.collectViewerDataKeys(keys);
+        }
     }
 
     @EqualsAndHashCode(callSuper = false)
-    private static class ApplyStringToStringFunction extends AbstractStringExpressionTemplate {
+    private static class ApplyStringToStringFunction extends AbstractStringExpressionTemplate implements OptimizableExpressionTemplate {
         private final ExpressionTemplate template;
         private final Function<String, String> function;
 
@@ -412,10 +684,21 @@ public class ExpressionTemplates {
             return Expressions.applyToStringFunction(template.instantiateWithStringResult(), function);
         }
 
+        @Override
+        public ExpressionTemplate optimize() {
+            ExpressionTemplate optimized = ExpressionTemplates.optimize(this.template);
+            return optimized == this.template ? this : new ApplyStringToStringFunction(optimized, function);
+        }
+
         @Override
         public boolean requiresViewerContext() {
             return template.requiresViewerContext();
         }
+
+        @Override
+        public boolean collectViewerDataKeys(Set<DataKey<?>> keys) {
+            return template.collectViewerDataKeys(keys);
+        }
     }
 
 }
@@ -383,7 +383,7 @@ public class DefaultIconManager implements IconManager {
     }
 
     private class IconEntry implements IconTemplate {
-        private Supplier<IconView> factory;
+        private volatile Supplier<IconView> factory;
         @Nullable
         private List<Runnable> listeners = new ArrayList<>();
 
@@ -414,12 +414,16 @@ public class DefaultIconManager implements IconManager {
         private class IconViewDelegate extends AbstractActiveElement<IconViewUpdateListener> implements IconView, Runnable {
 
             private IconView delegate = new IconViewLoading();
+            private Runnable loadListener;
 
             @Override
             protected void onActivation() {
+                // the icon is loaded on the main tab event queue, the view may live on another loop
+                ScheduledExecutorService eventQueue = getContext().getTabEventQueue();
+                loadListener = () -> eventQueue.execute(this);
                 synchronized (IconEntry.this) {
                     if (listeners != null) {
-                        listeners.add(this);
+                        listeners.add(loadListener);
                     }
                 }
                 delegate.activate(getContext(), getListener());
@@ -429,9 +433,10 @@ public class DefaultIconManager implements IconManager {
             protected void onDeactivation() {
                 synchronized (IconEntry.this) {
                     if (listeners != null) {
-                        listeners.remove(this);
+                        listeners.remove(loadListener);
                     }
                 }
+                loadListener = null;
                 delegate.deactivate();
             }
 
@@ -442,6 +447,9 @@ public class DefaultIconManager implements IconManager {
 
             @Override
             public void run() {
+                if (!isActive()) {
+                    return;
+                }
                 delegate.deactivate();
                 delegate = factory.get();
                 delegate.activate(getContext(), getListener());
@@ -17,177 +17,135 @@
 
 package de.codecrafter47.taboverlay.config.misc;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.io.ByteStreams;
 import com.google.gson.Gson;
 import com.google.gson.reflect.TypeToken;
 import it.unimi.dsi.fastutil.chars.CharOpenHashSet;
 import it.unimi.dsi.fastutil.chars.CharSet;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.Map;
 
 public class ChatFormat {
 
-    private static final char COLOR_CHAR = '\u00a7';
-    private static final Map<String, FontInfo> CHAR_WIDTH;
-    private static final String EMPTY_JSON_TEXT = "{\"text\":\"\"}";
+    static final char COLOR_CHAR = '\u00a7';
+    static final Map<String, FontInfo> CHAR_WIDTH;
+    static final String EMPTY_JSON_TEXT = "{\"text\":\"\"}";
     private static final CharSet HEX_CHARS = new CharOpenHashSet(new char[]{'0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'a', 'b', 'c', 'd', 'e', 'f', 'A', 'B', 'C', 'D', 'E', 'F'});
-    private static final FontInfo DEFAULT_FONT;
+    static final FontInfo DEFAULT_FONT;
+    /**
+     * Maximum total length of the texts and json texts in the json cache.
+     */
+    private static final int JSON_CACHE_MAX_CHARS = 1 << 21;
+    /**
+     * Slot texts repeat a lot across slots and viewers, e.g. player names and filler text.
+     */
+    private static final Cache<String, String> JSON_CACHE = CacheBuilder.newBuilder()
+            .maximumWeight(JSON_CACHE_MAX_CHARS)
+            .weigher((String text, String json) -> text.length() + json.length())
+            .build();
+    /**
+     * Advance of unknown characters, in units of half a pixel.
+     */
+    private static final byte DEFAULT_ADVANCE = 12;
+    private static final byte DEFAULT_ADVANCE_BF = 14;
 
     static {
-        InputStream resourceAsStream = ChatFormat.class.getResourceAsStream("char-width.json");
-        InputStreamReader inputStreamReader = new InputStreamReader(resourceAsStream);
-        CHAR_WIDTH = new Gson().fromJson(inputStreamReader, new TypeToken<Map<String, FontInfo>>() {
-        }.getType());
+        // char-width.bin is generated from char-width.json at build time, see the generateCharWidthTable task
+        try (InputStream in = ChatFormat.class.getResourceAsStream("char-width.bin")) {
+            CHAR_WIDTH = in != null ? readCharWidthTable(in) : readCharWidthJson();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to load char-width.bin", e);
+        }
         DEFAULT_FONT = CHAR_WIDTH.get("minecraft:default");
     }
 
-    public static String formattedTextToJson(String text) {
-        if (text == null || text.isEmpty()) {
-            return EMPTY_JSON_TEXT;
-        }
-
-        StringBuilder jsonBuilder = new StringBuilder("{\"text\":\"\",\"extra\":[");
-        StringBuilder builder = new StringBuilder();
-        boolean bold = false;
-        boolean italic = false;
-        boolean underlined = false;
-        boolean strikeout = false;
-        boolean obfuscated = false;
-        boolean first = true;
-        String color = "white";
-        String font = null;
-
-        for (int i = 0; i < text.length(); ++i) {
-            Style style = readFormatCode(text, i);
-
-            if (style != null) {
-                if (builder.length() > 0) {
-                    if (first) {
-                        first = false;
-                    } else {
-                        jsonBuilder.append(",");
-                    }
-                    jsonBuilder.append("{\"text\":\"").append(builder.toString()).append("\"");
-                    jsonBuilder.append(",\"color\":\"").append(color).append("\"");
-                    if (font != null) {
-                        jsonBuilder.append(",\"font\":\"").append(font).append("\"");
-                    }
-                    if (bold) {
-                        jsonBuilder.append(",\"bold\":\"true\"");
-                    }
-                    if (italic) {
-                        jsonBuilder.append(",\"italic\":\"true\"");
-                    }
-                    if (underlined) {
-                        jsonBuilder.append(",\"underlined\":\"true\"");
-                    }
-                    if (strikeout) {
-                        jsonBuilder.append(",\"strikethrough\":\"true\"");
-                    }
-                    if (obfuscated) {
-                        jsonBuilder.append(",\"obfuscated\":\"true\"");
-                    }
-                    jsonBuilder.append("}");
-                    builder.setLength(0);
-                }
-
-                switch (style.type) {
-                    case BOLD:
-                        bold = true;
-                        break;
-                    case ITALIC:
-                        italic = true;
-                        break;
-                    case UNDERLINE:
-                        underlined = true;
-                        break;
-                    case STRIKE_THROUGH:
-                        strikeout = true;
-                        break;
-                    case OBFUSCATED:
-                        obfuscated = true;
-                        break;
-                    case COLOR:
-                        bold = false;
-                        italic = false;
-                        underlined = false;
-                        strikeout = false;
-                        obfuscated = false;
-                        color = style.stringValue;
-                        break;
-                    case FONT:
-                        font = style.stringValue;
-                }
-
-                i += style.formatCodeLength - 1;
-            } else {
-                char c = text.charAt(i);
-                if (mustEscape(c)) {
-                    builder.append(escape(c));
-                } else {
-                    builder.append(c);
-                }
+    /**
+     * Read the binary width table. For each font it contains the ranges of consecutive code points and their advances
+     * as bytes in units of half a pixel.
+     */
+    private static Map<String, FontInfo> readCharWidthTable(InputStream in) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(ByteStreams.toByteArray(in));
+        int fontCount = buffer.getInt();
+        Map<String, FontInfo> fonts = new HashMap<>(fontCount * 2);
+        for (int i = 0; i < fontCount; i++) {
+            byte[] name = new byte[buffer.getShort()];
+            buffer.get(name);
+            int rangeCount = buffer.getInt();
+            int[] rangeStart = new int[rangeCount];
+            int[] rangeOffset = new int[rangeCount + 1];
+            for (int j = 0; j < rangeCount; j++) {
+                rangeStart[j] = buffer.getInt();
+                rangeOffset[j + 1] = rangeOffset[j] + buffer.getInt();
             }
+            byte[] advance = new byte[rangeOffset[rangeCount]];
+            byte[] advanceBf = new byte[rangeOffset[rangeCount]];
+            buffer.get(advance);
+            buffer.get(advanceBf);
+            fonts.put(new String(name, StandardCharsets.UTF_8), new FontInfo(rangeStart, rangeOffset, advance, advanceBf));
         }
+        return fonts;
+    }
 
-        if (builder.length() > 0) {
-            if (first) {
-                first = false;
-            } else {
-                jsonBuilder.append(",");
+    private static Map<String, FontInfo> readCharWidthJson() throws IOException {
+        try (InputStreamReader reader = new InputStreamReader(ChatFormat.class.getResourceAsStream("char-width.json"), StandardCharsets.UTF_8)) {
+            Map<String, JsonFontInfo> json = new Gson().fromJson(reader, new TypeToken<Map<String, JsonFontInfo>>() {
+            }.getType());
+            Map<String, FontInfo> fonts = new HashMap<>(json.size() * 2);
+            for (Map.Entry<String, JsonFontInfo> entry : json.entrySet()) {
+                fonts.put(entry.getKey(), entry.getValue().toFontInfo());
             }
-            jsonBuilder.append("{\"text\":\"").append(builder.toString()).append("\"");
-            jsonBuilder.append(",\"color\":\"").append(color).append("\"");
-            if (font != null) {
-                jsonBuilder.append(",\"font\":\"").append(font).append("\"");
-            }
-            if (bold) {
-                jsonBuilder.append(",\"bold\":\"true\"");
-            }
-            if (italic) {
-                jsonBuilder.append(",\"italic\":\"true\"");
-            }
-            if (underlined) {
-                jsonBuilder.append(",\"underlined\":\"true\"");
-            }
-            if (strikeout) {
-                jsonBuilder.append(",\"strikethrough\":\"true\"");
-            }
-            if (obfuscated) {
-                jsonBuilder.append(",\"obfuscated\":\"true\"");
-            }
-            jsonBuilder.append("}");
-            builder.setLength(0);
+            return fonts;
         }
+    }
 
-        if (first) {
+    public static String formattedTextToJson(String text) {
+        if (text == null || text.isEmpty()) {
             return EMPTY_JSON_TEXT;
         }
+        String json = JSON_CACHE.getIfPresent(text);
+        if (json == null) {
+            json = FormattedText.parse(text).toJson();
+            JSON_CACHE.put(text, json);
+        }
+        return json;
+    }
 
-        jsonBuilder.append("]}");
-        return jsonBuilder.toString();
+    /**
+     * Write formatted text as json chat component, without creating an intermediate string if the text is not
+     * cached.
+     *
+     * @param text the formatted text
+     * @param out  the target
+     * @throws IOException if the target throws an IOException
+     */
+    public static void formattedTextToJson(String text, Appendable out) throws IOException {
+        if (text == null || text.isEmpty()) {
+            out.append(EMPTY_JSON_TEXT);
+            return;
+        }
+        String json = JSON_CACHE.getIfPresent(text);
+        if (json != null) {
+            out.append(json);
+        } else {
+            FormattedText.parse(text).appendJson(out);
+        }
     }
 
     public static String formattedTextToLegacy(String text) {
-        StringBuilder sb = new StringBuilder(text.length());
-        for (int i = 0; i < text.length(); i += Character.charCount(text.codePointAt(i))) {
-            Style style = readFormatCode(text, i);
-            if (style == null) {
-                sb.appendCodePoint(text.codePointAt(i));
-            } else {
-                if (style.formatCodeLength == 2) {
-                    sb.append(COLOR_CHAR);
-                    sb.appendCodePoint(text.codePointAt(i + 1));
-                }
-                i += style.formatCodeLength - 1;
-            }
-        }
-        return sb.toString();
+        return FormattedText.parse(text).toLegacy();
     }
 
-    private static Style readFormatCode(String text, int index) {
+    static Style readFormatCode(String text, int index) {
         char c = text.charAt(index);
         if (index + 1 < text.length() && isFormatChar(c)) {
             switch (text.charAt(index + 1)) {
@@ -311,11 +269,11 @@ public class ChatFormat {
         return c == '&' || c == COLOR_CHAR;
     }
 
-    private static boolean mustEscape(char c) {
+    static boolean mustEscape(char c) {
         return c == '"' || c == '\\' || c <= 0x1F;
     }
 
-    private static String escape(char c) {
+    static String escape(char c) {
         if (c == '"') {
             return "\\\"";
         } else if (c == '\\') {
@@ -353,13 +311,21 @@ public class ChatFormat {
         return getCharWidth(codePoint, DEFAULT_FONT, false);
     }
 
-    private static double getCharWidth(int codePoint, FontInfo font, boolean isBold) {
-        int index = Arrays.binarySearch(font.codePoints, codePoint);
-        if (index < 0) {
-            return isBold ? 7.0f : 6.0f;
-        } else {
-            return isBold ? font.advanceBf[index] : font.advance[index];
+    static double getCharWidth(int codePoint, FontInfo font, boolean isBold) {
+        if (codePoint <= Character.MAX_VALUE) {
+            return (isBold ? font.bmpPagesBf : font.bmpPages)[codePoint >>> 8][codePoint & 0xff] * 0.5;
         }
+        int range = Arrays.binarySearch(font.rangeStart, codePoint);
+        if (range < 0) {
+            range = -range - 2;
+        }
+        if (range >= 0) {
+            int index = font.rangeOffset[range] + codePoint - font.rangeStart[range];
+            if (index < font.rangeOffset[range + 1]) {
+                return (isBold ? font.advanceBf[index] : font.advance[index]) * 0.5;
+            }
+        }
+        return isBold ? DEFAULT_ADVANCE_BF * 0.5 : DEFAULT_ADVANCE * 0.5;
     }
 
     public static float formattedTextLength(String text) {
@@ -463,10 +429,85 @@ public class ChatFormat {
         return sb.toString();
     }
 
-    private static class FontInfo {
+    static final class FontInfo {
+        /**
+         * First code point of each range of consecutive code points.
+         */
+        private final int[] rangeStart;
+        /**
+         * Index of the first code point of each range in the advance arrays, followed by the total number of code
+         * points.
+         */
+        private final int[] rangeOffset;
+        /**
+         * Advances in units of half a pixel.
+         */
+        private final byte[] advance;
+        private final byte[] advanceBf;
+        /**
+         * Advances of the basic multilingual plane, indexed by the high and low byte of the code point. Pages without
+         * any known character share one page of default advances.
+         */
+        private final byte[][] bmpPages;
+        private final byte[][] bmpPagesBf;
+
+        private FontInfo(int[] rangeStart, int[] rangeOffset, byte[] advance, byte[] advanceBf) {
+            this.rangeStart = rangeStart;
+            this.rangeOffset = rangeOffset;
+            this.advance = advance;
+            this.advanceBf = advanceBf;
+            this.bmpPages = createBmpPages(advance, DEFAULT_ADVANCE);
+            this.bmpPagesBf = createBmpPages(advanceBf, DEFAULT_ADVANCE_BF);
+        }
+
+        private byte[][] createBmpPages(byte[] advance, byte defaultAdvance) {
+            byte[] defaultPage = new byte[256];
+            Arrays.fill(defaultPage, defaultAdvance);
+            byte[][] pages = new byte[256][];
+            Arrays.fill(pages, defaultPage);
+            for (int range = 0; range < rangeStart.length && rangeStart[range] <= Character.MAX_VALUE; range++) {
+                int end = Math.min(rangeStart[range] + rangeOffset[range + 1] - rangeOffset[range], Character.MAX_VALUE + 1);
+                for (int codePoint = rangeStart[range]; codePoint < end; codePoint++) {
+                    byte[] page = pages[codePoint >>> 8];
+                    if (page == defaultPage) {
+                        page = pages[codePoint >>> 8] = defaultPage.clone();
+                    }
+                    page[codePoint & 0xff] = advance[rangeOffset[range] + codePoint - rangeStart[range]];
+                }
+            }
+            return pages;
+        }
+    }
+
+    private static class JsonFontInfo {
         private int[] codePoints;
         private float[] advance;
         private float[] advanceBf;
+
+        private FontInfo toFontInfo() {
+            int rangeCount = 0;
+            for (int i = 0; i < codePoints.length; i++) {
+                if (i == 0 || codePoints[i] != codePoints[i - 1] + 1) {
+                    rangeCount++;
+                }
+            }
+            int[] rangeStart = new int[rangeCount];
+            int[] rangeOffset = new int[rangeCount + 1];
+            byte[] advance = new byte[codePoints.length];
+            byte[] advanceBf = new byte[codePoints.length];
+            int range = -1;
+            for (int i = 0; i < codePoints.length; i++) {
+                if (i == 0 || codePoints[i] != codePoints[i - 1] + 1) {
+                    range++;
+                    rangeStart[range] = codePoints[i];
+                    rangeOffset[range] = i;
+                }
+                advance[i] = (byte) Math.round(this.advance[i] * 2);
+                advanceBf[i] = (byte) Math.round(this.advanceBf[i] * 2);
+            }
+            rangeOffset[rangeCount] = codePoints.length;
+            return new FontInfo(rangeStart, rangeOffset, advance, advanceBf);
+        }
     }
 
     private static final Style STYLE_BOLD = new Style(Style.Type.BOLD, null, 2);
@@ -491,8 +532,8 @@ public class ChatFormat {
     private static final Style COLOR_DARK_BLUE = new Style(Style.Type.COLOR, "dark_blue", 2);
     private static final Style COLOR_BLACK = new Style(Style.Type.COLOR, "black", 2);
 
-    private static class Style {
-        private enum Type {
+    static class Style {
+        enum Type {
             BOLD, ITALIC, UNDERLINE, STRIKE_THROUGH, OBFUSCATED, COLOR, FONT
         }
 
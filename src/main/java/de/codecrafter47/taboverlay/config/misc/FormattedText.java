@@ -0,0 +1,309 @@
+/*
+ *     Copyright (C) 2020 Florian Stober
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.codecrafter47.taboverlay.config.misc;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Formatted text parsed into runs of equally styled text, see {@link ChatFormat} for the supported format codes.
+ * <p>
+ * The text is tokenized once. Measuring, cropping and converting it to legacy or json text then work on the runs.
+ * Instances are immutable.
+ */
+public final class FormattedText {
+
+    public static final FormattedText EMPTY = new FormattedText("", new Run[0], "", 0);
+
+    private final String text;
+    private final Run[] runs;
+    /**
+     * Legacy format codes after the last run.
+     */
+    private final String trailingLegacyCodes;
+    private final float width;
+
+    private FormattedText(String text, Run[] runs, String trailingLegacyCodes, float width) {
+        this.text = text;
+        this.runs = runs;
+        this.trailingLegacyCodes = trailingLegacyCodes;
+        this.width = width;
+    }
+
+    public static FormattedText parse(@Nonnull String text) {
+        if (text.isEmpty()) {
+            return EMPTY;
+        }
+        List<Run> runs = new ArrayList<>();
+        StringBuilder legacyCodes = new StringBuilder();
+        boolean bold = false;
+        boolean italic = false;
+        boolean underlined = false;
+        boolean strikethrough = false;
+        boolean obfuscated = false;
+        String color = "white";
+        String font = null;
+        ChatFormat.FontInfo fontInfo = ChatFormat.DEFAULT_FONT;
+        int runStart = -1;
+        float runWidth = 0;
+        float width = 0;
+
+        for (int i = 0; i < text.length(); i += Character.charCount(text.codePointAt(i))) {
+            ChatFormat.Style style = ChatFormat.readFormatCode(text, i);
+            if (style != null) {
+                if (runStart != -1) {
+                    runs.add(new Run(runStart, i, runWidth, fontInfo, color, font, bold, italic, underlined, strikethrough, obfuscated, legacyCodes.toString()));
+                    legacyCodes.setLength(0);
+                    width += runWidth;
+                    runStart = -1;
+                    runWidth = 0;
+                }
+                if (style.formatCodeLength == 2) {
+                    legacyCodes.append(ChatFormat.COLOR_CHAR);
+                    legacyCodes.appendCodePoint(text.codePointAt(i + 1));
+                }
+                switch (style.type) {
+                    case BOLD:
+                        bold = true;
+                        break;
+                    case ITALIC:
+                        italic = true;
+                        break;
+                    case UNDERLINE:
+                        underlined = true;
+                        break;
+                    case STRIKE_THROUGH:
+                        strikethrough = true;
+                        break;
+                    case OBFUSCATED:
+                        obfuscated = true;
+                        break;
+                    case COLOR:
+                        bold = false;
+                        italic = false;
+                        underlined = false;
+                        strikethrough = false;
+                        obfuscated = false;
+                        color = style.stringValue;
+                        break;
+                    case FONT:
+                        font = style.stringValue;
+                        fontInfo = ChatFormat.CHAR_WIDTH.get(font);
+                        if (fontInfo == null) {
+                            fontInfo = ChatFormat.DEFAULT_FONT;
+                        }
+                }
+                i += style.formatCodeLength - 1;
+            } else {
+                if (runStart == -1) {
+                    runStart = i;
+                }
+                runWidth += ChatFormat.getCharWidth(text.codePointAt(i), fontInfo, bold);
+            }
+        }
+        if (runStart != -1) {
+            runs.add(new Run(runStart, text.length(), runWidth, fontInfo, color, font, bold, italic, underlined, strikethrough, obfuscated, legacyCodes.toString()));
+            legacyCodes.setLength(0);
+            width += runWidth;
+        }
+        return new FormattedText(text, runs.toArray(new Run[0]), legacyCodes.toString(), width);
+    }
+
+    /**
+     * Get the text including format codes, as it has been parsed.
+     *
+     * @return the text
+     */
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * Get the width of the text in pixels.
+     *
+     * @return the width
+     */
+    public float getWidth() {
+        return width;
+    }
+
+    /**
+     * Crop the text to the given width. The result keeps all format codes in front of the first character which
+     * does not fit.
+     *
+     * @param maxWidth the maximum width in pixels
+     * @return the cropped text
+     */
+    public FormattedText crop(float maxWidth) {
+        if (width <= maxWidth) {
+            return this;
+        }
+        float length = 0;
+        for (int r = 0; r < runs.length; r++) {
+            Run run = runs[r];
+            if (length + run.width <= maxWidth) {
+                length += run.width;
+                continue;
+            }
+            float runWidth = 0;
+            for (int i = run.start; i < run.end; i += Character.charCount(text.codePointAt(i))) {
+                float charWidth = (float) ChatFormat.getCharWidth(text.codePointAt(i), run.fontInfo, run.bold);
+                if (length + runWidth + charWidth > maxWidth) {
+                    if (i == run.start) {
+                        return new FormattedText(text.substring(0, i), Arrays.copyOf(runs, r), run.legacyCodes, length);
+                    }
+                    Run[] croppedRuns = Arrays.copyOf(runs, r + 1);
+                    croppedRuns[r] = run.withEnd(i, runWidth);
+                    return new FormattedText(text.substring(0, i), croppedRuns, "", length + runWidth);
+                }
+                runWidth += charWidth;
+            }
+        }
+        // not reached, the text is wider than maxWidth
+        return this;
+    }
+
+    /**
+     * Convert the text to legacy text using the section sign as format char. Format codes without a legacy
+     * representation are removed.
+     *
+     * @return the legacy text
+     */
+    public String toLegacy() {
+        StringBuilder sb = new StringBuilder(text.length());
+        for (Run run : runs) {
+            sb.append(run.legacyCodes).append(text, run.start, run.end);
+        }
+        sb.append(trailingLegacyCodes);
+        return sb.toString();
+    }
+
+    /**
+     * Convert the text to a json chat component.
+     *
+     * @return the json text
+     */
+    public String toJson() {
+        StringBuilder sb = new StringBuilder(text.length() + 32 + runs.length * 32);
+        try {
+            appendJson(sb);
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Write the text as json chat component.
+     *
+     * @param out the target
+     * @throws IOException if the target throws an IOException
+     */
+    public void appendJson(Appendable out) throws IOException {
+        if (runs.length == 0) {
+            out.append(ChatFormat.EMPTY_JSON_TEXT);
+            return;
+        }
+        out.append("{\"text\":\"\",\"extra\":[");
+        for (int r = 0; r < runs.length; r++) {
+            Run run = runs[r];
+            if (r != 0) {
+                out.append(",");
+            }
+            out.append("{\"text\":\"");
+            int unescaped = run.start;
+            for (int i = run.start; i < run.end; i++) {
+                char c = text.charAt(i);
+                if (ChatFormat.mustEscape(c)) {
+                    out.append(text, unescaped, i).append(ChatFormat.escape(c));
+                    unescaped = i + 1;
+                }
+            }
+            out.append(text, unescaped, run.end);
+            out.append("\"");
+            out.append(",\"color\":\"").append(run.color).append("\"");
+            if (run.font != null) {
+                out.append(",\"font\":\"").append(run.font).append("\"");
+            }
+            if (run.bold) {
+                out.append(",\"bold\":\"true\"");
+            }
+            if (run.italic) {
+                out.append(",\"italic\":\"true\"");
+            }
+            if (run.underlined) {
+                out.append(",\"underlined\":\"true\"");
+            }
+            if (run.strikethrough) {
+                out.append(",\"strikethrough\":\"true\"");
+            }
+            if (run.obfuscated) {
+                out.append(",\"obfuscated\":\"true\"");
+            }
+            out.append("}");
+        }
+        out.append("]}");
+    }
+
+    @Override
+    public String toString() {
+        return text;
+    }
+
+    private static final class Run {
+        private final int start;
+        private final int end;
+        private final float width;
+        private final ChatFormat.FontInfo fontInfo;
+        private final String color;
+        @Nullable
+        private final String font;
+        private final boolean bold;
+        private final boolean italic;
+        private final boolean underlined;
+        private final boolean strikethrough;
+        private final boolean obfuscated;
+        /**
+         * Legacy format codes in front of the run.
+         */
+        private final String legacyCodes;
+
+        private Run(int start, int end, float width, ChatFormat.FontInfo fontInfo, String color, @Nullable String font, boolean bold, boolean italic, boolean underlined, boolean strikethrough, boolean obfuscated, String legacyCodes) {
+            this.start = start;
+            this.end = end;
+            this.width = width;
+            this.fontInfo = fontInfo;
+            this.color = color;
+            this.font = font;
+            this.bold = bold;
+            this.italic = italic;
+            this.underlined = underlined;
+            this.strikethrough = strikethrough;
+            this.obfuscated = obfuscated;
+            this.legacyCodes = legacyCodes;
+        }
+
+        private Run withEnd(int end, float width) {
+            return new Run(start, end, width, fontInfo, color, font, bold, italic, underlined, strikethrough, obfuscated, legacyCodes);
+        }
+    }
+}
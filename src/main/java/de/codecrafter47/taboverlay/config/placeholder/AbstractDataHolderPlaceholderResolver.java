@@ -27,14 +27,17 @@ import java.util.function.Function;
 public class AbstractDataHolderPlaceholderResolver<C extends DataHolder> extends AbstractPlaceholderResolver<C> {
 
     protected static <C extends DataHolder, T> PlaceholderResolver<C> create(DataKey<T> dataKey) {
-        return (builder, args, tcc) -> builder.acquireData(new DataHolderPlaceholderDataProviderSupplier<>(dataKey.getType(), dataKey, (p, d) -> d), dataKey.getType());
+        DataHolderPlaceholderDataProviderSupplier<C, T, T> supplier = new DataHolderPlaceholderDataProviderSupplier<>(dataKey.getType(), dataKey, (p, d) -> d, true);
+        return (builder, args, tcc) -> builder.acquireData(supplier, dataKey.getType());
     }
 
     protected static <C extends DataHolder, R, T> PlaceholderResolver<C> create(DataKey<R> dataKey, BiFunction<C, R, T> transformation, TypeToken<T> type) {
-        return (builder, args, tcc) -> builder.acquireData(new DataHolderPlaceholderDataProviderSupplier<>(type, dataKey, transformation), type);
+        DataHolderPlaceholderDataProviderSupplier<C, R, T> supplier = new DataHolderPlaceholderDataProviderSupplier<>(type, dataKey, transformation);
+        return (builder, args, tcc) -> builder.acquireData(supplier, type);
     }
 
     protected static <C extends DataHolder, R, T> PlaceholderResolver<C> create(DataKey<R> dataKey, Function<R, T> transformation, TypeToken<T> type) {
-        return (builder, args, tcc) -> builder.acquireData(new DataHolderPlaceholderDataProviderSupplier<>(type, dataKey, (p, d) -> transformation.apply(d)), type);
+        DataHolderPlaceholderDataProviderSupplier<C, R, T> supplier = new DataHolderPlaceholderDataProviderSupplier<>(type, dataKey, (p, d) -> transformation.apply(d), true);
+        return (builder, args, tcc) -> builder.acquireData(supplier, type);
     }
 }
@@ -32,14 +32,17 @@ public abstract class AbstractPlayerPlaceholderResolver extends AbstractPlacehol
     }
 
     protected static <T> PlaceholderResolver<Player> create(DataKey<T> dataKey) {
-        return (builder, args, tcc) -> builder.acquireData(new PlayerPlaceholderDataProviderSupplier<T, T>(dataKey.getType(), dataKey, (p, d) -> d), dataKey.getType());
+        PlayerPlaceholderDataProviderSupplier<T, T> supplier = new PlayerPlaceholderDataProviderSupplier<>(dataKey.getType(), dataKey, (p, d) -> d, true);
+        return (builder, args, tcc) -> builder.acquireData(supplier, dataKey.getType());
     }
 
     protected static <R, T> PlaceholderResolver<Player> create(DataKey<R> dataKey, BiFunction<Player, R, T> transformation, TypeToken<T> type) {
-        return (builder, args, tcc) -> builder.acquireData(new PlayerPlaceholderDataProviderSupplier<R, T>(type, dataKey, transformation), type);
+        PlayerPlaceholderDataProviderSupplier<R, T> supplier = new PlayerPlaceholderDataProviderSupplier<>(type, dataKey, transformation);
+        return (builder, args, tcc) -> builder.acquireData(supplier, type);
     }
 
     protected static <R, T> PlaceholderResolver<Player> create(DataKey<R> dataKey, Function<R, T> transformation, TypeToken<T> type) {
-        return (builder, args, tcc) -> builder.acquireData(new PlayerPlaceholderDataProviderSupplier<R, T>(type, dataKey, (p, d) -> transformation.apply(d)), type);
+        PlayerPlaceholderDataProviderSupplier<R, T> supplier = new PlayerPlaceholderDataProviderSupplier<>(type, dataKey, (p, d) -> transformation.apply(d), true);
+        return (builder, args, tcc) -> builder.acquireData(supplier, type);
     }
 }
@@ -17,6 +17,8 @@
 
 package de.codecrafter47.taboverlay.config.placeholder;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import de.codecrafter47.taboverlay.config.context.Context;
 import de.codecrafter47.taboverlay.config.misc.ChatFormat;
 import de.codecrafter47.taboverlay.config.misc.TextColor;
@@ -24,7 +26,10 @@ import de.codecrafter47.taboverlay.config.template.text.TextTemplate;
 import de.codecrafter47.taboverlay.config.view.AbstractActiveElement;
 import de.codecrafter47.taboverlay.config.view.text.TextView;
 import de.codecrafter47.taboverlay.config.view.text.TextViewUpdateListener;
+import lombok.SneakyThrows;
+import lombok.Value;
 
+import javax.annotation.Nullable;
 import java.util.List;
 import java.util.OptionalInt;
 import java.util.concurrent.Future;
@@ -32,6 +37,15 @@ import java.util.concurrent.TimeUnit;
 
 public class CustomPlaceholderColorAnimation extends AbstractActiveElement<Runnable> implements PlaceholderDataProvider<Context, String>, TextViewUpdateListener {
 
+    /**
+     * Animations with more frames are rendered on the fly.
+     */
+    private static final int MAX_FRAMES = 1200;
+    /**
+     * Precomputed frames, shared by all instances animating the same text in the same way.
+     */
+    private static final Cache<FrameKey, String[]> FRAME_CACHE = CacheBuilder.newBuilder().weakValues().build();
+
     private Future<?> task;
     private TextView textView;
     private final List<TextColor> colors;
@@ -42,6 +56,9 @@ public class CustomPlaceholderColorAnimation extends AbstractActiveElement<Runna
     private float pos = 0.0f;
     private float period;
     private String replacement;
+    @Nullable
+    private String[] frames;
+    private int frame;
 
     public CustomPlaceholderColorAnimation(TextTemplate textTemplate, List<TextColor> colors, OptionalInt distance, float speed) {
         this.textView = textTemplate.instantiate();
@@ -50,6 +67,7 @@ public class CustomPlaceholderColorAnimation extends AbstractActiveElement<Runna
         this.speed = speed;
     }
 
+    @SneakyThrows
     void updateText() {
         text = ChatFormat.stripFormat(textView.getText());
         if (distance.isPresent()) {
@@ -57,19 +75,43 @@ public class CustomPlaceholderColorAnimation extends AbstractActiveElement<Runna
         } else {
             effectiveDistance = ChatFormat.formattedTextLength(text) / (colors.size() - 1);
         }
+        if (frames != null) {
+            // frames are stored backwards if the speed is negative
+            int step = speed > 0 ? frame : (frames.length - frame) % frames.length;
+            pos = step * period / frames.length;
+        }
         period = effectiveDistance * colors.size();
-        updateReplacement();
+        // the animation repeats itself after period / speed ticks, the frames of one cycle can be shared
+        int frameCount = speed != 0 ? Math.round(period / Math.abs(speed)) : 1;
+        if (frameCount >= 1 && frameCount <= MAX_FRAMES && period > 0) {
+            FrameKey key = new FrameKey(text, colors, effectiveDistance, speed, frameCount);
+            frames = FRAME_CACHE.get(key, () -> renderFrames(key));
+            int step = Math.round(pos / period * frameCount) % frameCount;
+            frame = speed > 0 ? step : (frameCount - step) % frameCount;
+            replacement = frames[frame];
+        } else {
+            frames = null;
+            updateReplacement();
+        }
     }
 
     void updateAnimation() {
-        updateReplacement();
+        if (frames != null) {
+            if (frames.length == 1) {
+                return;
+            }
+            frame = (frame + 1) % frames.length;
+            replacement = frames[frame];
+        } else {
+            updateReplacement();
 
-        pos += speed;
-        if (this.pos < 0.0) {
-            this.pos += period;
-        }
-        if (this.pos > period) {
-            this.pos -= period;
+            pos += speed;
+            if (this.pos < 0.0) {
+                this.pos += period;
+            }
+            if (this.pos > period) {
+                this.pos -= period;
+            }
         }
 
         if (hasListener()) {
@@ -78,6 +120,21 @@ public class CustomPlaceholderColorAnimation extends AbstractActiveElement<Runna
     }
 
     private void updateReplacement() {
+        replacement = render(text, colors, effectiveDistance, pos);
+    }
+
+    private static String[] renderFrames(FrameKey key) {
+        String[] frames = new String[key.frameCount];
+        float period = key.distance * key.colors.size();
+        for (int i = 0; i < frames.length; i++) {
+            // frames are in the order they are shown, backwards if the speed is negative
+            int step = key.speed > 0 ? i : (frames.length - i) % frames.length;
+            frames[i] = render(key.text, key.colors, key.distance, step * period / frames.length);
+        }
+        return frames;
+    }
+
+    private static String render(String text, List<TextColor> colors, float effectiveDistance, float pos) {
         StringBuilder sb = new StringBuilder(text.length() * 9);
         double d = pos;
         for (int i = 0; i < text.length(); i += Character.charCount(text.codePointAt(i))) {
@@ -90,7 +147,7 @@ public class CustomPlaceholderColorAnimation extends AbstractActiveElement<Runna
             sb.appendCodePoint(text.codePointAt(i));
             d += ChatFormat.getCharWidth(text.codePointAt(i));
         }
-        replacement = sb.toString();
+        return sb.toString();
     }
 
     @Override
@@ -122,4 +179,13 @@ public class CustomPlaceholderColorAnimation extends AbstractActiveElement<Runna
             getListener().run();
         }
     }
+
+    @Value
+    private static class FrameKey {
+        String text;
+        List<TextColor> colors;
+        float distance;
+        float speed;
+        int frameCount;
+    }
 }
@@ -35,6 +35,7 @@ import lombok.AllArgsConstructor;
 import javax.annotation.Nullable;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
 
 public class CustomPlaceholderProgressBar extends AbstractActiveElement<Runnable> implements PlaceholderDataProvider<Context, String>, ExpressionUpdateListener {
 
@@ -139,9 +140,13 @@ public class CustomPlaceholderProgressBar extends AbstractActiveElement<Runnable
 
     @Override
     public void onExpressionUpdate() {
+        String previousBar = bar;
         updateActiveBarRenderer();
         renderBar();
-        notifyListeners();
+        // most value changes do not move the bar by a full step
+        if (!Objects.equals(previousBar, bar)) {
+            notifyListeners();
+        }
     }
 
     private void notifyListeners() {
@@ -197,6 +202,12 @@ public class CustomPlaceholderProgressBar extends AbstractActiveElement<Runnable
         private final TextColor colorCurrent;
         private final boolean colorCurrentInterpolate;
         private final BarColor colorRemaining;
+        /**
+         * Rendered bars indexed by quantized progress. Only present if the rendered bar does not depend on the exact
+         * progress within a step, i.e. if the color of the current symbol is not interpolated.
+         */
+        @Nullable
+        private final String[] renderCache;
 
         public PlainBarRenderer(BarColor colorCompleted, @Nullable TextColor colorCurrent, boolean colorCurrentInterpolate, BarColor colorRemaining) {
 
@@ -204,6 +215,11 @@ public class CustomPlaceholderProgressBar extends AbstractActiveElement<Runnable
             this.colorCurrent = colorCurrent;
             this.colorCurrentInterpolate = colorCurrentInterpolate;
             this.colorRemaining = colorRemaining;
+            if (!colorCurrentInterpolate && (colorCurrent != null || colorCompleted.isConstant())) {
+                this.renderCache = new String[symbolCount * symbolsCurrent.size() + 2];
+            } else {
+                this.renderCache = null;
+            }
         }
 
         @Override
@@ -217,6 +233,36 @@ public class CustomPlaceholderProgressBar extends AbstractActiveElement<Runnable
                 idxCurrent = symbolCount;
             }
 
+            if (renderCache == null) {
+                return render(p, idxCurrent);
+            }
+
+            int step;
+            if (idxCurrent < 0) {
+                step = 0;
+            } else if (idxCurrent >= symbolCount) {
+                step = renderCache.length - 1;
+            } else {
+                step = 1 + idxCurrent * symbolsCurrent.size() + getCurrentSymbolIndex(p * symbolCount - idxCurrent);
+            }
+            String cached = renderCache[step];
+            if (cached == null) {
+                cached = renderCache[step] = render(p, idxCurrent);
+            }
+            return cached;
+        }
+
+        private int getCurrentSymbolIndex(double pi) {
+            int si = (int) (pi * symbolsCurrent.size());
+            if (si < 0) {
+                si = 0;
+            } else if (si >= symbolsCurrent.size()) {
+                si = symbolsCurrent.size() - 1;
+            }
+            return si;
+        }
+
+        private String render(double p, int idxCurrent) {
             StringBuilder sb = new StringBuilder(bar != null ? bar.length() : 64);
 
             sb.append(borderLeft.getText());
@@ -237,13 +283,7 @@ public class CustomPlaceholderProgressBar extends AbstractActiveElement<Runnable
                 } else {
                     sb.append(colorCompleted.getFormat(p).getFormatCode());
                 }
-                int si = (int) (pi * symbolsCurrent.size());
-                if (si < 0) {
-                    si = 0;
-                } else if (si >= symbolsCurrent.size()) {
-                    si = symbolsCurrent.size() - 1;
-                }
-                sb.append(symbolsCurrent.get(si));
+                sb.append(symbolsCurrent.get(getCurrentSymbolIndex(pi)));
                 i++;
             }
             // remaining progress
@@ -262,19 +302,28 @@ public class CustomPlaceholderProgressBar extends AbstractActiveElement<Runnable
             Context context = prepareBarContext();
             borderLeft.activate(context, this);
             borderRight.activate(context, this);
+            invalidateRenderCache();
         }
 
         @Override
         public void deactivate() {
             borderLeft.deactivate();
             borderRight.deactivate();
+            invalidateRenderCache();
         }
 
         @Override
         public void onTextUpdated() {
+            invalidateRenderCache();
             renderBar();
             notifyListeners();
         }
+
+        private void invalidateRenderCache() {
+            if (renderCache != null) {
+                Arrays.fill(renderCache, null);
+            }
+        }
     }
 
     private class CenterTextBarRenderer implements BarRenderer, TextViewUpdateListener {
@@ -487,6 +536,11 @@ public class CustomPlaceholderProgressBar extends AbstractActiveElement<Runnable
             public TextColor getFormat(double progress) {
                 return TextColor.COLOR_WHITE;
             }
+
+            @Override
+            public boolean isConstant() {
+                return true;
+            }
         };
 
         /**
@@ -496,6 +550,15 @@ public class CustomPlaceholderProgressBar extends AbstractActiveElement<Runnable
          * @return format code
          */
         TextColor getFormat(double progress);
+
+        /**
+         * Whether {@link #getFormat(double)} returns the same color regardless of the progress.
+         *
+         * @return true if the color is constant
+         */
+        default boolean isConstant() {
+            return false;
+        }
     }
 
     @AllArgsConstructor
@@ -506,6 +569,11 @@ public class CustomPlaceholderProgressBar extends AbstractActiveElement<Runnable
         public TextColor getFormat(double progress) {
             return color;
         }
+
+        @Override
+        public boolean isConstant() {
+            return true;
+        }
     }
 
     @AllArgsConstructor
@@ -564,5 +632,10 @@ public class CustomPlaceholderProgressBar extends AbstractActiveElement<Runnable
             TextColor color = other.getFormat(progress);
             return new TextColor(color.getR() / 2, color.getG() / 2, color.getB() / 2);
         }
+
+        @Override
+        public boolean isConstant() {
+            return other.isConstant();
+        }
     }
 }
@@ -22,7 +22,6 @@ import de.codecrafter47.data.api.DataKey;
 import de.codecrafter47.data.api.TypeToken;
 import lombok.Getter;
 import lombok.NonNull;
-import lombok.RequiredArgsConstructor;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -34,7 +33,6 @@ import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.function.ToDoubleFunction;
 
-@RequiredArgsConstructor
 public class DataHolderPlaceholderDataProviderSupplier<C extends DataHolder, R, T> implements Supplier<PlaceholderDataProvider<C, T>> {
 
     private final static NumberFormat NUMBER_FORMAT;
@@ -53,6 +51,22 @@ public class DataHolderPlaceholderDataProviderSupplier<C extends DataHolder, R,
     private final DataKey<R> dataKey;
     @Nonnull
     private final BiFunction<C, R, T> transformation;
+    /**
+     * Whether the transformation only depends on the value of the data key, and not on the data holder itself.
+     */
+    @Getter
+    private final boolean dependingOnDataKeyOnly;
+
+    public DataHolderPlaceholderDataProviderSupplier(@Nonnull @NonNull TypeToken<T> type, @Nullable DataKey<R> dataKey, @Nonnull @NonNull BiFunction<C, R, T> transformation) {
+        this(type, dataKey, transformation, false);
+    }
+
+    public DataHolderPlaceholderDataProviderSupplier(@Nonnull @NonNull TypeToken<T> type, @Nullable DataKey<R> dataKey, @Nonnull @NonNull BiFunction<C, R, T> transformation, boolean dependingOnDataKeyOnly) {
+        this.type = type;
+        this.dataKey = dataKey;
+        this.transformation = transformation;
+        this.dependingOnDataKeyOnly = dependingOnDataKeyOnly;
+    }
 
     private T get(C context) {
         R value = null;
@@ -17,15 +17,19 @@
 
 package de.codecrafter47.taboverlay.config.placeholder;
 
+import de.codecrafter47.data.api.DataKey;
 import de.codecrafter47.data.api.TypeToken;
 import de.codecrafter47.taboverlay.config.context.Context;
+import de.codecrafter47.taboverlay.config.context.ContextKeys;
 import de.codecrafter47.taboverlay.config.expression.*;
 import de.codecrafter47.taboverlay.config.view.AbstractActiveElement;
 import de.codecrafter47.taboverlay.config.view.text.TextView;
 import de.codecrafter47.taboverlay.config.view.text.TextViewUpdateListener;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.util.Objects;
+import java.util.Set;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
@@ -35,12 +39,15 @@ public class GenericPlaceholder<C, D> implements Placeholder {
     private TypeToken<D> typeToken;
     private Supplier<PlaceholderDataProvider<C, D>> dataProviderFactory;
     private boolean requiresViewerContext;
+    @Nullable
+    private Set<DataKey<?>> viewerDataKeys;
 
-    GenericPlaceholder(Function<Context, C> contextTransformation, Supplier<PlaceholderDataProvider<C, D>> dataProviderFactory, TypeToken<D> typeToken, boolean requiresViewerContext) {
+    GenericPlaceholder(Function<Context, C> contextTransformation, Supplier<PlaceholderDataProvider<C, D>> dataProviderFactory, TypeToken<D> typeToken, boolean requiresViewerContext, @Nullable Set<DataKey<?>> viewerDataKeys) {
         this.contextTransformation = contextTransformation;
         this.dataProviderFactory = dataProviderFactory;
         this.typeToken = typeToken;
         this.requiresViewerContext = requiresViewerContext;
+        this.viewerDataKeys = viewerDataKeys;
     }
 
     @Nonnull
@@ -78,13 +85,33 @@ public class GenericPlaceholder<C, D> implements Placeholder {
         return requiresViewerContext;
     }
 
+    @Override
+    public boolean collectViewerDataKeys(Set<DataKey<?>> keys) {
+        if (!requiresViewerContext) {
+            return true;
+        }
+        if (viewerDataKeys == null) {
+            return false;
+        }
+        keys.addAll(viewerDataKeys);
+        return true;
+    }
+
     private C transformContext(Context context) {
         return contextTransformation.apply(context);
     }
 
+    private PlaceholderDataProvider<C, D> createDataProvider(Context context) {
+        SharedPlaceholderDataProviderRegistry registry = context.getCustomObject(ContextKeys.SHARED_PLACEHOLDER_DATA_PROVIDER_REGISTRY);
+        if (registry != null) {
+            return registry.createDataProvider(dataProviderFactory);
+        }
+        return dataProviderFactory.get();
+    }
+
     private class GenericPlaceholderTextView extends AbstractActiveElement<TextViewUpdateListener> implements TextView, Runnable {
 
-        private final PlaceholderDataProvider<C, D> delegate = dataProviderFactory.get();
+        private PlaceholderDataProvider<C, D> delegate;
 
         @Override
         public String getText() {
@@ -102,6 +129,7 @@ public class GenericPlaceholder<C, D> implements Placeholder {
 
         @Override
         protected void onActivation() {
+            delegate = createDataProvider(getContext());
             delegate.activate(transformContext(getContext()), this);
         }
 
@@ -120,7 +148,7 @@ public class GenericPlaceholder<C, D> implements Placeholder {
 
     private class GenericPlaceholderToStringExpression extends AbstractActiveElement<ExpressionUpdateListener> implements ToStringExpression, Runnable {
 
-        private final PlaceholderDataProvider<C, D> delegate = dataProviderFactory.get();
+        private PlaceholderDataProvider<C, D> delegate;
 
         @Override
         public String evaluate() {
@@ -138,6 +166,7 @@ public class GenericPlaceholder<C, D> implements Placeholder {
 
         @Override
         protected void onActivation() {
+            delegate = createDataProvider(getContext());
             delegate.activate(transformContext(getContext()), this);
         }
 
@@ -154,7 +183,7 @@ public class GenericPlaceholder<C, D> implements Placeholder {
 
     private class GenericPlaceholderToDoubleExpression extends AbstractActiveElement<ExpressionUpdateListener> implements ToDoubleExpression, Runnable {
 
-        private final PlaceholderDataProvider<C, D> delegate = dataProviderFactory.get();
+        private PlaceholderDataProvider<C, D> delegate;
 
         @Override
         public double evaluate() {
@@ -164,6 +193,7 @@ public class GenericPlaceholder<C, D> implements Placeholder {
 
         @Override
         protected void onActivation() {
+            delegate = createDataProvider(getContext());
             delegate.activate(transformContext(getContext()), this);
         }
 
@@ -180,7 +210,7 @@ public class GenericPlaceholder<C, D> implements Placeholder {
 
     private class GenericPlaceholderToBooleanExpression extends AbstractActiveElement<ExpressionUpdateListener> implements ToBooleanExpression, Runnable {
 
-        private final PlaceholderDataProvider<C, D> delegate = dataProviderFactory.get();
+        private PlaceholderDataProvider<C, D> delegate;
 
         @Override
         public boolean evaluate() {
@@ -190,6 +220,7 @@ public class GenericPlaceholder<C, D> implements Placeholder {
 
         @Override
         protected void onActivation() {
+            delegate = createDataProvider(getContext());
             delegate.activate(transformContext(getContext()), this);
         }
 
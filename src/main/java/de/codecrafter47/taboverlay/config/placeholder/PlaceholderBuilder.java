@@ -17,10 +17,13 @@
 
 package de.codecrafter47.taboverlay.config.placeholder;
 
+import de.codecrafter47.data.api.DataKey;
 import de.codecrafter47.data.api.TypeToken;
 import de.codecrafter47.taboverlay.config.context.Context;
 import lombok.Getter;
 
+import javax.annotation.Nullable;
+import java.util.Set;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
@@ -33,16 +36,24 @@ public class PlaceholderBuilder<C, D> {
     private TypeToken<D> typeToken;
     @Getter
     private boolean requiresViewerContext;
+    @Nullable
+    @Getter
+    private Set<DataKey<?>> viewerDataKeys;
 
     private PlaceholderBuilder(Function<Context, C> contextTransformation) {
         this.contextTransformation = contextTransformation;
     }
 
     private PlaceholderBuilder(Function<Context, C> contextTransformation, Supplier<PlaceholderDataProvider<C, D>> dataProviderFactory, TypeToken<D> typeToken, boolean requiresViewerContext) {
+        this(contextTransformation, dataProviderFactory, typeToken, requiresViewerContext, null);
+    }
+
+    private PlaceholderBuilder(Function<Context, C> contextTransformation, Supplier<PlaceholderDataProvider<C, D>> dataProviderFactory, TypeToken<D> typeToken, boolean requiresViewerContext, @Nullable Set<DataKey<?>> viewerDataKeys) {
         this.contextTransformation = contextTransformation;
         this.dataProviderFactory = dataProviderFactory;
         this.typeToken = typeToken;
         this.requiresViewerContext = requiresViewerContext;
+        this.viewerDataKeys = viewerDataKeys;
     }
 
     public static PlaceholderBuilder<Context, Void> create() {
@@ -62,11 +73,21 @@ public class PlaceholderBuilder<C, D> {
     }
 
     public PlaceholderBuilder<C, D> requireViewerContext(boolean requiresViewerContext) {
-        return new PlaceholderBuilder<>(contextTransformation, dataProviderFactory, typeToken, requiresViewerContext);
+        return new PlaceholderBuilder<>(contextTransformation, dataProviderFactory, typeToken, requiresViewerContext, viewerDataKeys);
+    }
+
+    /**
+     * Declare the data keys of the viewer the placeholder depends on.
+     *
+     * @param viewerDataKeys the data keys, or null if the dependencies on the viewer are unknown
+     * @return the builder
+     */
+    public PlaceholderBuilder<C, D> viewerDataKeys(@Nullable Set<DataKey<?>> viewerDataKeys) {
+        return new PlaceholderBuilder<>(contextTransformation, dataProviderFactory, typeToken, requiresViewerContext, viewerDataKeys);
     }
 
     public <D2> PlaceholderBuilder<C, D2> transformData(Function<D, D2> dataTransformation, TypeToken<D2> typeToken) {
-        return new PlaceholderBuilder<>(contextTransformation, () -> dataProviderFactory.get().transformData(dataTransformation), typeToken, requiresViewerContext);
+        return new PlaceholderBuilder<>(contextTransformation, () -> dataProviderFactory.get().transformData(dataTransformation), typeToken, requiresViewerContext, viewerDataKeys);
     }
 
     public TypeToken<D> getType() {
@@ -74,6 +95,6 @@ public class PlaceholderBuilder<C, D> {
     }
 
     public Placeholder build() {
-        return new GenericPlaceholder<C, D>(contextTransformation, dataProviderFactory, typeToken, requiresViewerContext);
+        return new GenericPlaceholder<C, D>(contextTransformation, dataProviderFactory, typeToken, requiresViewerContext, viewerDataKeys);
     }
 }
@@ -33,4 +33,8 @@ public class PlayerPlaceholderDataProviderSupplier<R, T> extends DataHolderPlace
     public PlayerPlaceholderDataProviderSupplier(TypeToken<T> type, DataKey<R> dataKey, BiFunction<Player, R, T> transformation) {
         super(type, dataKey, transformation);
     }
+
+    public PlayerPlaceholderDataProviderSupplier(TypeToken<T> type, DataKey<R> dataKey, BiFunction<Player, R, T> transformation, boolean dependingOnDataKeyOnly) {
+        super(type, dataKey, transformation, dependingOnDataKeyOnly);
+    }
 }
@@ -17,14 +17,17 @@
 
 package de.codecrafter47.taboverlay.config.placeholder;
 
+import de.codecrafter47.data.api.DataKey;
 import de.codecrafter47.taboverlay.config.context.Context;
 import de.codecrafter47.taboverlay.config.player.Player;
 import de.codecrafter47.taboverlay.config.template.TemplateCreationContext;
 import lombok.AllArgsConstructor;
 
 import javax.annotation.Nonnull;
+import java.util.Collections;
 import java.util.List;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 public class PlayerPlaceholderResolver implements PlaceholderResolver<Context> {
 
@@ -64,7 +67,15 @@ public class PlayerPlaceholderResolver implements PlaceholderResolver<Context> {
 
         args.remove(0);
         try {
-            return delegate.resolve(builder.transformContext(bindPoint.contextTransformation), args, tcc).requireViewerContext(bindPoint == BindPoint.VIEWER);
+            PlaceholderBuilder<?, ?> result = delegate.resolve(builder.transformContext(bindPoint.contextTransformation), args, tcc).requireViewerContext(bindPoint == BindPoint.VIEWER);
+            if (bindPoint == BindPoint.VIEWER && result.getDataProviderFactory() instanceof DataHolderPlaceholderDataProviderSupplier) {
+                Supplier<?> dataProviderFactory = result.getDataProviderFactory();
+                DataHolderPlaceholderDataProviderSupplier<?, ?, ?> supplier = (DataHolderPlaceholderDataProviderSupplier<?, ?, ?>) dataProviderFactory;
+                if (supplier.isDependingOnDataKeyOnly() && supplier.getDataKey() != null) {
+                    result = result.viewerDataKeys(Collections.<DataKey<?>>singleton(supplier.getDataKey()));
+                }
+            }
+            return result;
         } catch (UnknownPlaceholderException ignored) {
             throw new PlaceholderException("Unknown placeholder");
         }
@@ -26,10 +26,26 @@ import de.codecrafter47.taboverlay.config.template.TemplateCreationContext;
 import de.codecrafter47.taboverlay.config.view.AbstractActiveElement;
 
 import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 public class PlayerSetPlaceholderResolver implements PlaceholderResolver<Context> {
 
+    private static final long COALESCE_DELAY_MILLIS = 50;
+
+    /**
+     * Count subscriptions by player set. Shared player sets are subscribed once for all viewers.
+     * Accessed from all tab event loops. Each player set belongs to a single loop, so a {@link PlayerCount} is only
+     * used from the loop of its player set.
+     */
+    private final Map<PlayerSet, PlayerCount> playerCounts = Collections.synchronizedMap(new IdentityHashMap<>());
+
     @Nonnull
     @Override
     public PlaceholderBuilder<?, ?> resolve(PlaceholderBuilder<Context, ?> builder, List<PlaceholderArg> args, TemplateCreationContext tcc) throws UnknownPlaceholderException, PlaceholderException {
@@ -48,10 +64,10 @@ public class PlayerSetPlaceholderResolver implements PlaceholderResolver<Context
         throw new UnknownPlaceholderException();
     }
 
-    private static class PlayerCountDataProvider extends AbstractActiveElement<Runnable> implements PlaceholderDataProvider<Context, Integer>, PlayerSet.Listener {
+    private class PlayerCountDataProvider extends AbstractActiveElement<Runnable> implements PlaceholderDataProvider<Context, Integer>, Runnable {
 
         private final PlayerSetTemplate playerSetTemplate;
-        private PlayerSet playerSet;
+        private PlayerCount playerCount;
 
         private PlayerCountDataProvider(PlayerSetTemplate playerSetTemplate) {
             this.playerSetTemplate = playerSetTemplate;
@@ -59,31 +75,92 @@ public class PlayerSetPlaceholderResolver implements PlaceholderResolver<Context
 
         @Override
         protected void onActivation() {
-            playerSet = getContext().getPlayerSetFactory().getInstance(playerSetTemplate);
-            playerSet.addListener(this);
+            PlayerSet playerSet = getContext().getPlayerSetFactory().getInstance(playerSetTemplate);
+            playerCount = playerCounts.computeIfAbsent(playerSet, ps -> new PlayerCount(ps, getContext().getTabEventQueue()));
+            playerCount.addListener(this);
         }
 
         @Override
         protected void onDeactivation() {
-            playerSet.removeListener(this);
+            playerCount.removeListener(this);
+            playerCount = null;
         }
 
         public Integer getData() {
-            return playerSet.getCount();
+            return playerCount.count;
         }
 
         @Override
-        public void onPlayerAdded(Player player) {
+        public void run() {
             if (hasListener()) {
                 getListener().run();
             }
         }
+    }
+
+    /**
+     * Tracks the size of a player set. Changes are coalesced, listeners are notified at most once per tick and
+     * only if the size actually changed.
+     */
+    private class PlayerCount implements PlayerSet.Listener {
+        private final PlayerSet playerSet;
+        private final ScheduledExecutorService tabEventQueue;
+        private final List<Runnable> listeners = new ArrayList<>();
+        private int count;
+        private Future<?> updateFuture;
+
+        private PlayerCount(PlayerSet playerSet, ScheduledExecutorService tabEventQueue) {
+            this.playerSet = playerSet;
+            this.tabEventQueue = tabEventQueue;
+        }
+
+        private void addListener(Runnable listener) {
+            if (listeners.isEmpty()) {
+                playerSet.addListener(this);
+                count = playerSet.getCount();
+            }
+            listeners.add(listener);
+        }
+
+        private void removeListener(Runnable listener) {
+            listeners.remove(listener);
+            if (listeners.isEmpty()) {
+                playerSet.removeListener(this);
+                if (updateFuture != null) {
+                    updateFuture.cancel(false);
+                    updateFuture = null;
+                }
+                playerCounts.remove(playerSet);
+            }
+        }
+
+        private void scheduleUpdate() {
+            if (updateFuture == null || updateFuture.isDone()) {
+                updateFuture = tabEventQueue.schedule(this::update, COALESCE_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        private void update() {
+            if (listeners.isEmpty()) {
+                return;
+            }
+            int count = playerSet.getCount();
+            if (count != this.count) {
+                this.count = count;
+                for (Runnable listener : new ArrayList<>(listeners)) {
+                    listener.run();
+                }
+            }
+        }
+
+        @Override
+        public void onPlayerAdded(Player player) {
+            scheduleUpdate();
+        }
 
         @Override
         public void onPlayerRemoved(Player player) {
-            if (hasListener()) {
-                getListener().run();
-            }
+            scheduleUpdate();
         }
     }
 }
@@ -0,0 +1,131 @@
+/*
+ *     Copyright (C) 2020 Florian Stober
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.codecrafter47.taboverlay.config.placeholder;
+
+import lombok.Value;
+
+import javax.annotation.Nullable;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Shares placeholder data providers between all uses of a placeholder within a tab event loop.
+ * <p>
+ * A data provider is shared by all placeholder instances created from the same data provider factory and activated
+ * with the same (transformed) context, e.g. all occurrences of {@code ${player server}} for one player. The shared
+ * provider registers a single listener with its data source and passes updates on to all users. Shared providers
+ * are reference counted and deactivated together with the last user. Must only be used from the tab event queue.
+ */
+public final class SharedPlaceholderDataProviderRegistry {
+
+    private final Map<Key, SharedDataProvider<?, ?>> instances = new HashMap<>();
+
+    /**
+     * Create a data provider which shares the underlying data provider with all other data providers created from
+     * the same factory and activated with the same context.
+     *
+     * @param factory the data provider factory
+     * @param <C>     context type
+     * @param <D>     data type
+     * @return the data provider
+     */
+    <C, D> PlaceholderDataProvider<C, D> createDataProvider(Supplier<PlaceholderDataProvider<C, D>> factory) {
+        return new SharedDataProviderHandle<>(factory);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <C, D> void acquire(Supplier<PlaceholderDataProvider<C, D>> factory, C context, SharedDataProviderHandle<C, D> handle) {
+        Key key = new Key(factory, context);
+        SharedDataProvider<C, D> instance = (SharedDataProvider<C, D>) instances.get(key);
+        boolean created = instance == null;
+        if (created) {
+            instance = new SharedDataProvider<>(key, factory.get());
+            instances.put(key, instance);
+        }
+        handle.shared = instance;
+        instance.handles.add(handle);
+        if (created) {
+            instance.dataProvider.activate(context, instance);
+        }
+    }
+
+    @Value
+    private static class Key {
+        Supplier<?> factory;
+        @Nullable
+        Object context;
+    }
+
+    private final class SharedDataProvider<C, D> implements Runnable {
+        private final Key key;
+        private final PlaceholderDataProvider<C, D> dataProvider;
+        private final Set<SharedDataProviderHandle<C, D>> handles = new LinkedHashSet<>();
+
+        private SharedDataProvider(Key key, PlaceholderDataProvider<C, D> dataProvider) {
+            this.key = key;
+            this.dataProvider = dataProvider;
+        }
+
+        private void release(SharedDataProviderHandle<C, D> handle) {
+            handles.remove(handle);
+            if (handles.isEmpty()) {
+                instances.remove(key);
+                dataProvider.deactivate();
+            }
+        }
+
+        @Override
+        public void run() {
+            // handles may be released while being notified
+            for (SharedDataProviderHandle<?, ?> handle : handles.toArray(new SharedDataProviderHandle<?, ?>[0])) {
+                if (handle.shared == this) {
+                    handle.listener.run();
+                }
+            }
+        }
+    }
+
+    private final class SharedDataProviderHandle<C, D> implements PlaceholderDataProvider<C, D> {
+        private final Supplier<PlaceholderDataProvider<C, D>> factory;
+        private SharedDataProvider<C, D> shared;
+        private Runnable listener;
+
+        private SharedDataProviderHandle(Supplier<PlaceholderDataProvider<C, D>> factory) {
+            this.factory = factory;
+        }
+
+        @Override
+        public void activate(C context, Runnable listener) {
+            this.listener = listener;
+            acquire(factory, context, this);
+        }
+
+        @Override
+        public void deactivate() {
+            shared.release(this);
+            shared = null;
+        }
+
+        @Override
+        public D getData() {
+            return shared.dataProvider.getData();
+        }
+    }
+}
@@ -17,9 +17,8 @@
 
 package de.codecrafter47.taboverlay.config.player;
 
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
+import com.google.common.cache.CacheStats;
+import com.google.common.collect.Iterables;
 import de.codecrafter47.data.api.DataKey;
 import de.codecrafter47.data.api.TypeToken;
 import de.codecrafter47.taboverlay.config.context.Context;
@@ -28,11 +27,11 @@ import de.codecrafter47.taboverlay.config.expression.template.ExpressionTemplate
 import de.codecrafter47.taboverlay.config.placeholder.PlaceholderBuilder;
 import de.codecrafter47.taboverlay.config.placeholder.PlayerPlaceholderDataProviderSupplier;
 import de.codecrafter47.taboverlay.config.template.PlayerSetTemplate;
-import lombok.SneakyThrows;
+import lombok.Value;
 
-import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.logging.Logger;
 
@@ -44,32 +43,21 @@ public class GlobalPlayerSetFactory {
     final ExpressionTemplate expressionTemplateIsVisible;
     final ExpressionTemplate expressionTemplateCanSeeInvisible;
 
-    private final LoadingCache<PlayerSetTemplate, SharedPlayerSet> cache = CacheBuilder.newBuilder().weakValues().build(new CacheLoader<PlayerSetTemplate, SharedPlayerSet>() {
-        @Override
-        public SharedPlayerSet load(@Nonnull PlayerSetTemplate key) {
-            switch (key.getHiddenPlayersVisibility()) {
-                case VISIBLE:
-                    return new SharedPlayerSet(GlobalPlayerSetFactory.this.playerProvider,
-                            key.getPredicate(),
-                            GlobalPlayerSetFactory.this.eventQueue,
-                            logger);
-                case VISIBLE_TO_ADMINS:
-                    throw new IllegalArgumentException("PlayerSet with VISIBLE_TO_ADMINS can't be shared");
-                case INVISIBLE:
-                    return new SharedPlayerSet(GlobalPlayerSetFactory.this.playerProvider,
-                            ExpressionTemplates.and(Arrays.asList(key.getPredicate(), expressionTemplateIsVisible)),
-                            GlobalPlayerSetFactory.this.eventQueue,
-                            logger);
-                default:
-                    throw new AssertionError("Unknown player visibility " + key.getHiddenPlayersVisibility());
-            }
-        }
-    });
+    private final PlayerSetRetentionPolicy retentionPolicy;
+    private final RetainingCache<PlayerSetTemplate, SharedPlayerSet> cache;
+    private final RetainingCache<ViewerClassKey, SharedPlayerSet> viewerClassCache;
 
     public GlobalPlayerSetFactory(PlayerProvider playerProvider, ScheduledExecutorService eventQueue, Logger logger, DataKey<Boolean> DATA_KEY_IS_HIDDEN, DataKey<Boolean> DATA_KEY_CAN_SEE_INVISIBLE) {
+        this(playerProvider, eventQueue, logger, DATA_KEY_IS_HIDDEN, DATA_KEY_CAN_SEE_INVISIBLE, PlayerSetRetentionPolicy.NONE);
+    }
+
+    public GlobalPlayerSetFactory(PlayerProvider playerProvider, ScheduledExecutorService eventQueue, Logger logger, DataKey<Boolean> DATA_KEY_IS_HIDDEN, DataKey<Boolean> DATA_KEY_CAN_SEE_INVISIBLE, PlayerSetRetentionPolicy retentionPolicy) {
         this.playerProvider = playerProvider;
         this.eventQueue = eventQueue;
         this.logger = logger;
+        this.retentionPolicy = retentionPolicy;
+        this.cache = new RetainingCache<>(retentionPolicy, eventQueue, GlobalPlayerSetFactory::retain, GlobalPlayerSetFactory::release);
+        this.viewerClassCache = new RetainingCache<>(retentionPolicy, eventQueue, GlobalPlayerSetFactory::retain, GlobalPlayerSetFactory::release);
         expressionTemplateIsVisible = ExpressionTemplates.negate(PlaceholderBuilder.create()
                 .transformContext(Context::getPlayer)
                 .acquireData(new PlayerPlaceholderDataProviderSupplier<>(TypeToken.BOOLEAN,
@@ -95,11 +83,108 @@ public class GlobalPlayerSetFactory {
      * @return the player set or null if not possible
      */
     @Nullable
-    @SneakyThrows
     public PlayerSet getSharedInstance(PlayerSetTemplate template) {
         if (!template.isRequiresViewerContext()) {
-            return cache.get(template);
+            return cache.get(template, key -> createSharedInstance(key, Context.from(null, eventQueue)));
         }
         return null;
     }
+
+    /**
+     * Get the player set shared by all viewers of a viewer class.
+     * <p>
+     * The template must have {@link PlayerSetTemplate#getViewerDataKeys() viewer data keys}. All viewers with
+     * the same values for these keys see the same players, and therefore share one player set.
+     *
+     * @param template     the configuration
+     * @param viewerValues the values of the viewer data keys of the template
+     * @return the player set
+     */
+    PlayerSet getViewerClassInstance(PlayerSetTemplate template, List<Object> viewerValues) {
+        List<DataKey<?>> viewerDataKeys = template.getViewerDataKeys();
+        if (viewerDataKeys == null) {
+            throw new IllegalArgumentException("PlayerSetTemplate does not have viewer data keys");
+        }
+        return viewerClassCache.get(new ViewerClassKey(template, viewerValues),
+                key -> createSharedInstance(template, Context.from(new ViewerClassRepresentative(viewerDataKeys, viewerValues), eventQueue)));
+    }
+
+    private SharedPlayerSet createSharedInstance(PlayerSetTemplate key, Context context) {
+        switch (key.getHiddenPlayersVisibility()) {
+            case VISIBLE:
+                return new SharedPlayerSet(playerProvider,
+                        key.getPredicate(),
+                        context,
+                        logger,
+                        retentionPolicy);
+            case VISIBLE_TO_ADMINS:
+                throw new IllegalArgumentException("PlayerSet with VISIBLE_TO_ADMINS can't be shared");
+            case INVISIBLE:
+                return new SharedPlayerSet(playerProvider,
+                        ExpressionTemplates.and(Arrays.asList(key.getPredicate(), expressionTemplateIsVisible)),
+                        context,
+                        logger,
+                        retentionPolicy);
+            default:
+                throw new AssertionError("Unknown player visibility " + key.getHiddenPlayersVisibility());
+        }
+    }
+
+    private static void retain(PlayerSet playerSet) {
+        playerSet.addListener(RetainingCache.KeepAliveListener.INSTANCE);
+    }
+
+    private static void release(PlayerSet playerSet) {
+        playerSet.removeListener(RetainingCache.KeepAliveListener.INSTANCE);
+    }
+
+    /**
+     * Get hit/ miss statistics of the shared player set cache.
+     *
+     * @return the statistics
+     */
+    public CacheStats getPlayerSetCacheStats() {
+        return cache.stats();
+    }
+
+    /**
+     * Get hit/ miss statistics of the cache of player sets shared by viewer classes.
+     *
+     * @return the statistics
+     */
+    public CacheStats getViewerClassCacheStats() {
+        return viewerClassCache.stats();
+    }
+
+    /**
+     * Get hit/ miss statistics of the partition caches of all shared player sets currently alive.
+     *
+     * @return the statistics
+     */
+    public CacheStats getPartitionCacheStats() {
+        CacheStats stats = new CacheStats(0, 0, 0, 0, 0, 0);
+        for (SharedPlayerSet playerSet : Iterables.concat(cache.values(), viewerClassCache.values())) {
+            stats = stats.plus(playerSet.getPartitionCacheStats());
+        }
+        return stats;
+    }
+
+    /**
+     * Get hit/ miss statistics of the ordered player set caches of all shared player sets currently alive.
+     *
+     * @return the statistics
+     */
+    public CacheStats getOrderedPlayerSetCacheStats() {
+        CacheStats stats = new CacheStats(0, 0, 0, 0, 0, 0);
+        for (SharedPlayerSet playerSet : Iterables.concat(cache.values(), viewerClassCache.values())) {
+            stats = stats.plus(playerSet.getOrderedPlayerSetCacheStats());
+        }
+        return stats;
+    }
+
+    @Value
+    private static class ViewerClassKey {
+        PlayerSetTemplate template;
+        List<Object> viewerValues;
+    }
 }
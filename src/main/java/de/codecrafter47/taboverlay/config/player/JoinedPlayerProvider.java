@@ -17,36 +17,127 @@
 
 package de.codecrafter47.taboverlay.config.player;
 
+import it.unimi.dsi.fastutil.objects.Object2BooleanLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2BooleanMap;
 import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
 
+import javax.annotation.Nullable;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+/**
+ * Joins multiple player providers into a single one.
+ * <p>
+ * If an event queue is given the source providers may call their listeners from arbitrary threads. Changes are then
+ * queued without blocking the calling thread and applied on the event queue once per tick. Changes to the same
+ * player within one tick are coalesced, so listeners only see the net result. The joined provider must then only be
+ * used from the event queue, the players of the source providers are added by the first task on the event queue.
+ */
 public class JoinedPlayerProvider implements PlayerProvider {
 
+    private static final long TICK_MILLIS = 50;
+
     private final Set<Listener> listeners = new ObjectOpenHashSet<>();
     private final Set<Player> players = new ObjectOpenHashSet<>();
 
+    @Nullable
+    private final ScheduledExecutorService eventQueue;
+    private final Queue<PendingChange> pendingChanges = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean(false);
+
     public JoinedPlayerProvider(Collection<? extends PlayerProvider> providers) {
+        this(providers, null);
+    }
+
+    public JoinedPlayerProvider(Collection<? extends PlayerProvider> providers, @Nullable ScheduledExecutorService eventQueue) {
+        this.eventQueue = eventQueue;
 
         Listener myListener = new Listener() {
             @Override
             public void onPlayerAdded(Player p) {
-                players.add(p);
-                listeners.forEach(listener -> listener.onPlayerAdded(p));
+                if (JoinedPlayerProvider.this.eventQueue != null) {
+                    enqueue(p, true);
+                } else {
+                    players.add(p);
+                    listeners.forEach(listener -> listener.onPlayerAdded(p));
+                }
             }
 
             @Override
             public void onPlayerRemoved(Player p) {
-                players.remove(p);
-                listeners.forEach(listener -> listener.onPlayerRemoved(p));
+                if (JoinedPlayerProvider.this.eventQueue != null) {
+                    enqueue(p, false);
+                } else {
+                    players.remove(p);
+                    listeners.forEach(listener -> listener.onPlayerRemoved(p));
+                }
             }
         };
 
-        for (PlayerProvider provider : providers) {
-            players.addAll(provider.getPlayers());
-            provider.registerListener(myListener);
+        if (eventQueue == null) {
+            for (PlayerProvider provider : providers) {
+                players.addAll(provider.getPlayers());
+                provider.registerListener(myListener);
+            }
+        } else {
+            // Register the listeners before taking the snapshot, so no player joining in between is lost. Changes
+            // received while taking the snapshot are queued and applied after the snapshot on the event queue.
+            // Applying a change which is already part of the snapshot has no effect.
+            drainScheduled.set(true);
+            for (PlayerProvider provider : providers) {
+                provider.registerListener(myListener);
+            }
+            List<Player> snapshot = new ArrayList<>();
+            for (PlayerProvider provider : providers) {
+                snapshot.addAll(provider.getPlayers());
+            }
+            eventQueue.execute(() -> {
+                for (Player player : snapshot) {
+                    if (players.add(player)) {
+                        listeners.forEach(listener -> listener.onPlayerAdded(player));
+                    }
+                }
+                drainPendingChanges();
+            });
+        }
+    }
+
+    private void enqueue(Player player, boolean added) {
+        pendingChanges.add(new PendingChange(player, added));
+        if (drainScheduled.compareAndSet(false, true)) {
+            eventQueue.schedule(this::drainPendingChanges, TICK_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void drainPendingChanges() {
+        drainScheduled.set(false);
+
+        // the last change for each player wins
+        Object2BooleanMap<Player> batch = new Object2BooleanLinkedOpenHashMap<>();
+        PendingChange change;
+        while (null != (change = pendingChanges.poll())) {
+            batch.put(change.player, change.added);
+        }
+
+        for (Object2BooleanMap.Entry<Player> entry : batch.object2BooleanEntrySet()) {
+            Player player = entry.getKey();
+            if (entry.getBooleanValue()) {
+                if (players.add(player)) {
+                    listeners.forEach(listener -> listener.onPlayerAdded(player));
+                }
+            } else {
+                if (players.remove(player)) {
+                    listeners.forEach(listener -> listener.onPlayerRemoved(player));
+                }
+            }
         }
     }
 
@@ -64,4 +155,14 @@ public class JoinedPlayerProvider implements PlayerProvider {
     public void unregisterListener(Listener listener) {
         listeners.remove(listener);
     }
+
+    private static final class PendingChange {
+        private final Player player;
+        private final boolean added;
+
+        private PendingChange(Player player, boolean added) {
+            this.player = player;
+            this.added = added;
+        }
+    }
 }
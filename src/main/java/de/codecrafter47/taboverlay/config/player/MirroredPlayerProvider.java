@@ -0,0 +1,276 @@
+/*
+ *     Copyright (C) 2020 Florian Stober
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.codecrafter47.taboverlay.config.player;
+
+import de.codecrafter47.data.api.DataKey;
+import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
+import lombok.SneakyThrows;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Mirrors a player provider onto another tab event loop.
+ * <p>
+ * The source provider and its players are only accessed from the main tab event queue. Players are wrapped, changes
+ * to the set of players and data change notifications are passed to the target loop as messages, together with an
+ * immutable snapshot of the changed value. All methods of this provider and of the wrapped players must be called
+ * from the target loop, with the exception of {@link #getPlayer(Player)}.
+ * <p>
+ * Every data key used on the target loop is mirrored for all players, for as long as they are online. A player is
+ * published to the target loop only after a snapshot of all those keys has been taken, so views never see a player
+ * whose data is missing. Only a key which is used on the target loop for the first time is absent until its first
+ * snapshot arrives, the listeners are notified then. Keys known up front can be passed to the constructor to avoid
+ * this.
+ */
+public final class MirroredPlayerProvider implements PlayerProvider {
+
+    private final PlayerProvider source;
+    private final ExecutorService mainQueue;
+    private final Executor targetLoop;
+
+    /**
+     * Wrapped players by source player. Written from the main queue, read from anywhere.
+     */
+    private final Map<Player, MirroredPlayer> mirrors = new ConcurrentHashMap<>();
+
+    /**
+     * Data keys mirrored for all players. Only accessed from the main queue.
+     */
+    private final Set<DataKey<?>> mirroredKeys = new ObjectOpenHashSet<>();
+
+    /**
+     * Only accessed from the target loop.
+     */
+    private final Set<Player> players = new ObjectOpenHashSet<>();
+    private final Set<Listener> listeners = new ObjectOpenHashSet<>();
+    private final Set<DataKey<?>> requestedKeys = new ObjectOpenHashSet<>();
+
+    public MirroredPlayerProvider(PlayerProvider source, ExecutorService mainQueue, Executor targetLoop, Collection<DataKey<?>> initialKeys) {
+        this.source = source;
+        this.mainQueue = mainQueue;
+        this.targetLoop = targetLoop;
+        this.mirroredKeys.addAll(initialKeys);
+        this.requestedKeys.addAll(initialKeys);
+        mainQueue.execute(() -> {
+            for (Player player : source.getPlayers()) {
+                onSourcePlayerAdded(player);
+            }
+            source.registerListener(new Listener() {
+                @Override
+                public void onPlayerAdded(Player player) {
+                    onSourcePlayerAdded(player);
+                }
+
+                @Override
+                public void onPlayerRemoved(Player player) {
+                    onSourcePlayerRemoved(player);
+                }
+            });
+        });
+    }
+
+    /**
+     * Get the mirror of a player of the source provider. The same instance is returned as long as the player is
+     * known to the source provider.
+     * <p>
+     * If the source provider does not know the player yet, this blocks until the main queue has taken a snapshot of
+     * its data. The returned mirror is not part of {@link #getPlayers()} in that case, and keys used for the first
+     * time afterwards are not mirrored for it. Must not be called from the main queue.
+     *
+     * @param player the source player
+     * @return the mirrored player
+     */
+    @SneakyThrows
+    public Player getPlayer(Player player) {
+        MirroredPlayer mirror = mirrors.get(player);
+        if (mirror != null) {
+            return mirror;
+        }
+        return mainQueue.submit(() -> {
+            if (source.getPlayers().contains(player)) {
+                return mirrors.computeIfAbsent(player, this::createMirror);
+            }
+            // the player may already have been removed from the source, don't keep the mirror in that case
+            return createMirror(player);
+        }).get();
+    }
+
+    /**
+     * Create the mirror of a player, seeded with a snapshot of all mirrored keys. Must be called from the main queue.
+     */
+    private MirroredPlayer createMirror(Player player) {
+        MirroredPlayer mirror = new MirroredPlayer(player);
+        for (DataKey<?> key : mirroredKeys) {
+            // the mirror is not published yet
+            mirror.values.put(key, mirror.subscribe(key));
+        }
+        return mirror;
+    }
+
+    private void onSourcePlayerAdded(Player player) {
+        MirroredPlayer mirror = mirrors.computeIfAbsent(player, this::createMirror);
+        targetLoop.execute(() -> {
+            if (players.add(mirror)) {
+                for (Listener listener : new ArrayList<>(listeners)) {
+                    listener.onPlayerAdded(mirror);
+                }
+            }
+        });
+    }
+
+    private void onSourcePlayerRemoved(Player player) {
+        MirroredPlayer mirror = mirrors.remove(player);
+        if (mirror != null) {
+            mirror.unsubscribeAll();
+            targetLoop.execute(() -> {
+                if (players.remove(mirror)) {
+                    for (Listener listener : new ArrayList<>(listeners)) {
+                        listener.onPlayerRemoved(mirror);
+                    }
+                }
+            });
+        }
+    }
+
+    private void onKeyRequested(DataKey<?> key) {
+        if (mirroredKeys.add(key)) {
+            for (MirroredPlayer mirror : mirrors.values()) {
+                Object value = mirror.subscribe(key);
+                targetLoop.execute(() -> mirror.update(key, value));
+            }
+        }
+    }
+
+    @Override
+    public Collection<? extends Player> getPlayers() {
+        return Collections.unmodifiableCollection(players);
+    }
+
+    @Override
+    public void registerListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void unregisterListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    private final class MirroredPlayer implements Player {
+
+        private final Player source;
+
+        /**
+         * Listeners registered at the source player. Only accessed from the main queue.
+         */
+        private final Map<DataKey<?>, Runnable> subscriptions = new HashMap<>();
+
+        /**
+         * Only accessed from the target loop, or from the main queue before the mirror is published.
+         */
+        private final Map<DataKey<?>, Object> values = new HashMap<>();
+        private final Map<DataKey<?>, List<Runnable>> listeners = new HashMap<>();
+
+        private MirroredPlayer(Player source) {
+            this.source = source;
+        }
+
+        @Nonnull
+        @Override
+        public String getName() {
+            return source.getName();
+        }
+
+        @Nonnull
+        @Override
+        public UUID getUniqueID() {
+            return source.getUniqueID();
+        }
+
+        /**
+         * Get the last snapshot of a value.
+         */
+        @Override
+        @SuppressWarnings("unchecked")
+        public <V> V get(DataKey<V> key) {
+            return (V) values.get(key);
+        }
+
+        @Override
+        public <T> void addDataChangeListener(DataKey<T> key, Runnable listener) {
+            listeners.computeIfAbsent(key, k -> new ArrayList<>()).add(listener);
+            if (requestedKeys.add(key)) {
+                mainQueue.execute(() -> onKeyRequested(key));
+            }
+        }
+
+        @Override
+        public <T> void removeDataChangeListener(DataKey<T> key, Runnable listener) {
+            List<Runnable> keyListeners = listeners.get(key);
+            if (keyListeners != null) {
+                keyListeners.remove(listener);
+                if (keyListeners.isEmpty()) {
+                    listeners.remove(key);
+                }
+            }
+        }
+
+        /**
+         * Listen for changes of a data key of the source player and forward them to the target loop. Must be called
+         * from the main queue.
+         *
+         * @return the current value
+         */
+        private Object subscribe(DataKey<?> key) {
+            Runnable subscription = () -> {
+                Object value = source.get(key);
+                targetLoop.execute(() -> update(key, value));
+            };
+            subscriptions.put(key, subscription);
+            source.addDataChangeListener(key, subscription);
+            return source.get(key);
+        }
+
+        private void unsubscribeAll() {
+            for (Map.Entry<DataKey<?>, Runnable> entry : subscriptions.entrySet()) {
+                source.removeDataChangeListener(entry.getKey(), entry.getValue());
+            }
+            subscriptions.clear();
+        }
+
+        private void update(DataKey<?> key, Object value) {
+            values.put(key, value);
+            List<Runnable> keyListeners = listeners.get(key);
+            if (keyListeners != null) {
+                for (Runnable listener : new ArrayList<>(keyListeners)) {
+                    listener.run();
+                }
+            }
+        }
+    }
+}
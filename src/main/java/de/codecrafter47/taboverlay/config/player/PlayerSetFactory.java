@@ -50,6 +50,8 @@ public class PlayerSetFactory {
         PlayerSet playerSet = globalPlayerSetFactory.getSharedInstance(template);
         if (playerSet != null) {
             return playerSet;
+        } else if (template.getViewerDataKeys() != null && context.getViewer() != null) {
+            return new ViewerClassPlayerSetWrapper(globalPlayerSetFactory, context, logger, template);
         } else {
             switch (template.getHiddenPlayersVisibility()) {
                 case VISIBLE:
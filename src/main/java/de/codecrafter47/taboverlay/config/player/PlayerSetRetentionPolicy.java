@@ -0,0 +1,57 @@
+/*
+ *     Copyright (C) 2020 Florian Stober
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.codecrafter47.taboverlay.config.player;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Controls how long shared player sets, partitions and ordered player sets are kept alive after the last user
+ * dropped them.
+ * <p>
+ * Shared sets that are in use are always reused. Without a retention policy an unused set may be garbage collected
+ * immediately, e.g. while the tab overlay providers are switched or the configuration is reloaded, and would then
+ * have to be rebuilt from scratch.
+ * <p>
+ * Retained sets stay active, i.e. they keep tracking players and evaluating their predicates until they are evicted.
+ * Retention is disabled unless configured in the options.
+ */
+@Value
+@Builder
+public class PlayerSetRetentionPolicy {
+
+    /**
+     * Don't retain unused sets.
+     */
+    public static final PlayerSetRetentionPolicy NONE = new PlayerSetRetentionPolicy(0, 0);
+
+    /**
+     * Time in milliseconds an unused set is kept alive after it was last requested.
+     */
+    @Builder.Default
+    long gracePeriodMillis = 30000;
+
+    /**
+     * Maximum number of unused sets to keep alive per cache.
+     */
+    @Builder.Default
+    int maximumSize = 256;
+
+    boolean isEnabled() {
+        return gracePeriodMillis > 0 && maximumSize > 0;
+    }
+}
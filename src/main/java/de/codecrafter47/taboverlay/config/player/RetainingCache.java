@@ -0,0 +1,145 @@
+/*
+ *     Copyright (C) 2020 Florian Stober
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.codecrafter47.taboverlay.config.player;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.RemovalNotification;
+import lombok.SneakyThrows;
+
+import javax.annotation.Nullable;
+import java.util.Collection;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Cache for shared objects. Values are only weakly referenced by the cache, so objects in use are always shared.
+ * Additionally a bounded number of recently requested values are retained for the grace period of the
+ * {@link PlayerSetRetentionPolicy}.
+ * <p>
+ * Retained values are kept active using the {@code retain} callback, so they don't lose their state when the
+ * last user drops them. Once a value is evicted it is handed to the {@code release} callback on the event queue.
+ * All methods must be called from the event queue.
+ */
+final class RetainingCache<K, V> {
+
+    private final Cache<K, V> cache = CacheBuilder.newBuilder().weakValues().recordStats().build();
+    @Nullable
+    private final Cache<K, V> retained;
+    private final ScheduledExecutorService eventQueue;
+    private final long gracePeriodMillis;
+    private final Consumer<? super V> retain;
+    private final Consumer<? super V> release;
+    private boolean cleanUpScheduled = false;
+
+    RetainingCache(PlayerSetRetentionPolicy retentionPolicy, ScheduledExecutorService eventQueue, Consumer<? super V> retain, Consumer<? super V> release) {
+        this.eventQueue = eventQueue;
+        this.gracePeriodMillis = retentionPolicy.getGracePeriodMillis();
+        this.retain = retain;
+        this.release = release;
+        if (retentionPolicy.isEnabled()) {
+            retained = CacheBuilder.newBuilder()
+                    .expireAfterAccess(gracePeriodMillis, TimeUnit.MILLISECONDS)
+                    .maximumSize(retentionPolicy.getMaximumSize())
+                    .removalListener(this::onEvicted)
+                    .build();
+        } else {
+            retained = null;
+        }
+    }
+
+    @SneakyThrows
+    V get(K key, Function<? super K, ? extends V> loader) {
+        V value = cache.get(key, () -> loader.apply(key));
+        if (retained != null && retained.getIfPresent(key) != value) {
+            retained.put(key, value);
+            retain.accept(value);
+            scheduleCleanUp();
+        }
+        return value;
+    }
+
+    private void onEvicted(RemovalNotification<K, V> notification) {
+        K key = notification.getKey();
+        V value = notification.getValue();
+        // the removal listener may be called from inside a cache operation, possibly while the value is notifying
+        // its listeners, so release it later
+        eventQueue.execute(() -> {
+            if (retained.asMap().get(key) != value) {
+                release.accept(value);
+            }
+        });
+    }
+
+    private void scheduleCleanUp() {
+        if (!cleanUpScheduled) {
+            cleanUpScheduled = true;
+            eventQueue.schedule(this::cleanUp, gracePeriodMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void cleanUp() {
+        cleanUpScheduled = false;
+        retained.cleanUp();
+        if (retained.size() > 0) {
+            scheduleCleanUp();
+        }
+    }
+
+    /**
+     * Listener without effect, registered on retained values to keep them active.
+     */
+    static final class KeepAliveListener implements PlayerSet.Listener, PlayerSetPartition.Listener, OrderedPlayerSet.Listener {
+
+        static final KeepAliveListener INSTANCE = new KeepAliveListener();
+
+        private KeepAliveListener() {
+        }
+
+        @Override
+        public void onPlayerAdded(Player player) {
+        }
+
+        @Override
+        public void onPlayerRemoved(Player player) {
+        }
+
+        @Override
+        public void onPartitionAdded(String id, PlayerSet playerSet) {
+        }
+
+        @Override
+        public void onPartitionRemoved(String id) {
+        }
+
+        @Override
+        public void onUpdate(boolean newPlayers) {
+        }
+    }
+
+    Collection<V> values() {
+        return cache.asMap().values();
+    }
+
+    CacheStats stats() {
+        return cache.stats();
+    }
+}
@@ -17,51 +17,58 @@
 
 package de.codecrafter47.taboverlay.config.player;
 
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
+import com.google.common.cache.CacheStats;
 import de.codecrafter47.taboverlay.config.context.Context;
 import de.codecrafter47.taboverlay.config.expression.template.ExpressionTemplate;
 import de.codecrafter47.taboverlay.config.template.PlayerOrderTemplate;
-import lombok.SneakyThrows;
 
-import javax.annotation.Nonnull;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.logging.Logger;
 
 public class SharedPlayerSet extends AbstractPlayerSet {
 
-    private final LoadingCache<ExpressionTemplate, PlayerSetPartition> cachePartition = CacheBuilder.newBuilder().weakValues().build(new CacheLoader<ExpressionTemplate, PlayerSetPartition>() {
-        @Override
-        public PlayerSetPartition load(@Nonnull ExpressionTemplate key) {
-            return new PlayerSetPartition(context.getTabEventQueue(),
-                    SharedPlayerSet.this,
-                    logger, key,
-                    context);
-        }
-    });
-
-    private final Cache<PlayerOrderTemplate, OrderedPlayerSet> cacheOrdered = CacheBuilder.newBuilder().weakValues().build();
+    private final RetainingCache<ExpressionTemplate, PlayerSetPartition> cachePartition;
+    private final RetainingCache<PlayerOrderTemplate, OrderedPlayerSet> cacheOrdered;
 
     public SharedPlayerSet(PlayerProvider playerProvider, ExpressionTemplate template, ScheduledExecutorService eventQueue, Logger logger) {
-        super(eventQueue, playerProvider, logger, template, Context.from(null, eventQueue));
+        this(playerProvider, template, eventQueue, logger, PlayerSetRetentionPolicy.NONE);
+    }
+
+    public SharedPlayerSet(PlayerProvider playerProvider, ExpressionTemplate template, ScheduledExecutorService eventQueue, Logger logger, PlayerSetRetentionPolicy retentionPolicy) {
+        this(playerProvider, template, Context.from(null, eventQueue), logger, retentionPolicy);
+    }
+
+    SharedPlayerSet(PlayerProvider playerProvider, ExpressionTemplate template, Context context, Logger logger, PlayerSetRetentionPolicy retentionPolicy) {
+        super(context.getTabEventQueue(), playerProvider, logger, template, context);
+        this.cachePartition = new RetainingCache<>(retentionPolicy, context.getTabEventQueue(),
+                partition -> partition.addListener(RetainingCache.KeepAliveListener.INSTANCE),
+                partition -> partition.removeListener(RetainingCache.KeepAliveListener.INSTANCE));
+        this.cacheOrdered = new RetainingCache<>(retentionPolicy, context.getTabEventQueue(),
+                orderedPlayerSet -> orderedPlayerSet.addListener(RetainingCache.KeepAliveListener.INSTANCE),
+                orderedPlayerSet -> orderedPlayerSet.removeListener(RetainingCache.KeepAliveListener.INSTANCE));
     }
 
     @Override
-    @SneakyThrows
     public PlayerSetPartition getPartition(ExpressionTemplate partitionFunction) {
-        return cachePartition.get(partitionFunction);
+        return cachePartition.get(partitionFunction, key -> new PlayerSetPartitionImpl(context.getTabEventQueue(),
+                SharedPlayerSet.this,
+                logger, key,
+                context));
     }
 
     @Override
-    @SneakyThrows
     public OrderedPlayerSet getOrderedPlayerSet(Context context, PlayerOrderTemplate playerOrderTemplate) {
         if (playerOrderTemplate.requiresViewerContext())
             return super.getOrderedPlayerSet(context, playerOrderTemplate);
         else
-            return cacheOrdered.get(playerOrderTemplate, () -> {
-                return new OrderedPlayerSetImpl(this, logger, SharedPlayerSet.this.context, playerOrderTemplate);
-            });
+            return cacheOrdered.get(playerOrderTemplate, key -> new OrderedPlayerSetImpl(this, logger, SharedPlayerSet.this.context, key));
+    }
+
+    CacheStats getPartitionCacheStats() {
+        return cachePartition.stats();
+    }
+
+    CacheStats getOrderedPlayerSetCacheStats() {
+        return cacheOrdered.stats();
     }
 }
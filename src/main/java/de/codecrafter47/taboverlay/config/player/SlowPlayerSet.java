@@ -30,6 +30,6 @@ public class SlowPlayerSet extends AbstractPlayerSet implements PlayerSet {
 
     @Override
     public PlayerSetPartition getPartition(ExpressionTemplate partitionFunction) {
-        return new PlayerSetPartition(context.getTabEventQueue(), this, logger, partitionFunction, context);
+        return new PlayerSetPartitionImpl(context.getTabEventQueue(), this, logger, partitionFunction, context);
     }
 }
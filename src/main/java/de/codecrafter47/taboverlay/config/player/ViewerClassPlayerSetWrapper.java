@@ -0,0 +1,454 @@
+/*
+ *     Copyright (C) 2020 Florian Stober
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.codecrafter47.taboverlay.config.player;
+
+import de.codecrafter47.data.api.DataKey;
+import de.codecrafter47.taboverlay.config.context.Context;
+import de.codecrafter47.taboverlay.config.expression.template.ExpressionTemplate;
+import de.codecrafter47.taboverlay.config.template.PlayerOrderTemplate;
+import de.codecrafter47.taboverlay.config.template.PlayerSetTemplate;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Player set for a viewer which depends on the viewer only through some data keys. Delegates to the player set
+ * shared by all viewers with the same values for those keys and switches to another one if the values change.
+ */
+public class ViewerClassPlayerSetWrapper implements PlayerSet {
+    private final GlobalPlayerSetFactory globalPlayerSetFactory;
+    protected final Context context;
+    private final Logger logger;
+    private final PlayerSetTemplate template;
+    private final List<DataKey<?>> viewerDataKeys;
+
+    private final MyListener listener = new MyListener();
+    private final HashSet<Listener> listeners = new HashSet<>();
+    private final HashSet<SharedOrderedPlayerSet> activeOrderedPlayerSets = new HashSet<>();
+    private final HashSet<SharedPlayerSetPartition> activePartitions = new HashSet<>();
+    @Nullable
+    private PlayerSet playerSet;
+    private List<Object> viewerValues;
+    private boolean isNotifyingListeners = false;
+
+    public ViewerClassPlayerSetWrapper(GlobalPlayerSetFactory globalPlayerSetFactory, Context context, Logger logger, PlayerSetTemplate template) {
+        this.globalPlayerSetFactory = globalPlayerSetFactory;
+        this.context = context;
+        this.logger = logger;
+        this.template = template;
+        this.viewerDataKeys = Objects.requireNonNull(template.getViewerDataKeys(), "viewerDataKeys");
+    }
+
+    private void activate() {
+        Player viewer = context.getViewer();
+        for (DataKey<?> dataKey : viewerDataKeys) {
+            viewer.addDataChangeListener(dataKey, listener);
+        }
+        viewerValues = getViewerValues();
+        playerSet = globalPlayerSetFactory.getViewerClassInstance(template, viewerValues);
+        playerSet.addListener(listener);
+    }
+
+    private void deactivate() {
+        Player viewer = context.getViewer();
+        for (DataKey<?> dataKey : viewerDataKeys) {
+            viewer.removeDataChangeListener(dataKey, listener);
+        }
+        playerSet.removeListener(listener);
+        playerSet = null;
+    }
+
+    private List<Object> getViewerValues() {
+        Player viewer = context.getViewer();
+        List<Object> values = new ArrayList<>(viewerDataKeys.size());
+        for (DataKey<?> dataKey : viewerDataKeys) {
+            values.add(viewer.get(dataKey));
+        }
+        return values;
+    }
+
+    @Override
+    public int getCount() {
+        if (playerSet == null) {
+            throw new IllegalStateException("Calling PlayerSet.getCount() before registering a listener");
+        }
+        return playerSet.getCount();
+    }
+
+    @Override
+    public void addListener(Listener listener) {
+        if (isNotifyingListeners) {
+            throw new IllegalStateException("Listeners cannot be added while notifying listeners");
+        }
+        listeners.add(listener);
+        if (playerSet == null) {
+            activate();
+        }
+    }
+
+    @Override
+    public void removeListener(Listener listener) {
+        if (isNotifyingListeners) {
+            throw new IllegalStateException("Listeners cannot be removed while notifying listeners");
+        }
+        listeners.remove(listener);
+        if (listeners.isEmpty() && playerSet != null) {
+            deactivate();
+        }
+    }
+
+    @Override
+    public Collection<? extends Player> getPlayers() {
+        if (playerSet == null) {
+            throw new IllegalStateException("Calling PlayerSet.getPlayers() before registering a listener");
+        }
+        return playerSet.getPlayers();
+    }
+
+    @Override
+    public OrderedPlayerSet getOrderedPlayerSet(Context context, PlayerOrderTemplate playerOrderTemplate) {
+        if (playerOrderTemplate.requiresViewerContext()) {
+            return new OrderedPlayerSetImpl(this, logger, context, playerOrderTemplate);
+        }
+        return new SharedOrderedPlayerSet(context, playerOrderTemplate);
+    }
+
+    @Override
+    public PlayerSetPartition getPartition(ExpressionTemplate partitionFunction) {
+        if (partitionFunction.requiresViewerContext()) {
+            // the shared player set only knows the viewer class, not the viewer
+            return new PlayerSetPartitionImpl(context.getTabEventQueue(), this, logger, partitionFunction, context);
+        }
+        return new SharedPlayerSetPartition(partitionFunction);
+    }
+
+    private void notifyPlayerAdded(Player player) {
+        isNotifyingListeners = true;
+        try {
+            for (Listener listener : listeners) {
+                try {
+                    listener.onPlayerAdded(player);
+                } catch (Throwable th) {
+                    logger.log(Level.SEVERE, "Unexpected exception while notifying listener", th);
+                }
+            }
+        } finally {
+            isNotifyingListeners = false;
+        }
+    }
+
+    private void notifyPlayerRemoved(Player player) {
+        isNotifyingListeners = true;
+        try {
+            for (Listener listener : listeners) {
+                try {
+                    listener.onPlayerRemoved(player);
+                } catch (Throwable th) {
+                    logger.log(Level.SEVERE, "Unexpected exception while notifying listener", th);
+                }
+            }
+        } finally {
+            isNotifyingListeners = false;
+        }
+    }
+
+    private class MyListener implements Listener, Runnable {
+
+        @Override
+        public void onPlayerAdded(Player player) {
+            notifyPlayerAdded(player);
+        }
+
+        @Override
+        public void onPlayerRemoved(Player player) {
+            notifyPlayerRemoved(player);
+        }
+
+        @Override
+        public void run() {
+            if (playerSet == null) {
+                return;
+            }
+            List<Object> viewerValues = getViewerValues();
+            if (viewerValues.equals(ViewerClassPlayerSetWrapper.this.viewerValues)) {
+                return;
+            }
+            ViewerClassPlayerSetWrapper.this.viewerValues = viewerValues;
+
+            PlayerSet newPlayerSet = globalPlayerSetFactory.getViewerClassInstance(template, viewerValues);
+            newPlayerSet.addListener(listener);
+            HashSet<Player> oldPlayers = new HashSet<>(playerSet.getPlayers());
+            playerSet.removeListener(listener);
+            playerSet = newPlayerSet;
+
+            for (Player player : oldPlayers) {
+                if (!newPlayerSet.getPlayers().contains(player)) {
+                    notifyPlayerRemoved(player);
+                }
+            }
+            for (Player player : new ArrayList<>(newPlayerSet.getPlayers())) {
+                if (!oldPlayers.contains(player)) {
+                    notifyPlayerAdded(player);
+                }
+            }
+
+            for (SharedOrderedPlayerSet orderedPlayerSet : new ArrayList<>(activeOrderedPlayerSets)) {
+                orderedPlayerSet.updateDelegate();
+            }
+            for (SharedPlayerSetPartition partition : new ArrayList<>(activePartitions)) {
+                partition.updateDelegate();
+            }
+        }
+    }
+
+    /**
+     * Partition of the player set shared by the viewer class.
+     */
+    private class SharedPlayerSetPartition implements PlayerSetPartition, PlayerSetPartition.Listener {
+        private final ExpressionTemplate partitionFunction;
+        private final HashSet<PlayerSetPartition.Listener> listeners = new HashSet<>();
+        // keeps the wrapper active while this is in use, changes are received from the delegate
+        private final PlayerSet.Listener wrapperListener = new PlayerSet.Listener() {
+            @Override
+            public void onPlayerAdded(Player player) {
+            }
+
+            @Override
+            public void onPlayerRemoved(Player player) {
+            }
+        };
+        @Nullable
+        private PlayerSetPartition delegate;
+
+        private SharedPlayerSetPartition(ExpressionTemplate partitionFunction) {
+            this.partitionFunction = partitionFunction;
+        }
+
+        private void activate() {
+            ViewerClassPlayerSetWrapper.this.addListener(wrapperListener);
+            delegate = playerSet.getPartition(partitionFunction);
+            delegate.addListener(this);
+            activePartitions.add(this);
+        }
+
+        private void deactivate() {
+            activePartitions.remove(this);
+            delegate.removeListener(this);
+            delegate = null;
+            ViewerClassPlayerSetWrapper.this.removeListener(wrapperListener);
+        }
+
+        private void updateDelegate() {
+            PlayerSetPartition newDelegate = playerSet.getPartition(partitionFunction);
+            if (newDelegate == delegate) {
+                return;
+            }
+            newDelegate.addListener(this);
+            List<String> oldPartitions = new ArrayList<>();
+            for (Map.Entry<String, ? extends PlayerSet> entry : delegate.getPartitions()) {
+                oldPartitions.add(entry.getKey());
+            }
+            delegate.removeListener(this);
+            delegate = newDelegate;
+
+            // the player sets of the partitions belong to the old delegate, so all of them are replaced
+            for (String id : oldPartitions) {
+                onPartitionRemoved(id);
+            }
+            for (Map.Entry<String, ? extends PlayerSet> entry : new ArrayList<>(newDelegate.getPartitions())) {
+                onPartitionAdded(entry.getKey(), entry.getValue());
+            }
+        }
+
+        @Override
+        public Collection<? extends Map.Entry<String, ? extends PlayerSet>> getPartitions() {
+            if (delegate == null) {
+                throw new IllegalStateException("Calling PlayerSetPartition.getPartitions() before registering a listener");
+            }
+            return delegate.getPartitions();
+        }
+
+        @Override
+        public PlayerSet getPartition(String name) {
+            if (delegate == null) {
+                throw new IllegalStateException("Calling PlayerSetPartition.getPartition() before registering a listener");
+            }
+            return delegate.getPartition(name);
+        }
+
+        @Override
+        public void addListener(PlayerSetPartition.Listener listener) {
+            listeners.add(listener);
+            if (delegate == null) {
+                activate();
+            }
+        }
+
+        @Override
+        public void removeListener(PlayerSetPartition.Listener listener) {
+            listeners.remove(listener);
+            if (listeners.isEmpty() && delegate != null) {
+                deactivate();
+            }
+        }
+
+        @Override
+        public void onPartitionAdded(String id, PlayerSet playerSet) {
+            for (PlayerSetPartition.Listener listener : new ArrayList<>(listeners)) {
+                try {
+                    listener.onPartitionAdded(id, playerSet);
+                } catch (Throwable th) {
+                    logger.log(Level.SEVERE, "Unexpected exception while notifying listener", th);
+                }
+            }
+        }
+
+        @Override
+        public void onPartitionRemoved(String id) {
+            for (PlayerSetPartition.Listener listener : new ArrayList<>(listeners)) {
+                try {
+                    listener.onPartitionRemoved(id);
+                } catch (Throwable th) {
+                    logger.log(Level.SEVERE, "Unexpected exception while notifying listener", th);
+                }
+            }
+        }
+    }
+
+    /**
+     * Ordered view on the player set shared by the viewer class.
+     */
+    private class SharedOrderedPlayerSet implements OrderedPlayerSet, OrderedPlayerSet.Listener {
+        private final Context context;
+        private final PlayerOrderTemplate playerOrderTemplate;
+        private final HashSet<OrderedPlayerSet.Listener> listeners = new HashSet<>();
+        // keeps the wrapper active while this is in use, changes are received from the delegate
+        private final PlayerSet.Listener wrapperListener = new PlayerSet.Listener() {
+            @Override
+            public void onPlayerAdded(Player player) {
+            }
+
+            @Override
+            public void onPlayerRemoved(Player player) {
+            }
+        };
+        @Nullable
+        private OrderedPlayerSet delegate;
+
+        private SharedOrderedPlayerSet(Context context, PlayerOrderTemplate playerOrderTemplate) {
+            this.context = context;
+            this.playerOrderTemplate = playerOrderTemplate;
+        }
+
+        private void activate() {
+            ViewerClassPlayerSetWrapper.this.addListener(wrapperListener);
+            delegate = playerSet.getOrderedPlayerSet(context, playerOrderTemplate);
+            delegate.addListener(this);
+            activeOrderedPlayerSets.add(this);
+        }
+
+        private void deactivate() {
+            activeOrderedPlayerSets.remove(this);
+            delegate.removeListener(this);
+            delegate = null;
+            ViewerClassPlayerSetWrapper.this.removeListener(wrapperListener);
+        }
+
+        private void updateDelegate() {
+            OrderedPlayerSet newDelegate = playerSet.getOrderedPlayerSet(context, playerOrderTemplate);
+            if (newDelegate == delegate) {
+                return;
+            }
+            newDelegate.addListener(this);
+            List<Player> oldPlayers = new ArrayList<>(delegate.getCount());
+            for (int i = 0; i < delegate.getCount(); i++) {
+                oldPlayers.add(delegate.getPlayer(i));
+            }
+            delegate.removeListener(this);
+            delegate = newDelegate;
+
+            Collection<? extends Player> newPlayers = playerSet.getPlayers();
+            for (Player player : oldPlayers) {
+                if (!newPlayers.contains(player)) {
+                    onPlayerRemoved(player);
+                }
+            }
+            onUpdate(true);
+        }
+
+        @Override
+        public int getCount() {
+            if (delegate == null) {
+                throw new IllegalStateException("Calling OrderedPlayerSet.getCount() before registering a listener");
+            }
+            return delegate.getCount();
+        }
+
+        @Override
+        public void addListener(OrderedPlayerSet.Listener listener) {
+            listeners.add(listener);
+            if (delegate == null) {
+                activate();
+            }
+        }
+
+        @Override
+        public void removeListener(OrderedPlayerSet.Listener listener) {
+            listeners.remove(listener);
+            if (listeners.isEmpty() && delegate != null) {
+                deactivate();
+            }
+        }
+
+        @Override
+        public Player getPlayer(int index) {
+            if (delegate == null) {
+                throw new IllegalStateException("Calling OrderedPlayerSet.getPlayer() before registering a listener");
+            }
+            return delegate.getPlayer(index);
+        }
+
+        @Override
+        public void onPlayerRemoved(Player player) {
+            for (OrderedPlayerSet.Listener listener : new ArrayList<>(listeners)) {
+                try {
+                    listener.onPlayerRemoved(player);
+                } catch (Throwable th) {
+                    logger.log(Level.SEVERE, "Unexpected exception while notifying listener", th);
+                }
+            }
+        }
+
+        @Override
+        public void onUpdate(boolean newPlayers) {
+            for (OrderedPlayerSet.Listener listener : new ArrayList<>(listeners)) {
+                try {
+                    listener.onUpdate(newPlayers);
+                } catch (Throwable th) {
+                    logger.log(Level.SEVERE, "Unexpected exception while notifying listener", th);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ *     Copyright (C) 2020 Florian Stober
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.codecrafter47.taboverlay.config.player;
+
+import de.codecrafter47.data.api.DataKey;
+
+import javax.annotation.Nonnull;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Stands in for all viewers of a viewer class, i.e. all viewers with the same values for a set of data keys.
+ * <p>
+ * Only provides the values of those data keys. The values never change, viewers with different values belong to a
+ * different class.
+ */
+final class ViewerClassRepresentative implements Player {
+
+    private static final UUID UUID_NONE = new UUID(0, 0);
+
+    private final List<DataKey<?>> dataKeys;
+    private final List<Object> values;
+
+    ViewerClassRepresentative(List<DataKey<?>> dataKeys, List<Object> values) {
+        this.dataKeys = dataKeys;
+        this.values = values;
+    }
+
+    @Nonnull
+    @Override
+    public String getName() {
+        return "";
+    }
+
+    @Nonnull
+    @Override
+    public UUID getUniqueID() {
+        return UUID_NONE;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <V> V get(DataKey<V> key) {
+        int index = dataKeys.indexOf(key);
+        return index == -1 ? null : (V) values.get(index);
+    }
+
+    @Override
+    public <T> void addDataChangeListener(DataKey<T> key, Runnable listener) {
+        // values never change
+    }
+
+    @Override
+    public <T> void removeDataChangeListener(DataKey<T> key, Runnable listener) {
+        // values never change
+    }
+}
@@ -115,7 +115,7 @@ public class VisibleToAdminsPlayerSetWrapper implements PlayerSet {
     @Override
     public PlayerSetPartition getPartition(ExpressionTemplate partitionFunction) {
         // todo make this be shared!
-        return new PlayerSetPartition(context.getTabEventQueue(), this, logger, partitionFunction, context);
+        return new PlayerSetPartitionImpl(context.getTabEventQueue(), this, logger, partitionFunction, context);
     }
 
     private class MyListener implements Listener, ExpressionUpdateListener {
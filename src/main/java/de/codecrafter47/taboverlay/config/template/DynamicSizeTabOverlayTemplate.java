@@ -37,8 +37,16 @@ public class DynamicSizeTabOverlayTemplate extends AbstractTabOverlayTemplate {
 
     private ComponentTemplate morePlayersComponent;
 
+    /**
+     * Time in seconds to wait before shrinking the tab list if the content only shrank by up to
+     * {@link #shrinkMargin} slots.
+     */
+    private float shrinkDelay = 5.0f;
+
+    private int shrinkMargin = 2;
+
     @Override
     public AbstractActiveElement<?> createContentView(TabView tabView, TabOverlayHandler handler) {
-        return new DynamicSizeContentView(this, handler.enterContentOperationMode(ContentOperationMode.SIMPLE));
+        return new DynamicSizeContentView(tabView, this, handler.enterContentOperationMode(ContentOperationMode.SIMPLE));
     }
 }
@@ -17,6 +17,8 @@
 
 package de.codecrafter47.taboverlay.config.template;
 
+import com.google.common.collect.ImmutableList;
+import de.codecrafter47.data.api.DataKey;
 import de.codecrafter47.taboverlay.config.dsl.PlayerSetConfiguration;
 import de.codecrafter47.taboverlay.config.expression.template.ExpressionTemplate;
 import lombok.Builder;
@@ -24,6 +26,9 @@ import lombok.NonNull;
 import lombok.Value;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.LinkedHashSet;
+import java.util.Set;
 
 @Value
 public class PlayerSetTemplate {
@@ -38,10 +43,24 @@ public class PlayerSetTemplate {
 
     private boolean requiresViewerContext;
 
+    /**
+     * The data keys of the viewer the predicate depends on, or null if the predicate does not depend on the viewer
+     * or its dependencies cannot be described by data keys.
+     */
+    @Nullable
+    private ImmutableList<DataKey<?>> viewerDataKeys;
+
     @Builder
     public PlayerSetTemplate(@Nonnull PlayerSetConfiguration.Visibility hiddenPlayersVisibility, @Nonnull ExpressionTemplate predicate) {
         this.hiddenPlayersVisibility = hiddenPlayersVisibility;
         this.predicate = predicate;
         this.requiresViewerContext = predicate.requiresViewerContext() || hiddenPlayersVisibility == PlayerSetConfiguration.Visibility.VISIBLE_TO_ADMINS;
+        Set<DataKey<?>> keys = new LinkedHashSet<>();
+        if (predicate.requiresViewerContext() && hiddenPlayersVisibility != PlayerSetConfiguration.Visibility.VISIBLE_TO_ADMINS
+                && predicate.collectViewerDataKeys(keys) && !keys.isEmpty()) {
+            this.viewerDataKeys = ImmutableList.copyOf(keys);
+        } else {
+            this.viewerDataKeys = null;
+        }
     }
 }
@@ -35,6 +35,14 @@ public class RectangularTabOverlayTemplate extends AbstractTabOverlayTemplate {
 
     private ComponentTemplate contentRoot;
 
+    /**
+     * Time in seconds to wait before shrinking the tab list if the content only shrank by up to
+     * {@link #shrinkMargin} slots.
+     */
+    private float shrinkDelay = 5.0f;
+
+    private int shrinkMargin = 2;
+
     @Override
     public AbstractActiveElement<?> createContentView(TabView tabView, TabOverlayHandler handler) {
         return new RectangularContentView(tabView, this, handler.enterContentOperationMode(ContentOperationMode.RECTANGULAR));
@@ -23,6 +23,7 @@ import de.codecrafter47.taboverlay.config.template.ping.PingTemplate;
 import de.codecrafter47.taboverlay.config.template.text.TextTemplate;
 import de.codecrafter47.taboverlay.config.view.components.BasicComponentView;
 import de.codecrafter47.taboverlay.config.view.components.ComponentView;
+import de.codecrafter47.taboverlay.config.view.text.SharedTextView;
 import lombok.Builder;
 import lombok.Value;
 
@@ -47,9 +48,9 @@ public class BasicComponentTemplate implements ComponentTemplate {
 
     @Override
     public ComponentView instantiate() {
-        return new BasicComponentView(leftText != null ? leftText.instantiate() : null,
-                centerText != null ? centerText.instantiate() : null,
-                rightText != null ? rightText.instantiate() : null,
+        return new BasicComponentView(leftText != null ? SharedTextView.of(leftText) : null,
+                centerText != null ? SharedTextView.of(centerText) : null,
+                rightText != null ? SharedTextView.of(rightText) : null,
                 ping.instantiate(), icon.instantiate(), longText);
     }
 }
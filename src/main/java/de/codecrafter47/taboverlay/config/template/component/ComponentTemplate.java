@@ -27,6 +27,15 @@ public interface ComponentTemplate {
 
     ComponentView instantiate();
 
+    /**
+     * Hands back a view created by {@link #instantiate()} which has been deactivated and is not used anymore. The
+     * template may return it again from {@link #instantiate()}.
+     *
+     * @param view the view
+     */
+    default void release(ComponentView view) {
+    }
+
     @Builder
     @Value
     class LayoutInfo {
@@ -61,8 +61,8 @@ public class ListComponentTemplate implements ComponentTemplate {
                 .map(ComponentTemplate::instantiate)
                 .collect(Collectors.toList()),
                 columns,
-                defaultText.instantiate(),
-                defaultPing.instantiate(),
-                defaultIcon.instantiate());
+                defaultText,
+                defaultPing,
+                defaultIcon);
     }
 }
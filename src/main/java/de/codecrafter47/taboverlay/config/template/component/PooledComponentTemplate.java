@@ -0,0 +1,77 @@
+/*
+ *     Copyright (C) 2020 Florian Stober
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.codecrafter47.taboverlay.config.template.component;
+
+import de.codecrafter47.taboverlay.config.view.components.ComponentView;
+
+import java.util.ArrayDeque;
+
+/**
+ * Keeps a bounded pool of deactivated views of the wrapped template and hands them out again instead of
+ * instantiating a new view tree.
+ */
+public final class PooledComponentTemplate implements ComponentTemplate {
+
+    private final ComponentTemplate delegate;
+    private final int maxPoolSize;
+    private final ArrayDeque<ComponentView> pool = new ArrayDeque<>();
+
+    private PooledComponentTemplate(ComponentTemplate delegate, int maxPoolSize) {
+        this.delegate = delegate;
+        this.maxPoolSize = maxPoolSize;
+    }
+
+    /**
+     * Wrap the given template with a pool of views.
+     *
+     * @param template    the template
+     * @param maxPoolSize the maximum number of views to keep
+     * @return the pooled template
+     */
+    public static ComponentTemplate of(ComponentTemplate template, int maxPoolSize) {
+        if (template instanceof PooledComponentTemplate) {
+            return template;
+        }
+        return new PooledComponentTemplate(template, maxPoolSize);
+    }
+
+    @Override
+    public LayoutInfo getLayoutInfo() {
+        return delegate.getLayoutInfo();
+    }
+
+    @Override
+    public ComponentView instantiate() {
+        ComponentView view;
+        synchronized (pool) {
+            view = pool.pollLast();
+        }
+        return view != null ? view : delegate.instantiate();
+    }
+
+    @Override
+    public void release(ComponentView view) {
+        if (view.isActive()) {
+            throw new IllegalStateException("Cannot release active view");
+        }
+        synchronized (pool) {
+            if (pool.size() < maxPoolSize) {
+                pool.addLast(view);
+            }
+        }
+    }
+}
@@ -43,6 +43,6 @@ public class SpacerComponentTemplate implements ComponentTemplate {
 
     @Override
     public ComponentView instantiate() {
-        return new SpacerComponentView(defaultText.instantiate(), defaultPing.instantiate(), defaultIcon.instantiate());
+        return new SpacerComponentView(defaultText, defaultPing, defaultIcon);
     }
 }
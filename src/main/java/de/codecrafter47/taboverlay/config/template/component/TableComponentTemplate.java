@@ -63,9 +63,9 @@ public class TableComponentTemplate implements ComponentTemplate {
         return new TableComponentView(columns,
                 size,
                 columnCount,
-                defaultText.instantiate(),
-                defaultPing.instantiate(),
-                defaultIcon.instantiate());
+                defaultText,
+                defaultPing,
+                defaultIcon);
     }
 
     @Value
@@ -17,7 +17,9 @@
 
 package de.codecrafter47.taboverlay.config.view;
 
-import de.codecrafter47.taboverlay.config.area.RectangularArea;
+import de.codecrafter47.taboverlay.FrameScheduler;
+import de.codecrafter47.taboverlay.TabView;
+import de.codecrafter47.taboverlay.config.area.BufferedArea;
 import de.codecrafter47.taboverlay.config.template.DynamicSizeTabOverlayTemplate;
 import de.codecrafter47.taboverlay.config.template.icon.IconTemplate;
 import de.codecrafter47.taboverlay.config.template.ping.PingTemplate;
@@ -26,24 +28,39 @@ import de.codecrafter47.taboverlay.config.view.components.ComponentView;
 import de.codecrafter47.taboverlay.config.view.components.PlayersComponentView;
 import de.codecrafter47.taboverlay.handler.SimpleTabOverlay;
 
+import javax.annotation.Nullable;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 public class DynamicSizeContentView extends ComponentView {
 
     private final SimpleTabOverlay contentHandle;
+    @Nullable
+    private final FrameScheduler frameScheduler;
+    private BufferedArea buffer = null;
     private final ComponentView content;
     private Future<?> updateFuture = null;
+    private final long shrinkDelayMillis;
+    private final int shrinkMargin;
+    private Future<?> shrinkFuture = null;
 
     public DynamicSizeContentView(DynamicSizeTabOverlayTemplate template, SimpleTabOverlay contentHandle) {
+        this(null, template, contentHandle);
+    }
+
+    public DynamicSizeContentView(@Nullable TabView tabView, DynamicSizeTabOverlayTemplate template, SimpleTabOverlay contentHandle) {
         this.contentHandle = contentHandle;
+        this.frameScheduler = tabView != null ? tabView.getFrameScheduler() : null;
+        this.shrinkDelayMillis = (long) (template.getShrinkDelay() * 1000);
+        this.shrinkMargin = template.getShrinkMargin();
         this.content = new PlayersComponentView(template.getPlayerSet(),
                 template.getPlayerComponent(),
                 template.getPlayerComponent().getLayoutInfo().getMinSize(),
                 template.getMorePlayersComponent(),
                 template.getMorePlayersComponent().getLayoutInfo().getMinSize(),
-                IconTemplate.STEVE.instantiate(),
-                TextTemplate.EMPTY.instantiate(),
-                PingTemplate.ZERO.instantiate(),
+                IconTemplate.STEVE,
+                TextTemplate.EMPTY,
+                PingTemplate.ZERO,
                 template.getPlayerOrder());
     }
 
@@ -51,7 +68,8 @@ public class DynamicSizeContentView extends ComponentView {
     protected void onActivation() {
         content.activate(getContext(), this);
         if (!updateTabListSize()) {
-            this.updateArea(RectangularArea.of(contentHandle));
+            buffer = BufferedArea.of(contentHandle, getContext().getTabEventQueue(), frameScheduler);
+            this.updateArea(buffer);
         }
     }
 
@@ -68,12 +86,44 @@ public class DynamicSizeContentView extends ComponentView {
     }
 
     private boolean updateTabListSize() {
+        return updateTabListSize(false);
+    }
+
+    private boolean updateTabListSize(boolean shrinkNow) {
 
         int newSize = Integer.min(this.getPreferredSize(), contentHandle.getMaxSize());
 
+        if (!shrinkNow
+                && newSize < contentHandle.getSize()
+                && Integer.min(this.getPreferredSize() + shrinkMargin, contentHandle.getMaxSize()) >= contentHandle.getSize()) {
+            // the content only shrank by a few slots, wait before shrinking the tab list as it is likely to grow again
+            if (shrinkFuture == null || shrinkFuture.isDone()) {
+                shrinkFuture = getContext().getTabEventQueue().schedule(() -> updateTabListSize(true), shrinkDelayMillis, TimeUnit.MILLISECONDS);
+            }
+            return false;
+        }
+
+        if (shrinkFuture != null) {
+            shrinkFuture.cancel(false);
+            shrinkFuture = null;
+        }
+
         if (newSize != contentHandle.getSize()) {
+            int slotWidth = -1;
+            if (buffer != null) {
+                buffer.flush();
+                slotWidth = buffer.getSlotWidth();
+            }
             contentHandle.setSize(newSize);
-            this.updateArea(RectangularArea.of(contentHandle));
+            if (buffer != null && buffer.getSlotWidth() == slotWidth) {
+                // keep the buffer, the player components which did not move keep their areas and don't need to
+                // rewrite their slots
+                buffer.resize();
+            } else {
+                // the slot width changed, all components need a new layout
+                buffer = BufferedArea.of(contentHandle, getContext().getTabEventQueue(), frameScheduler);
+            }
+            this.updateArea(buffer);
             return true;
         }
         return false;
@@ -108,8 +158,16 @@ public class DynamicSizeContentView extends ComponentView {
     @Override
     protected void onDeactivation() {
         content.deactivate();
+        if (buffer != null) {
+            buffer.flush();
+            buffer = null;
+        }
         if (updateFuture != null) {
             updateFuture.cancel(false);
         }
+        if (shrinkFuture != null) {
+            shrinkFuture.cancel(false);
+            shrinkFuture = null;
+        }
     }
 }
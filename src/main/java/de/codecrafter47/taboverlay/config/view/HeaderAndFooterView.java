@@ -17,14 +17,17 @@
 
 package de.codecrafter47.taboverlay.config.view;
 
+import de.codecrafter47.taboverlay.FrameScheduler;
 import de.codecrafter47.taboverlay.config.context.Context;
 import de.codecrafter47.taboverlay.config.template.AbstractTabOverlayTemplate;
 import de.codecrafter47.taboverlay.config.template.text.TextTemplate;
+import de.codecrafter47.taboverlay.config.view.text.SharedTextView;
 import de.codecrafter47.taboverlay.config.view.text.TextView;
 import de.codecrafter47.taboverlay.config.view.text.TextViewAnimated;
 import de.codecrafter47.taboverlay.config.view.text.TextViewUpdateListener;
 import de.codecrafter47.taboverlay.handler.HeaderAndFooterHandle;
 
+import javax.annotation.Nullable;
 import java.util.List;
 
 class HeaderAndFooterView extends AbstractActiveElement<Void> implements TextViewUpdateListener {
@@ -32,9 +35,21 @@ class HeaderAndFooterView extends AbstractActiveElement<Void> implements TextVie
     private final TextView header;
     private final TextView footer;
     private final HeaderAndFooterHandle headerAndFooterHandle;
+    @Nullable
+    private final FrameScheduler frameScheduler;
+    private final Runnable frameTask = () -> {
+        if (isActive()) {
+            updateHeaderAndFooter();
+        }
+    };
 
     public HeaderAndFooterView(AbstractTabOverlayTemplate tabOverlayTemplate, HeaderAndFooterHandle headerAndFooterHandle) {
+        this(tabOverlayTemplate, headerAndFooterHandle, null);
+    }
+
+    public HeaderAndFooterView(AbstractTabOverlayTemplate tabOverlayTemplate, HeaderAndFooterHandle headerAndFooterHandle, @Nullable FrameScheduler frameScheduler) {
         this.headerAndFooterHandle = headerAndFooterHandle;
+        this.frameScheduler = frameScheduler;
         if (tabOverlayTemplate.getHeader() != null) {
             header = constructTextView(tabOverlayTemplate.getHeader(), tabOverlayTemplate.getHeaderAnimationUpdateInterval());
         } else {
@@ -77,7 +92,7 @@ class HeaderAndFooterView extends AbstractActiveElement<Void> implements TextVie
         if (templates == null || templates.isEmpty()) {
             return TextView.EMPTY;
         } else if (templates.size() == 1) {
-            return templates.get(0).instantiate();
+            return SharedTextView.of(templates.get(0));
         } else {
             return new TextViewAnimated(interval, templates);
         }
@@ -85,6 +100,10 @@ class HeaderAndFooterView extends AbstractActiveElement<Void> implements TextVie
 
     @Override
     public void onTextUpdated() {
-        updateHeaderAndFooter();
+        if (frameScheduler != null) {
+            frameScheduler.requestFrame(frameTask);
+        } else {
+            updateHeaderAndFooter();
+        }
     }
 }
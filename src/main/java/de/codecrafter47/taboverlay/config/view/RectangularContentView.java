@@ -17,25 +17,42 @@
 
 package de.codecrafter47.taboverlay.config.view;
 
+import de.codecrafter47.taboverlay.FrameScheduler;
 import de.codecrafter47.taboverlay.TabView;
-import de.codecrafter47.taboverlay.config.area.RectangularArea;
+import de.codecrafter47.taboverlay.config.area.BufferedArea;
 import de.codecrafter47.taboverlay.config.context.Context;
 import de.codecrafter47.taboverlay.config.template.RectangularTabOverlayTemplate;
 import de.codecrafter47.taboverlay.config.view.components.ComponentView;
 import de.codecrafter47.taboverlay.handler.RectangularTabOverlay;
 
+import javax.annotation.Nullable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 public class RectangularContentView extends ComponentView {
     private final ComponentView content;
     private final RectangularTabOverlay contentHandle;
+    @Nullable
+    private final FrameScheduler frameScheduler;
+    private BufferedArea buffer = null;
 
-    private List<RectangularTabOverlay.Dimension> possibleSizes = null;
+    // supported sizes, sorted by the number of slots
+    private final RectangularTabOverlay.Dimension[] sizeTable;
+    private final long shrinkDelayMillis;
+    private final int shrinkMargin;
+    private Future<?> shrinkFuture = null;
 
     public RectangularContentView(TabView tabView, RectangularTabOverlayTemplate template, RectangularTabOverlay contentHandle) {
         this.contentHandle = contentHandle;
+        this.frameScheduler = tabView.getFrameScheduler();
+        this.shrinkDelayMillis = (long) (template.getShrinkDelay() * 1000);
+        this.shrinkMargin = template.getShrinkMargin();
+        List<RectangularTabOverlay.Dimension> possibleSizes = null;
         if (template.getSize() != -1) {
             for (RectangularTabOverlay.Dimension dimension : contentHandle.getSupportedSizes()) {
                 if (dimension.getSize() == template.getSize()) {
@@ -55,6 +72,8 @@ public class RectangularContentView extends ComponentView {
                 }
             }
         }
+        this.sizeTable = possibleSizes.toArray(new RectangularTabOverlay.Dimension[0]);
+        Arrays.sort(this.sizeTable, Comparator.comparingInt(RectangularTabOverlay.Dimension::getSize));
         this.content = template.getContentRoot().instantiate();
     }
 
@@ -63,7 +82,8 @@ public class RectangularContentView extends ComponentView {
         content.activate(getContext(), this);
 
         if (!updateTabListSize()) {
-            this.updateArea(RectangularArea.of(contentHandle));
+            buffer = BufferedArea.of(contentHandle, getContext().getTabEventQueue(), frameScheduler);
+            this.updateArea(buffer);
         }
     }
 
@@ -72,25 +92,72 @@ public class RectangularContentView extends ComponentView {
         content.updateArea(getArea());
     }
 
+    /**
+     * Get the smallest supported size with at least the given number of slots.
+     *
+     * @param size the number of slots
+     * @return the smallest supported size with at least size slots, or the largest supported size if none is large enough
+     */
+    private RectangularTabOverlay.Dimension fit(int size) {
+        int low = 0;
+        int high = sizeTable.length - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sizeTable[mid].getSize() < size) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return sizeTable[low];
+    }
+
     private boolean updateTabListSize() {
+        return updateTabListSize(false);
+    }
 
-        RectangularTabOverlay.Dimension bestFit = contentHandle.getSize();
-        // todo make more efficient
-        for (RectangularTabOverlay.Dimension size : possibleSizes) {
-            if (size.getSize() < this.getPreferredSize() && size.getSize() > bestFit.getSize()) {
-                bestFit = size;
-            }
-            if (size.getSize() >= this.getPreferredSize() && bestFit.getSize() < this.getPreferredSize()) {
-                bestFit = size;
-            }
-            if (size.getSize() < bestFit.getSize() && size.getSize() >= this.getPreferredSize()) {
-                bestFit = size;
+    private boolean updateTabListSize(boolean shrinkNow) {
+        if (sizeTable.length == 0) {
+            return false;
+        }
+
+        int preferredSize = this.getPreferredSize();
+        RectangularTabOverlay.Dimension currentSize = contentHandle.getSize();
+        RectangularTabOverlay.Dimension bestFit = fit(preferredSize);
+        if (currentSize.getSize() >= preferredSize
+                ? bestFit.getSize() < preferredSize || bestFit.getSize() >= currentSize.getSize()
+                : bestFit.getSize() <= currentSize.getSize()) {
+            // stay on the current size unless a smaller size fits as well or a larger size fits better, so we never
+            // switch between sizes with the same number of slots
+            bestFit = currentSize;
+        }
+
+        // The hysteresis only applies if the tab list shrinks within the sizes of this view. A current size with
+        // another number of columns has been set by a different tab overlay, keeping it would display the content
+        // in the wrong columns until the shrink delay is over.
+        if (!shrinkNow
+                && bestFit.getSize() < currentSize.getSize()
+                && bestFit.getColumns() == currentSize.getColumns()
+                && fit(preferredSize + shrinkMargin).getSize() >= currentSize.getSize()) {
+            // the content only shrank by a few slots, wait before shrinking the tab list as it is likely to grow again
+            if (shrinkFuture == null || shrinkFuture.isDone()) {
+                shrinkFuture = getContext().getTabEventQueue().schedule(() -> updateTabListSize(true), shrinkDelayMillis, TimeUnit.MILLISECONDS);
             }
+            return false;
+        }
+
+        if (shrinkFuture != null) {
+            shrinkFuture.cancel(false);
+            shrinkFuture = null;
         }
 
-        if (bestFit != contentHandle.getSize()) {
+        if (bestFit != currentSize) {
+            if (buffer != null) {
+                buffer.flush();
+            }
             contentHandle.setSize(bestFit);
-            this.updateArea(RectangularArea.of(contentHandle));
+            buffer = BufferedArea.of(contentHandle, getContext().getTabEventQueue(), frameScheduler);
+            this.updateArea(buffer);
             return true;
         }
         return false;
@@ -126,5 +193,13 @@ public class RectangularContentView extends ComponentView {
     @Override
     protected void onDeactivation() {
         content.deactivate();
+        if (shrinkFuture != null) {
+            shrinkFuture.cancel(false);
+            shrinkFuture = null;
+        }
+        if (buffer != null) {
+            buffer.flush();
+            buffer = null;
+        }
     }
 }
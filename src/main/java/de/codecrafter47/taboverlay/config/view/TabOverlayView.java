@@ -31,7 +31,7 @@ public class TabOverlayView {
     public static TabOverlayView create(TabView tabView, TabOverlayHandler handler, Context context, AbstractTabOverlayTemplate template) {
         AbstractActiveElement<?> headerFooterView;
         if (template.showHeaderAndFooter()) {
-            headerFooterView = new HeaderAndFooterView(template, handler.enterHeaderAndFooterOperationMode(HeaderAndFooterOperationMode.CUSTOM));
+            headerFooterView = new HeaderAndFooterView(template, handler.enterHeaderAndFooterOperationMode(HeaderAndFooterOperationMode.CUSTOM), tabView.getFrameScheduler());
         } else {
             handler.enterHeaderAndFooterOperationMode(HeaderAndFooterOperationMode.PASS_TROUGH);
             headerFooterView = null;
@@ -20,6 +20,7 @@ package de.codecrafter47.taboverlay.config.view.components;
 import de.codecrafter47.taboverlay.config.area.Area;
 import de.codecrafter47.taboverlay.config.dsl.components.BasicComponentConfiguration;
 import de.codecrafter47.taboverlay.config.misc.ChatFormat;
+import de.codecrafter47.taboverlay.config.misc.FormattedText;
 import de.codecrafter47.taboverlay.config.player.Player;
 import de.codecrafter47.taboverlay.config.view.icon.IconView;
 import de.codecrafter47.taboverlay.config.view.icon.IconViewUpdateListener;
@@ -44,6 +45,10 @@ public final class BasicComponentView extends ComponentView implements TextViewU
     private UUID uuid;
     @Nullable
     private String textAfterAlignment;
+    // parsed texts of the text views, only parsed again if the text changes
+    private FormattedText leftText = FormattedText.EMPTY;
+    private FormattedText centerText = FormattedText.EMPTY;
+    private FormattedText rightText = FormattedText.EMPTY;
 
     public BasicComponentView(TextView leftTextView, TextView centerTextView, TextView rightTextView, PingView pingView, IconView iconView, BasicComponentConfiguration.LongTextBehaviour longText) {
         this.leftTextView = leftTextView;
@@ -76,27 +81,39 @@ public final class BasicComponentView extends ComponentView implements TextViewU
         }
     }
 
+    private static FormattedText parse(@Nullable TextView textView, FormattedText previous) {
+        if (textView == null) {
+            return FormattedText.EMPTY;
+        }
+        String text = textView.getText();
+        return text.equals(previous.getText()) ? previous : FormattedText.parse(text);
+    }
+
     private void updateText() {
 
-        String leftText = leftTextView != null ? leftTextView.getText() : "";
+        leftText = parse(leftTextView, leftText);
+        centerText = parse(centerTextView, centerText);
+        rightText = parse(rightTextView, rightText);
+
+        String text = leftText.getText();
 
         if (centerTextView != null || rightTextView != null || longText != BasicComponentConfiguration.LongTextBehaviour.DISPLAY_ALL) {
 
-            float leftTextLength = ChatFormat.formattedTextLength(leftText);
+            float textLength = leftText.getWidth();
 
             if (centerTextView != null) {
 
-                String centerText = centerTextView.getText();
-                float centerTextLength = ChatFormat.formattedTextLength(centerText);
+                float centerTextLength = centerText.getWidth();
 
-                leftText = leftText + ChatFormat.createSpaces(Math.max(4f, slotWidth / 2f - leftTextLength - centerTextLength / 2f)) + centerText;
-                leftTextLength = ChatFormat.formattedTextLength(leftText);
+                // the spaces reset all formatting, so the widths add up
+                String spaces = ChatFormat.createSpaces(Math.max(4f, slotWidth / 2f - textLength - centerTextLength / 2f));
+                text = text + spaces + centerText.getText();
+                textLength = textLength + ChatFormat.formattedTextLength(spaces) + centerTextLength;
             }
 
-            String rightText = rightTextView != null ? rightTextView.getText() : "";
-            float rightTextLength = ChatFormat.formattedTextLength(rightText);
+            float rightTextLength = rightText.getWidth();
 
-            float totalTextLength = leftTextLength + (rightTextView != null ? 4f : 0f) + rightTextLength;
+            float totalTextLength = textLength + (rightTextView != null ? 4f : 0f) + rightTextLength;
 
             if (longText != BasicComponentConfiguration.LongTextBehaviour.DISPLAY_ALL && totalTextLength > slotWidth) {
                 String suffix = "";
@@ -106,18 +123,23 @@ public final class BasicComponentView extends ComponentView implements TextViewU
                     suffix = "...";
                 }
                 float suffixLength = ChatFormat.formattedTextLength(suffix);
-                leftText = ChatFormat.cropFormattedText(leftText, slotWidth - ((rightTextView != null ? 4f : 0f) + rightTextLength) - suffixLength) + suffix;
-                leftTextLength = ChatFormat.formattedTextLength(leftText);
+                float maxLength = slotWidth - ((rightTextView != null ? 4f : 0f) + rightTextLength) - suffixLength;
+                if (centerTextView == null) {
+                    text = leftText.crop(maxLength).getText() + suffix;
+                } else {
+                    text = ChatFormat.cropFormattedText(text, maxLength) + suffix;
+                }
+                textLength = ChatFormat.formattedTextLength(text);
             }
 
             if (rightTextView != null) {
-                leftText = leftText + ChatFormat.createSpacesExact(Math.max(4f, slotWidth - rightTextLength - leftTextLength)) + rightText;
+                text = text + ChatFormat.createSpacesExact(Math.max(4f, slotWidth - rightTextLength - textLength)) + rightText.getText();
             } else if (centerTextView != null) {
-                leftText = leftText + ChatFormat.createSpaces(slotWidth - leftTextLength);
+                text = text + ChatFormat.createSpaces(slotWidth - textLength);
             }
         }
 
-        textAfterAlignment = leftText;
+        textAfterAlignment = text;
     }
 
     @Override
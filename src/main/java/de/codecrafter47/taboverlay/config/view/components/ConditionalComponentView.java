@@ -48,7 +48,7 @@ public final class ConditionalComponentView extends ComponentView implements Exp
         condition.activate(getContext(), this);
         boolean result = condition.evaluate();
         if (activeReplacement != null) {
-            activeReplacement.deactivate();
+            releaseActiveReplacement();
         }
         if (result) {
             activeReplacement = trueReplacement.instantiate();
@@ -75,7 +75,7 @@ public final class ConditionalComponentView extends ComponentView implements Exp
         boolean result = condition.evaluate();
         if (previousResult != result) {
             if (activeReplacement != null) {
-                activeReplacement.deactivate();
+                releaseActiveReplacement();
             }
             if (result) {
                 activeReplacement = trueReplacement.instantiate();
@@ -89,6 +89,12 @@ public final class ConditionalComponentView extends ComponentView implements Exp
         updateLayout();
     }
 
+    private void releaseActiveReplacement() {
+        activeReplacement.deactivate();
+        (previousResult ? trueReplacement : falseReplacement).release(activeReplacement);
+        activeReplacement = null;
+    }
+
     private void updateLayout() {
         int minSize = activeReplacement.getMinSize();
         int preferredSize = activeReplacement.getPreferredSize();
@@ -147,7 +153,9 @@ public final class ConditionalComponentView extends ComponentView implements Exp
     @Override
     protected void onDeactivation() {
         condition.deactivate();
-        activeReplacement.deactivate();
+        if (activeReplacement != null) {
+            releaseActiveReplacement();
+        }
         if (updateFuture != null) {
             updateFuture.cancel(false);
         }
@@ -18,51 +18,59 @@
 package de.codecrafter47.taboverlay.config.view.components;
 
 import de.codecrafter47.taboverlay.Icon;
+import de.codecrafter47.taboverlay.config.context.ContextKeys;
+import de.codecrafter47.taboverlay.config.template.icon.IconTemplate;
+import de.codecrafter47.taboverlay.config.template.ping.PingTemplate;
+import de.codecrafter47.taboverlay.config.template.text.TextTemplate;
 import de.codecrafter47.taboverlay.config.view.AbstractActiveElement;
 import de.codecrafter47.taboverlay.config.view.ActiveElement;
-import de.codecrafter47.taboverlay.config.view.icon.IconView;
 import de.codecrafter47.taboverlay.config.view.icon.IconViewUpdateListener;
-import de.codecrafter47.taboverlay.config.view.ping.PingView;
 import de.codecrafter47.taboverlay.config.view.ping.PingViewUpdateListener;
-import de.codecrafter47.taboverlay.config.view.text.TextView;
 import de.codecrafter47.taboverlay.config.view.text.TextViewUpdateListener;
 
+/**
+ * Provides the text, ping and icon of the default slot to a component. The views are shared with all other
+ * components using the same templates in the same context, see {@link DefaultSlotRegistry}.
+ */
 class DefaultSlotHandler extends AbstractActiveElement<DefaultSlotHandler.Listener> implements ActiveElement, TextViewUpdateListener, PingViewUpdateListener, IconViewUpdateListener {
 
-    private final TextView defaultTextView;
-    private final PingView defaultPingView;
-    private final IconView defaultIconView;
+    private final TextTemplate defaultTextTemplate;
+    private final PingTemplate defaultPingTemplate;
+    private final IconTemplate defaultIconTemplate;
+    private DefaultSlotRegistry.SharedDefaultSlot shared;
 
-    DefaultSlotHandler(TextView defaultTextView, PingView defaultPingView, IconView defaultIconView) {
-        this.defaultTextView = defaultTextView;
-        this.defaultPingView = defaultPingView;
-        this.defaultIconView = defaultIconView;
+    DefaultSlotHandler(TextTemplate defaultTextTemplate, PingTemplate defaultPingTemplate, IconTemplate defaultIconTemplate) {
+        this.defaultTextTemplate = defaultTextTemplate;
+        this.defaultPingTemplate = defaultPingTemplate;
+        this.defaultIconTemplate = defaultIconTemplate;
     }
 
     @Override
     protected void onActivation() {
-        defaultTextView.activate(getContext(), this);
-        defaultPingView.activate(getContext(), this);
-        defaultIconView.activate(getContext(), this);
+        DefaultSlotRegistry registry = getContext().getCustomObject(ContextKeys.DEFAULT_SLOT_REGISTRY);
+        if (registry == null) {
+            // nothing to share with
+            registry = new DefaultSlotRegistry();
+        }
+        shared = registry.acquire(getContext(), defaultTextTemplate, defaultPingTemplate, defaultIconTemplate, this);
     }
 
     @Override
     protected void onDeactivation() {
-        defaultTextView.deactivate();
-        defaultPingView.deactivate();
-        defaultIconView.deactivate();
+        shared.release(this);
+        shared = null;
     }
 
     String getText() {
-        return defaultTextView.getText();
+        return shared.getTextView().getText();
     }
 
     int getPing() {
-        return defaultPingView.getPing();
+        return shared.getPingView().getPing();
     }
 
     Icon getIcon() {
-        return defaultIconView.getIcon();
+        return shared.getIconView().getIcon();
     }
 
     @Override
@@ -0,0 +1,148 @@
+/*
+ *     Copyright (C) 2020 Florian Stober
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package de.codecrafter47.taboverlay.config.view.components;
+
+import de.codecrafter47.taboverlay.config.context.Context;
+import de.codecrafter47.taboverlay.config.template.icon.IconTemplate;
+import de.codecrafter47.taboverlay.config.template.ping.PingTemplate;
+import de.codecrafter47.taboverlay.config.template.text.TextTemplate;
+import de.codecrafter47.taboverlay.config.view.icon.IconView;
+import de.codecrafter47.taboverlay.config.view.icon.IconViewUpdateListener;
+import de.codecrafter47.taboverlay.config.view.ping.PingView;
+import de.codecrafter47.taboverlay.config.view.ping.PingViewUpdateListener;
+import de.codecrafter47.taboverlay.config.view.text.TextView;
+import de.codecrafter47.taboverlay.config.view.text.TextViewUpdateListener;
+import lombok.Value;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Shares the views of the default slot between all components which use the same default slot
+ * templates in the same context.
+ * <p>
+ * Shared views are reference counted by the {@link DefaultSlotHandler}s using them and deactivated together with
+ * the last one. Must only be used from the tab event queue.
+ * <p>
+ * {@link Context} has no value equality, so views are only shared between handlers activated with the same context
+ * instance. Components which clone the context for their children, e.g. for each player or section, don't share the
+ * default slot with their parent.
+ */
+public final class DefaultSlotRegistry {
+
+    private final Map<Key, SharedDefaultSlot> instances = new HashMap<>();
+
+    SharedDefaultSlot acquire(Context context, TextTemplate textTemplate, PingTemplate pingTemplate, IconTemplate iconTemplate, DefaultSlotHandler handler) {
+        Key key = new Key(textTemplate, pingTemplate, iconTemplate, context);
+        SharedDefaultSlot instance = instances.get(key);
+        if (instance == null) {
+            instance = new SharedDefaultSlot(key);
+            instances.put(key, instance);
+            instance.activate();
+        }
+        instance.handlers.add(handler);
+        return instance;
+    }
+
+    /**
+     * Compares the context by identity.
+     */
+    @Value
+    private static class Key {
+        TextTemplate textTemplate;
+        PingTemplate pingTemplate;
+        IconTemplate iconTemplate;
+        Context context;
+    }
+
+    final class SharedDefaultSlot implements TextViewUpdateListener, PingViewUpdateListener, IconViewUpdateListener {
+        private final Key key;
+        private final TextView textView;
+        private final PingView pingView;
+        private final IconView iconView;
+        private final Set<DefaultSlotHandler> handlers = new LinkedHashSet<>();
+
+        private SharedDefaultSlot(Key key) {
+            this.key = key;
+            this.textView = key.getTextTemplate().instantiate();
+            this.pingView = key.getPingTemplate().instantiate();
+            this.iconView = key.getIconTemplate().instantiate();
+        }
+
+        private void activate() {
+            textView.activate(key.getContext(), this);
+            pingView.activate(key.getContext(), this);
+            iconView.activate(key.getContext(), this);
+        }
+
+        void release(DefaultSlotHandler handler) {
+            handlers.remove(handler);
+            if (handlers.isEmpty()) {
+                instances.remove(key);
+                textView.deactivate();
+                pingView.deactivate();
+                iconView.deactivate();
+            }
+        }
+
+        TextView getTextView() {
+            return textView;
+        }
+
+        PingView getPingView() {
+            return pingView;
+        }
+
+        IconView getIconView() {
+            return iconView;
+        }
+
+        @Override
+        public void onTextUpdated() {
+            // handlers may be released while being notified
+            for (DefaultSlotHandler handler : handlers.toArray(new DefaultSlotHandler[0])) {
+                if (handlers.contains(handler)) {
+                    handler.onTextUpdated();
+                }
+            }
+        }
+
+        @Override
+        public void onPingUpdated() {
+            // handlers may be released while being notified
+            for (DefaultSlotHandler handler : handlers.toArray(new DefaultSlotHandler[0])) {
+                if (handlers.contains(handler)) {
+                    handler.onPingUpdated();
+                }
+            }
+        }
+
+        @Override
+        public void onIconUpdated() {
+            // handlers may be released while being notified
+            for (DefaultSlotHandler handler : handlers.toArray(new DefaultSlotHandler[0])) {
+                if (handlers.contains(handler)) {
+                    handler.onIconUpdated();
+                }
+            }
+        }
+    }
+}
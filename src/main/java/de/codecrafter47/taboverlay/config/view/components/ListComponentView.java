@@ -19,65 +19,103 @@ package de.codecrafter47.taboverlay.config.view.components;
 
 import de.codecrafter47.taboverlay.config.area.Area;
 import de.codecrafter47.taboverlay.config.area.RectangularArea;
-import de.codecrafter47.taboverlay.config.view.icon.IconView;
-import de.codecrafter47.taboverlay.config.view.icon.IconViewUpdateListener;
-import de.codecrafter47.taboverlay.config.view.ping.PingView;
-import de.codecrafter47.taboverlay.config.view.ping.PingViewUpdateListener;
-import de.codecrafter47.taboverlay.config.view.text.TextView;
-import de.codecrafter47.taboverlay.config.view.text.TextViewUpdateListener;
+import de.codecrafter47.taboverlay.config.template.icon.IconTemplate;
+import de.codecrafter47.taboverlay.config.template.ping.PingTemplate;
+import de.codecrafter47.taboverlay.config.template.text.TextTemplate;
 
+import javax.annotation.Nullable;
+import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.Future;
 
-public class ListComponentView extends ComponentView implements TextViewUpdateListener, PingViewUpdateListener, IconViewUpdateListener {
+public class ListComponentView extends ComponentView implements DefaultSlotHandler.Listener {
 
     protected final List<ComponentView> components;
     protected final int columns;
-    private final TextView defaultTextView;
-    private final PingView defaultPingView;
-    private final IconView defaultIconView;
+    private final DefaultSlotHandler defaultSlotHandler;
     protected int minSize, preferredSize, maxSize;
     private boolean blockAligned;
     private Future<?> updateFuture = null;
     private int[] sectionSize;
 
-    public ListComponentView(List<ComponentView> components, int columns, TextView defaultTextView, PingView defaultPingView, IconView defaultIconView) {
+    // cached size requirements of the children and the accumulated sizes in front of each child
+    private int[] childMinSize, childPreferredSize, childMaxSize;
+    private int[] minSizeOffset, preferredSizeOffset, maxSizeOffset;
+    private int firstChangedRequirement = 0;
+
+    // placement of the children from the last layout pass
+    private int[] sectionOffset;
+    private int[] childPosition, childSize;
+    private boolean[] childPlaced;
+    private boolean[] childRequestedLayout;
+    @Nullable
+    private Area layoutArea = null;
+
+    public ListComponentView(List<ComponentView> components, int columns, TextTemplate defaultTextTemplate, PingTemplate defaultPingTemplate, IconTemplate defaultIconTemplate) {
         this.components = components;
         this.columns = columns;
-        this.defaultTextView = defaultTextView;
-        this.defaultPingView = defaultPingView;
-        this.defaultIconView = defaultIconView;
-        this.sectionSize = new int[this.components.size()];
+        this.defaultSlotHandler = new DefaultSlotHandler(defaultTextTemplate, defaultPingTemplate, defaultIconTemplate);
+        allocateLayoutCache();
+    }
+
+    private void allocateLayoutCache() {
+        int n = this.components.size();
+        this.sectionSize = new int[n];
+        this.childMinSize = new int[n];
+        this.childPreferredSize = new int[n];
+        this.childMaxSize = new int[n];
+        this.minSizeOffset = new int[n + 1];
+        this.preferredSizeOffset = new int[n + 1];
+        this.maxSizeOffset = new int[n + 1];
+        this.sectionOffset = new int[n + 1];
+        this.childPosition = new int[n];
+        this.childSize = new int[n];
+        this.childPlaced = new boolean[n];
+        this.childRequestedLayout = new boolean[n];
+    }
+
+    /**
+     * Subclasses may add or remove children. In that case all cached layout information is discarded.
+     */
+    private void checkLayoutCache() {
+        if (sectionSize.length != components.size()) {
+            allocateLayoutCache();
+            firstChangedRequirement = 0;
+            layoutArea = null;
+        }
     }
 
     @Override
     protected void onActivation() {
         super.onActivation();
 
-        defaultIconView.activate(getContext(), this);
-        defaultTextView.activate(getContext(), this);
-        defaultPingView.activate(getContext(), this);
+        defaultSlotHandler.activate(getContext(), this);
 
         for (int i = 0; i < components.size(); i++) {
             ComponentView component = components.get(i);
             component.activate(getContext(), this);
         }
 
+        firstChangedRequirement = 0;
         updateLayoutRequirements(false);
     }
 
     private void update() {
         updateLayoutRequirements(true);
         if (getArea() != null) {
-            updateLayout();
+            updateLayout(!getArea().equals(layoutArea));
         }
     }
 
     @Override
     protected void onAreaUpdated() {
-        if (getArea() != null) {
-            updateLayout();
+        Area area = getArea();
+        if (area != null) {
+            // our parent passes an equal area after a layout update we requested ourselves, in that case
+            // only the children which changed need to be updated
+            updateLayout(!area.equals(layoutArea));
         } else {
+            layoutArea = null;
             for (ComponentView component : components) {
                 component.updateArea(null);
             }
@@ -86,6 +124,15 @@ public class ListComponentView extends ComponentView implements TextViewUpdateLi
 
     @Override
     protected void requestLayoutUpdate(ComponentView source) {
+        checkLayoutCache();
+        int index = components.indexOf(source);
+        if (index >= 0) {
+            childRequestedLayout[index] = true;
+            firstChangedRequirement = Integer.min(firstChangedRequirement, index);
+        } else {
+            firstChangedRequirement = 0;
+            layoutArea = null;
+        }
         if (updateFuture == null || updateFuture.isDone()) {
             updateFuture = getContext().getTabEventQueue().submit(this::update);
         }
@@ -113,9 +160,7 @@ public class ListComponentView extends ComponentView implements TextViewUpdateLi
 
     @Override
     protected void onDeactivation() {
-        defaultIconView.deactivate();
-        defaultTextView.deactivate();
-        defaultPingView.deactivate();
+        defaultSlotHandler.deactivate();
 
         for (int i = 0; i < components.size(); i++) {
             ComponentView component = components.get(i);
@@ -124,39 +169,31 @@ public class ListComponentView extends ComponentView implements TextViewUpdateLi
         if (updateFuture != null) {
             updateFuture.cancel(false);
         }
+        layoutArea = null;
+        firstChangedRequirement = 0;
+        Arrays.fill(childRequestedLayout, false);
         super.onDeactivation();
     }
 
     protected void updateLayoutRequirements(boolean notify) {
-        int minSize = 0;
-        for (int i = 0; i < components.size(); i++) {
+        checkLayoutCache();
+        int from = firstChangedRequirement;
+        firstChangedRequirement = components.size();
+        for (int i = from; i < components.size(); i++) {
             ComponentView component = components.get(i);
-            if (component.isBlockAligned()) {
-                minSize = ((minSize + columns - 1) / columns) * columns;
-            }
-            minSize += component.getMinSize();
-        }
-        int preferredSize = 0;
-        for (int i = 0; i < components.size(); i++) {
-            ComponentView component = components.get(i);
-            if (component.isBlockAligned()) {
-                preferredSize = ((preferredSize + columns - 1) / columns) * columns;
-            }
-            preferredSize += component.getPreferredSize();
-        }
-        int maxSize = 0;
-        for (int i = 0; i < components.size(); i++) {
-            ComponentView component = components.get(i);
-            if (component.isBlockAligned()) {
-                maxSize = ((maxSize + columns - 1) / columns) * columns;
-            }
-            maxSize += component.getMaxSize();
+            childMinSize[i] = component.getMinSize();
+            childPreferredSize[i] = component.getPreferredSize();
+            childMaxSize[i] = component.getMaxSize();
         }
+        int minSize = accumulateSectionSizes(childMinSize, minSizeOffset, from);
+        int preferredSize = accumulateSectionSizes(childPreferredSize, preferredSizeOffset, from);
+        int maxSize = accumulateSectionSizes(childMaxSize, maxSizeOffset, from);
         boolean blockAligned = false;
         for (int i = 0; i < components.size(); i++) {
             ComponentView component = components.get(i);
             if (component.isBlockAligned()) {
                 blockAligned = true;
+                break;
             }
         }
 
@@ -174,22 +211,37 @@ public class ListComponentView extends ComponentView implements TextViewUpdateLi
         }
     }
 
-    private void updateLayout() {
-        this.sectionSize = new int[this.components.size()];
+    /**
+     * Accumulates the given section sizes, taking block alignment into account. Only the offsets starting from
+     * section {@code from} are recomputed, the offsets in front of it are taken from the cache.
+     *
+     * @param sizes   the size of each section
+     * @param offsets the accumulated size in front of each section, updated by this method
+     * @param from    the first section whose size changed
+     * @return the total size of all sections
+     */
+    private int accumulateSectionSizes(int[] sizes, int[] offsets, int from) {
+        int pos = offsets[from];
+        for (int i = from; i < components.size(); i++) {
+            if (components.get(i).isBlockAligned()) {
+                pos = ((pos + columns - 1) / columns) * columns;
+            }
+            pos += sizes[i];
+            offsets[i + 1] = pos;
+        }
+        return pos;
+    }
+
+    private void updateLayout(boolean force) {
+        checkLayoutCache();
+        force |= layoutArea == null;
         for (int i = 0; i < components.size(); i++) {
             sectionSize[i] = getInitialSizeEstimate(components.get(i));
         }
 
         RectangularArea area = getArea().asRectangularArea();
 
-        int sizeNeeded = 0;
-        for (int i = 0; i < components.size(); i++) {
-            ComponentView component = components.get(i);
-            if (component.isBlockAligned()) {
-                sizeNeeded = ((sizeNeeded + columns - 1) / columns) * columns;
-            }
-            sizeNeeded += sectionSize[i];
-        }
+        accumulateSectionSizes(sectionSize, sectionOffset, 0);
 
         boolean repeat;
         boolean max = false;
@@ -204,19 +256,13 @@ public class ListComponentView extends ComponentView implements TextViewUpdateLi
                 }
                 sectionSize[i] += component.isBlockAligned() ? columns : 1;
 
-                sizeNeeded = 0;
-                for (int j = 0; j < components.size(); j++) {
-                    ComponentView component1 = components.get(j);
-                    if (component1.isBlockAligned()) {
-                        sizeNeeded = ((sizeNeeded + columns - 1) / columns) * columns;
-                    }
-                    sizeNeeded += sectionSize[j];
-                }
+                int sizeNeeded = accumulateSectionSizes(sectionSize, sectionOffset, i);
 
                 if (sizeNeeded <= area.getSize()) {
                     repeat = true;
                 } else {
                     sectionSize[i] = oldSectionSize;
+                    accumulateSectionSizes(sectionSize, sectionOffset, i);
                 }
             }
 
@@ -226,34 +272,65 @@ public class ListComponentView extends ComponentView implements TextViewUpdateLi
             }
         } while (repeat);
 
+        int firstChangedPosition = force ? 0 : Integer.MAX_VALUE;
         int pos = 0;
         for (int i = 0; i < components.size(); i++) {
             ComponentView component = components.get(i);
             if (component.isBlockAligned()) {
-                int posNext = ((pos + columns - 1) / columns) * columns;
-                setSlotsToDefault(pos, posNext);
-                pos = posNext;
-                if (pos < area.getSize() && pos + sectionSize[i] <= area.getSize()) {
+                pos = ((pos + columns - 1) / columns) * columns;
+            }
+            boolean placed;
+            if (pos < area.getSize() && pos + sectionSize[i] <= area.getSize()) {
+                placed = true;
+            } else if (pos < area.getSize() && pos + component.getMinSize() <= area.getSize()) {
+                sectionSize[i] = area.getSize() - pos;
+                placed = true;
+            } else {
+                sectionSize[i] = 0;
+                placed = false;
+            }
+
+            boolean moved = placed != childPlaced[i]
+                    || (placed && (pos != childPosition[i] || sectionSize[i] != childSize[i]));
+            if (moved && childPlaced[i]) {
+                firstChangedPosition = Integer.min(firstChangedPosition, childPosition[i]);
+            }
+            if (moved && placed) {
+                firstChangedPosition = Integer.min(firstChangedPosition, pos);
+            }
+            childPlaced[i] = placed;
+            childPosition[i] = pos;
+            childSize[i] = sectionSize[i];
+
+            if (force || moved || childRequestedLayout[i]) {
+                childRequestedLayout[i] = false;
+                if (!placed) {
+                    component.updateArea(null);
+                } else if (component.isBlockAligned()) {
                     component.updateArea(area.createRectangularChild(0, pos / columns, area.getColumns(), sectionSize[i] / columns));
-                } else if (pos < area.getSize() && pos + component.getMinSize() <= area.getSize()) {
-                    component.updateArea(area.createRectangularChild(0, pos / columns, area.getColumns(), (sectionSize[i] = area.getSize() - pos) / columns));
                 } else {
-                    sectionSize[i] = 0;
-                    component.updateArea(null);
-                }
-            } else {
-                if (pos < area.getSize() && pos + sectionSize[i] <= area.getSize()) {
                     component.updateArea(area.createChild(pos, sectionSize[i]));
-                } else if (pos < area.getSize() && pos + component.getMinSize() <= area.getSize()) {
-                    component.updateArea(area.createChild(pos, sectionSize[i] = area.getSize() - pos));
-                } else {
-                    sectionSize[i] = 0;
-                    component.updateArea(null);
                 }
             }
             pos += sectionSize[i];
         }
-        setSlotsToDefault(pos, area.getSize());
+        layoutArea = getArea();
+
+        // slots in gaps in front of the first moved child still show the default slot
+        if (firstChangedPosition != Integer.MAX_VALUE) {
+            pos = 0;
+            for (int i = 0; i < components.size(); i++) {
+                if (components.get(i).isBlockAligned()) {
+                    int posNext = ((pos + columns - 1) / columns) * columns;
+                    if (posNext > firstChangedPosition) {
+                        setSlotsToDefault(Integer.max(pos, firstChangedPosition), posNext);
+                    }
+                    pos = posNext;
+                }
+                pos += sectionSize[i];
+            }
+            setSlotsToDefault(Integer.max(pos, firstChangedPosition), area.getSize());
+        }
     }
 
     protected int getInitialSizeEstimate(ComponentView componentView) {
@@ -283,22 +360,22 @@ public class ListComponentView extends ComponentView implements TextViewUpdateLi
 
     private void setSlotsToDefault(int start, int end) {
         for (int i = start; i < end; i++) {
-            getArea().setSlot(i, defaultIconView.getIcon(), defaultTextView.getText(), defaultPingView.getPing());
+            getArea().setSlot(i, defaultSlotHandler.getIcon(), defaultSlotHandler.getText(), defaultSlotHandler.getPing());
         }
     }
 
     @Override
-    public void onIconUpdated() {
+    public void onDefaultSlotIconUpdated() {
         updateDefaultSlots();
     }
 
     @Override
-    public void onPingUpdated() {
+    public void onDefaultSlotPingUpdated() {
         updateDefaultSlots();
     }
 
     @Override
-    public void onTextUpdated() {
+    public void onDefaultSlotTextUpdated() {
         updateDefaultSlots();
     }
 }
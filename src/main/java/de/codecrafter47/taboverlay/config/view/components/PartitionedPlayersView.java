@@ -55,7 +55,7 @@ public class PartitionedPlayersView extends ListComponentView implements PlayerS
     protected final Map<String, ComponentView> sectionMap = new HashMap<>();
 
     public PartitionedPlayersView(int columns, PlayerSetTemplate playerSetTemplate, ComponentTemplate playerComponentTemplate, int playerComponentSize, ComponentTemplate morePlayerComponentTemplate, int morePlayerComponentSize, PlayerOrderTemplate playerOrderTemplate, TextTemplate defaultTextTemplate, PingTemplate defaultPingTemplate, IconTemplate defaultIconTemplate, ExpressionTemplate partitionFunction, ComponentTemplate sectionHeader, ComponentTemplate sectionFooter, ComponentTemplate sectionSeparator, int minSizePerSection, int maxSizePerSection, SectionContextFactory sectionContextFactory) {
-        super(new ArrayList<>(), columns, defaultTextTemplate.instantiate(), defaultPingTemplate.instantiate(), defaultIconTemplate.instantiate());
+        super(new ArrayList<>(), columns, defaultTextTemplate, defaultPingTemplate, defaultIconTemplate);
         this.playerSetTemplate = playerSetTemplate;
         this.playerComponentTemplate = playerComponentTemplate;
         this.playerComponentSize = playerComponentSize;
@@ -148,11 +148,11 @@ public class PartitionedPlayersView extends ListComponentView implements PlayerS
         if (sectionHeader != null) {
             components.add(sectionHeader.instantiate());
         }
-        components.add(new PlayersComponentView(playerSet.getOrderedPlayerSet(sectionContext, playerOrderTemplate), playerComponentTemplate, playerComponentSize, morePlayerComponentTemplate, morePlayerComponentSize, defaultIconTemplate.instantiate(), defaultTextTemplate.instantiate(), defaultPingTemplate.instantiate()));
+        components.add(new PlayersComponentView(playerSet.getOrderedPlayerSet(sectionContext, playerOrderTemplate), playerComponentTemplate, playerComponentSize, morePlayerComponentTemplate, morePlayerComponentSize, defaultIconTemplate, defaultTextTemplate, defaultPingTemplate));
         if (sectionFooter != null) {
             components.add(sectionFooter.instantiate());
         }
-        return new ContainerComponentView(new ListComponentView(components, super.columns, defaultTextTemplate.instantiate(), defaultPingTemplate.instantiate(), defaultIconTemplate.instantiate()), false, minSizePerSection, maxSizePerSection, super.columns, true);
+        return new ContainerComponentView(new ListComponentView(components, super.columns, defaultTextTemplate, defaultPingTemplate, defaultIconTemplate), false, minSizePerSection, maxSizePerSection, super.columns, true);
     }
 
     public interface SectionContextFactory {
@@ -25,12 +25,14 @@ import de.codecrafter47.taboverlay.config.player.Player;
 import de.codecrafter47.taboverlay.config.template.PlayerOrderTemplate;
 import de.codecrafter47.taboverlay.config.template.PlayerSetTemplate;
 import de.codecrafter47.taboverlay.config.template.component.ComponentTemplate;
-import de.codecrafter47.taboverlay.config.view.icon.IconView;
-import de.codecrafter47.taboverlay.config.view.ping.PingView;
-import de.codecrafter47.taboverlay.config.view.text.TextView;
+import de.codecrafter47.taboverlay.config.template.icon.IconTemplate;
+import de.codecrafter47.taboverlay.config.template.ping.PingTemplate;
+import de.codecrafter47.taboverlay.config.template.text.TextTemplate;
 
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 
 public final class PlayersComponentView extends ComponentView implements OrderedPlayerSet.Listener, DefaultSlotHandler.Listener {
 
@@ -46,18 +48,21 @@ public final class PlayersComponentView extends ComponentView implements Ordered
     private List<ComponentView> activePlayerComponents = new ArrayList<>();
     private ComponentView morePlayersComponent;
     private int firstDefaultSlot;
+    // area in which the slots from firstDefaultSlot up to defaultSlotAreaSize show the default slot
+    private Area defaultSlotArea;
+    private int defaultSlotAreaSize;
 
-    public PlayersComponentView(PlayerSetTemplate playerSetTemplate, ComponentTemplate playerComponentTemplate, int playerComponentSize, ComponentTemplate morePlayerComponentTemplate, int morePlayerComponentSize, IconView defaultIconView, TextView defaultTextView, PingView defaultPingView, PlayerOrderTemplate playerOrderTemplate) {
+    public PlayersComponentView(PlayerSetTemplate playerSetTemplate, ComponentTemplate playerComponentTemplate, int playerComponentSize, ComponentTemplate morePlayerComponentTemplate, int morePlayerComponentSize, IconTemplate defaultIconTemplate, TextTemplate defaultTextTemplate, PingTemplate defaultPingTemplate, PlayerOrderTemplate playerOrderTemplate) {
         this.playerSetTemplate = playerSetTemplate;
         this.playerComponentTemplate = playerComponentTemplate;
         this.playerComponentSize = playerComponentSize;
         this.morePlayerComponentTemplate = morePlayerComponentTemplate;
         this.morePlayerComponentSize = morePlayerComponentSize;
         this.playerOrderTemplate = playerOrderTemplate;
-        this.defaultSlotHandler = new DefaultSlotHandler(defaultTextView, defaultPingView, defaultIconView);
+        this.defaultSlotHandler = new DefaultSlotHandler(defaultTextTemplate, defaultPingTemplate, defaultIconTemplate);
     }
 
-    PlayersComponentView(OrderedPlayerSet playerSet, ComponentTemplate playerComponentTemplate, int playerComponentSize, ComponentTemplate morePlayerComponentTemplate, int morePlayerComponentSize, IconView defaultIconView, TextView defaultTextView, PingView defaultPingView) {
+    PlayersComponentView(OrderedPlayerSet playerSet, ComponentTemplate playerComponentTemplate, int playerComponentSize, ComponentTemplate morePlayerComponentTemplate, int morePlayerComponentSize, IconTemplate defaultIconTemplate, TextTemplate defaultTextTemplate, PingTemplate defaultPingTemplate) {
         this.playerSetTemplate = null;
         this.playerSet = playerSet;
         this.playerComponentTemplate = playerComponentTemplate;
@@ -65,7 +70,7 @@ public final class PlayersComponentView extends ComponentView implements Ordered
         this.morePlayerComponentTemplate = morePlayerComponentTemplate;
         this.morePlayerComponentSize = morePlayerComponentSize;
         this.playerOrderTemplate = null;
-        this.defaultSlotHandler = new DefaultSlotHandler(defaultTextView, defaultPingView, defaultIconView);
+        this.defaultSlotHandler = new DefaultSlotHandler(defaultTextTemplate, defaultPingTemplate, defaultIconTemplate);
     }
 
     @Override
@@ -90,37 +95,10 @@ public final class PlayersComponentView extends ComponentView implements Ordered
             int indexP = 0;
             int pos = 0;
             while (indexP < playerSet.getCount() && (allFit || pos + playerComponentSize + morePlayerComponentSize <= area.getSize())) {
-                Area childArea = area.createChild(pos, playerComponentSize);
-                if (indexP < activePlayerComponents.size()) {
-                    Player player = playerSet.getPlayer(indexP);
-                    if (player != activePlayerComponents.get(indexP).getContext().getPlayer()) {
-                        activePlayerComponents.get(indexP).deactivate();
-
-                        Context child = getContext().clone();
-                        child.setPlayer(player);
-                        ComponentView playerComponent = playerComponentTemplate.instantiate();
-                        playerComponent.activate(child, this);
-                        playerComponent.updateArea(childArea);
-                        activePlayerComponents.set(indexP, playerComponent);
-                    } else {
-                        activePlayerComponents.get(indexP).updateArea(childArea);
-                    }
-                } else {
-                    Context child = getContext().clone();
-                    child.setPlayer(playerSet.getPlayer(indexP));
-                    ComponentView playerComponent = playerComponentTemplate.instantiate();
-                    playerComponent.activate(child, this);
-                    playerComponent.updateArea(childArea);
-                    activePlayerComponents.add(playerComponent);
-                }
                 indexP++;
                 pos += playerComponentSize;
             }
-            for (int j = activePlayerComponents.size() - 1; j >= indexP; j--) {
-                ComponentView playerComponent = activePlayerComponents.get(j);
-                playerComponent.deactivate();
-                activePlayerComponents.remove(j);
-            }
+            reconcilePlayerComponents(area, indexP);
             if (!allFit && morePlayerComponentSize != 0) {
                 if (morePlayersComponent == null) {
                     morePlayersComponent = morePlayerComponentTemplate.instantiate();
@@ -134,12 +112,9 @@ public final class PlayersComponentView extends ComponentView implements Ordered
                 morePlayersComponent.updateArea(area.createChild(pos, morePlayerComponentSize));
                 pos += morePlayerComponentSize;
             }
-            int upper = area.getSize();
-            firstDefaultSlot = pos;
-            while (pos < upper) {
-                area.setSlot(pos, defaultSlotHandler.getIcon(), defaultSlotHandler.getText(), '&', defaultSlotHandler.getPing());
-                pos++;
-            }
+            updateDefaultSlots(area, pos);
+        } else {
+            defaultSlotArea = null;
         }
     }
 
@@ -156,6 +131,7 @@ public final class PlayersComponentView extends ComponentView implements Ordered
             if (player == activePlayerComponents.get(indexP).getContext().getPlayer()) {
                 ComponentView playerComponent = activePlayerComponents.remove(indexP);
                 playerComponent.deactivate();
+                playerComponentTemplate.release(playerComponent);
             }
         }
         Area area = getArea();
@@ -179,6 +155,7 @@ public final class PlayersComponentView extends ComponentView implements Ordered
             for (int j = activePlayerComponents.size() - 1; j >= indexP; j--) {
                 ComponentView playerComponent = activePlayerComponents.get(j);
                 playerComponent.deactivate();
+                playerComponentTemplate.release(playerComponent);
                 activePlayerComponents.remove(j);
             }
             if (!allFit && morePlayerComponentSize != 0 && pos + morePlayerComponentSize <= area.getSize()) {
@@ -194,12 +171,7 @@ public final class PlayersComponentView extends ComponentView implements Ordered
                 morePlayersComponent.updateArea(area.createChild(pos, morePlayerComponentSize));
                 pos += morePlayerComponentSize;
             }
-            int upper = Integer.min(area.getSize(), firstDefaultSlot);
-            firstDefaultSlot = pos;
-            while (pos < upper) {
-                area.setSlot(pos, defaultSlotHandler.getIcon(), defaultSlotHandler.getText(), '&', defaultSlotHandler.getPing());
-                pos++;
-            }
+            updateDefaultSlots(area, pos);
         }
         getListener().requestLayoutUpdate(this);
     }
@@ -212,22 +184,79 @@ public final class PlayersComponentView extends ComponentView implements Ordered
         } else {
             Area area = getArea();
             if (area != null) {
-                for (int i = 0; i < activePlayerComponents.size(); i++) {
-                    Player player = playerSet.getPlayer(i);
-                    if (player != activePlayerComponents.get(i).getContext().getPlayer()) {
-                        Area childArea = activePlayerComponents.get(i).getArea();
-                        activePlayerComponents.get(i).deactivate();
-
-                        Context child = getContext().clone();
-                        child.setPlayer(player);
-                        ComponentView playerComponent = playerComponentTemplate.instantiate();
-                        playerComponent.activate(child, this);
-                        playerComponent.updateArea(childArea);
-                        activePlayerComponents.set(i, playerComponent);
-                    }
+                reconcilePlayerComponents(area, Integer.min(activePlayerComponents.size(), playerSet.getCount()));
+            }
+        }
+    }
+
+    /**
+     * Assigns player components to the first {@code count} players of the player set. Players which are already
+     * displayed keep their component, which is only moved to its new position. Only players which were not
+     * displayed before get a new component. Components whose area did not change are not updated, e.g. if the area
+     * of this component only grew.
+     *
+     * @param area  the area of this component
+     * @param count the number of players to display
+     */
+    private void reconcilePlayerComponents(Area area, int count) {
+        List<ComponentView> previous = activePlayerComponents;
+        Map<Player, ComponentView> reusable = new IdentityHashMap<>(previous.size());
+        for (ComponentView playerComponent : previous) {
+            reusable.put(playerComponent.getContext().getPlayer(), playerComponent);
+        }
+
+        List<ComponentView> components = new ArrayList<>(count);
+        int pos = 0;
+        for (int i = 0; i < count; i++) {
+            Player player = playerSet.getPlayer(i);
+            ComponentView playerComponent = reusable.remove(player);
+            if (playerComponent == null) {
+                Context child = getContext().clone();
+                child.setPlayer(player);
+                playerComponent = playerComponentTemplate.instantiate();
+                playerComponent.activate(child, this);
+                playerComponent.updateArea(area.createChild(pos, playerComponentSize));
+            } else {
+                Area childArea = area.createChild(pos, playerComponentSize);
+                if (!childArea.equals(playerComponent.getArea())) {
+                    playerComponent.updateArea(childArea);
                 }
             }
+            components.add(playerComponent);
+            pos += playerComponentSize;
         }
+
+        for (ComponentView playerComponent : reusable.values()) {
+            playerComponent.deactivate();
+            playerComponentTemplate.release(playerComponent);
+        }
+        activePlayerComponents = components;
+    }
+
+    /**
+     * Shows the default slot in all slots from {@code pos} to the end of the area. Only slots which didn't show the
+     * default slot before are written.
+     *
+     * @param area the area of this component
+     * @param pos  the first slot not used by a player component or the more players component
+     */
+    private void updateDefaultSlots(Area area, int pos) {
+        int size = area.getSize();
+        if (area.equals(defaultSlotArea)) {
+            int upper = Integer.min(size, firstDefaultSlot);
+            if (pos < upper) {
+                area.fillSlots(pos, upper, defaultSlotHandler.getIcon(), defaultSlotHandler.getText(), '&', defaultSlotHandler.getPing());
+            }
+            int lower = Integer.max(pos, defaultSlotAreaSize);
+            if (lower < size) {
+                area.fillSlots(lower, size, defaultSlotHandler.getIcon(), defaultSlotHandler.getText(), '&', defaultSlotHandler.getPing());
+            }
+        } else if (pos < size) {
+            area.fillSlots(pos, size, defaultSlotHandler.getIcon(), defaultSlotHandler.getText(), '&', defaultSlotHandler.getPing());
+        }
+        firstDefaultSlot = pos;
+        defaultSlotArea = area;
+        defaultSlotAreaSize = size;
     }
 
     @Override
@@ -256,6 +285,7 @@ public final class PlayersComponentView extends ComponentView implements Ordered
 
         for (ComponentView playerComponent : activePlayerComponents) {
             playerComponent.deactivate();
+            playerComponentTemplate.release(playerComponent);
         }
         activePlayerComponents.clear();
 
@@ -267,45 +297,32 @@ public final class PlayersComponentView extends ComponentView implements Ordered
         playerSet.removeListener(this);
         playerSet = null;
 
+        defaultSlotArea = null;
+
         defaultSlotHandler.deactivate();
     }
 
     @Override
     public void onDefaultSlotTextUpdated() {
         Area area = getArea();
-        if (area != null) {
-            int pos = firstDefaultSlot;
-            int upper = area.getSize();
-            while (pos < upper) {
-                area.setText(pos, defaultSlotHandler.getText(), '&');
-                pos++;
-            }
+        if (area != null && firstDefaultSlot < area.getSize()) {
+            area.fillText(firstDefaultSlot, area.getSize(), defaultSlotHandler.getText(), '&');
         }
     }
 
     @Override
     public void onDefaultSlotPingUpdated() {
         Area area = getArea();
-        if (area != null) {
-            int pos = firstDefaultSlot;
-            int upper = area.getSize();
-            while (pos < upper) {
-                area.setPing(pos, defaultSlotHandler.getPing());
-                pos++;
-            }
+        if (area != null && firstDefaultSlot < area.getSize()) {
+            area.fillPing(firstDefaultSlot, area.getSize(), defaultSlotHandler.getPing());
         }
     }
 
     @Override
     public void onDefaultSlotIconUpdated() {
         Area area = getArea();
-        if (area != null) {
-            int pos = firstDefaultSlot;
-            int upper = area.getSize();
-            while (pos < upper) {
-                area.setIcon(pos, defaultSlotHandler.getIcon());
-                pos++;
-            }
+        if (area != null && firstDefaultSlot < area.getSize()) {
+            area.fillIcon(firstDefaultSlot, area.getSize(), defaultSlotHandler.getIcon());
         }
     }
 }
@@ -19,19 +19,16 @@ package de.codecrafter47.taboverlay.config.view.components;
 
 import de.codecrafter47.taboverlay.Icon;
 import de.codecrafter47.taboverlay.config.area.Area;
-import de.codecrafter47.taboverlay.config.view.icon.IconView;
-import de.codecrafter47.taboverlay.config.view.icon.IconViewUpdateListener;
-import de.codecrafter47.taboverlay.config.view.ping.PingView;
-import de.codecrafter47.taboverlay.config.view.ping.PingViewUpdateListener;
-import de.codecrafter47.taboverlay.config.view.text.TextView;
-import de.codecrafter47.taboverlay.config.view.text.TextViewUpdateListener;
+import de.codecrafter47.taboverlay.config.template.icon.IconTemplate;
+import de.codecrafter47.taboverlay.config.template.ping.PingTemplate;
+import de.codecrafter47.taboverlay.config.template.text.TextTemplate;
 
 public final class SpacerComponentView extends ComponentView implements DefaultSlotHandler.Listener {
 
     private final DefaultSlotHandler defaultSlotHandler;
 
-    public SpacerComponentView(TextView textView, PingView pingView, IconView iconView) {
-        this.defaultSlotHandler = new DefaultSlotHandler(textView, pingView, iconView);
+    public SpacerComponentView(TextTemplate textTemplate, PingTemplate pingTemplate, IconTemplate iconTemplate) {
+        this.defaultSlotHandler = new DefaultSlotHandler(textTemplate, pingTemplate, iconTemplate);
     }
 
     @Override
@@ -19,12 +19,9 @@ package de.codecrafter47.taboverlay.config.view.components;
 
 import de.codecrafter47.taboverlay.config.area.Area;
 import de.codecrafter47.taboverlay.config.area.RectangularArea;
-import de.codecrafter47.taboverlay.config.view.icon.IconView;
-import de.codecrafter47.taboverlay.config.view.icon.IconViewUpdateListener;
-import de.codecrafter47.taboverlay.config.view.ping.PingView;
-import de.codecrafter47.taboverlay.config.view.ping.PingViewUpdateListener;
-import de.codecrafter47.taboverlay.config.view.text.TextView;
-import de.codecrafter47.taboverlay.config.view.text.TextViewUpdateListener;
+import de.codecrafter47.taboverlay.config.template.icon.IconTemplate;
+import de.codecrafter47.taboverlay.config.template.ping.PingTemplate;
+import de.codecrafter47.taboverlay.config.template.text.TextTemplate;
 import lombok.Value;
 
 import java.util.List;
@@ -39,12 +36,15 @@ public final class TableComponentView extends ComponentView implements DefaultSl
     private final DefaultSlotHandler defaultSlotHandler;
     private Future<?> updateFuture = null;
     private int minSize, preferredSize, maxSize;
+    // area in which the rows from firstDefaultRow[column] to the bottom show the default slot
+    private Area defaultSlotArea = null;
+    private int[] firstDefaultRow;
 
-    public TableComponentView(List<Column> columns, int size, int columnCount, TextView defaultTextView, PingView defaultPingView, IconView defaultIconView) {
+    public TableComponentView(List<Column> columns, int size, int columnCount, TextTemplate defaultTextTemplate, PingTemplate defaultPingTemplate, IconTemplate defaultIconTemplate) {
         this.columns = columns;
         this.size = size;
         this.columnCount = columnCount;
-        this.defaultSlotHandler = new DefaultSlotHandler(defaultTextView, defaultPingView, defaultIconView);
+        this.defaultSlotHandler = new DefaultSlotHandler(defaultTextTemplate, defaultPingTemplate, defaultIconTemplate);
     }
 
     @Override
@@ -116,6 +116,7 @@ public final class TableComponentView extends ComponentView implements DefaultSl
         for (Column column : columns) {
             column.component.deactivate();
         }
+        defaultSlotArea = null;
         super.onDeactivation();
     }
 
@@ -150,25 +151,49 @@ public final class TableComponentView extends ComponentView implements DefaultSl
         }
     }
 
+    /**
+     * Shows the default slot in all slots not used by a column. Only slots which didn't show the default slot
+     * before are written.
+     */
     private void updateDefaultSlots() {
-        updateDefaultSlots((area, column, row, defaultSlot) -> area.setSlot(column, row, defaultSlot.getIcon(), defaultSlot.getText(), '&', defaultSlot.getPing()));
+        Area area = getArea();
+        if (area == null) {
+            defaultSlotArea = null;
+            return;
+        }
+        RectangularArea rArea = area.asRectangularArea();
+        int rows = rArea.getRows();
+        boolean unchanged = area.equals(defaultSlotArea) && firstDefaultRow.length == rArea.getColumns();
+        int[] firstDefaultRow = unchanged ? this.firstDefaultRow : new int[rArea.getColumns()];
+        int i = 0;
+        for (int column = 0; column < rArea.getColumns(); column++) {
+            int rowsUsed = 0;
+            while (i < columns.size() && column >= columns.get(i).columnIndex + columns.get(i).width) {
+                i++;
+            }
+            if (i < columns.size() && column >= columns.get(i).columnIndex) {
+                Area columnArea = columns.get(i).component.getArea();
+                rowsUsed = columnArea != null ? columnArea.asRectangularArea().getRows() : 0;
+            }
+            int upper = unchanged ? Integer.min(firstDefaultRow[column], rows) : rows;
+            if (rowsUsed < upper) {
+                rArea.createRectangularChild(column, rowsUsed, 1, upper - rowsUsed)
+                        .fillSlots(0, upper - rowsUsed, defaultSlotHandler.getIcon(), defaultSlotHandler.getText(), '&', defaultSlotHandler.getPing());
+            }
+            firstDefaultRow[column] = rowsUsed;
+        }
+        this.defaultSlotArea = area;
+        this.firstDefaultRow = firstDefaultRow;
     }
 
     private void updateDefaultSlots(DefaultSlotUpdateFunction updateFunction) {
         Area area = getArea();
-        if (area != null) {
+        if (area != null && area.equals(defaultSlotArea)) {
             RectangularArea rArea = area.asRectangularArea();
-            int i = 0;
-            for (int column = 0; column < rArea.getColumns(); column++) {
-                int rowsUsed = 0;
-                while (i < columns.size() && column >= columns.get(i).columnIndex + columns.get(i).width) {
-                    i++;
-                }
-                if (i < columns.size() && column >= columns.get(i).columnIndex) {
-                    rowsUsed = columns.get(i).component.getArea().asRectangularArea().getRows();
-                }
-                for (int row = rowsUsed; row < rArea.getRows(); row++) {
-                    updateFunction.apply(rArea, column, row, defaultSlotHandler);
+            for (int column = 0; column < firstDefaultRow.length; column++) {
+                int firstRow = firstDefaultRow[column];
+                if (firstRow < rArea.getRows()) {
+                    updateFunction.apply(rArea.createRectangularChild(column, firstRow, 1, rArea.getRows() - firstRow), defaultSlotHandler);
                 }
             }
         }
@@ -176,17 +201,17 @@ public final class TableComponentView extends ComponentView implements DefaultSl
 
     @Override
     public void onDefaultSlotTextUpdated() {
-        updateDefaultSlots((area, column, row, defaultSlot) -> area.setText(column, row, defaultSlot.getText(), '&'));
+        updateDefaultSlots((area, defaultSlot) -> area.fillText(0, area.getSize(), defaultSlot.getText(), '&'));
     }
 
     @Override
     public void onDefaultSlotPingUpdated() {
-        updateDefaultSlots((area, column, row, defaultSlot) -> area.setPing(column, row, defaultSlot.getPing()));
+        updateDefaultSlots((area, defaultSlot) -> area.fillPing(0, area.getSize(), defaultSlot.getPing()));
     }
 
     @Override
     public void onDefaultSlotIconUpdated() {
-        updateDefaultSlots((area, column, row, defaultSlot) -> area.setIcon(column, row, defaultSlot.getIcon()));
+        updateDefaultSlots((area, defaultSlot) -> area.fillIcon(0, area.getSize(), defaultSlot.getIcon()));
     }
 
     @Value
@@ -197,6 +222,6 @@ public final class TableComponentView extends ComponentView implements DefaultSl
     }
 
     interface DefaultSlotUpdateFunction {
-        void apply(RectangularArea area, int column, int row, DefaultSlotHandler defaultSlotHandler);
+        void apply(Area defaultSlots, DefaultSlotHandler defaultSlotHandler);
     }
 }
@@ -0,0 +1,88 @@
+/*
+ *     Copyright (C) 2020 Florian Stober
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.codecrafter47.taboverlay.config.view.text;
+
+import de.codecrafter47.taboverlay.config.context.ContextKeys;
+import de.codecrafter47.taboverlay.config.template.text.ConstantTextTemplate;
+import de.codecrafter47.taboverlay.config.template.text.TextTemplate;
+import de.codecrafter47.taboverlay.config.view.AbstractActiveElement;
+
+/**
+ * Text view for a viewer independent text template. The underlying view is shared with all other viewers displaying
+ * the same template, see {@link SharedTextViewRegistry}.
+ */
+public final class SharedTextView extends AbstractActiveElement<TextViewUpdateListener> implements TextView, TextViewUpdateListener {
+
+    private final TextTemplate template;
+    private SharedTextViewRegistry.SharedText shared;
+    private TextView textView;
+
+    private SharedTextView(TextTemplate template) {
+        this.template = template;
+    }
+
+    /**
+     * Instantiate a text template. The view is shared between viewers if the template does not depend on the
+     * viewer.
+     *
+     * @param template the template
+     * @return the text view
+     */
+    public static TextView of(TextTemplate template) {
+        if (template.requiresViewerContext() || template instanceof ConstantTextTemplate) {
+            return template.instantiate();
+        }
+        return new SharedTextView(template);
+    }
+
+    @Override
+    protected void onActivation() {
+        SharedTextViewRegistry registry = getContext().getCustomObject(ContextKeys.SHARED_TEXT_VIEW_REGISTRY);
+        if (registry != null) {
+            shared = registry.acquire(getContext(), template, this);
+        } else {
+            // nothing to share with
+            textView = template.instantiate();
+            textView.activate(getContext(), this);
+        }
+    }
+
+    @Override
+    protected void onDeactivation() {
+        if (shared != null) {
+            shared.release(this);
+            shared = null;
+        }
+        if (textView != null) {
+            textView.deactivate();
+            textView = null;
+        }
+    }
+
+    @Override
+    public String getText() {
+        return shared != null ? shared.getText() : textView.getText();
+    }
+
+    @Override
+    public void onTextUpdated() {
+        if (isActive() && hasListener()) {
+            getListener().onTextUpdated();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ *     Copyright (C) 2020 Florian Stober
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.codecrafter47.taboverlay.config.view.text;
+
+import de.codecrafter47.taboverlay.config.context.Context;
+import de.codecrafter47.taboverlay.config.player.GlobalPlayerSetFactory;
+import de.codecrafter47.taboverlay.config.player.Player;
+import de.codecrafter47.taboverlay.config.player.PlayerProvider;
+import de.codecrafter47.taboverlay.config.player.PlayerSetFactory;
+import de.codecrafter47.taboverlay.config.template.text.TextTemplate;
+import lombok.Value;
+
+import javax.annotation.Nullable;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Logger;
+
+/**
+ * Shares the text views of viewer independent text templates between all viewers of a tab event loop.
+ * <p>
+ * A text view is shared by all {@link SharedTextView}s with the same template, the same player and the same custom
+ * context objects. It is evaluated once and its updates are passed on to all of them. Shared views are reference
+ * counted and deactivated together with the last user. Must only be used from the tab event queue.
+ * <p>
+ * Shared views don't belong to any viewer. They are activated with a context of the tab event loop which has no
+ * viewer and its own player set factory, so they keep working when the viewer which created them is gone.
+ */
+public final class SharedTextViewRegistry {
+
+    private final PlayerProvider playerProvider;
+    private final GlobalPlayerSetFactory globalPlayerSetFactory;
+    private final Logger logger;
+    private final Map<Key, SharedText> instances = new HashMap<>();
+
+    public SharedTextViewRegistry(PlayerProvider playerProvider, GlobalPlayerSetFactory globalPlayerSetFactory, Logger logger) {
+        this.playerProvider = playerProvider;
+        this.globalPlayerSetFactory = globalPlayerSetFactory;
+        this.logger = logger;
+    }
+
+    SharedText acquire(Context context, TextTemplate template, SharedTextView handle) {
+        Context sharedContext = context.clone();
+        sharedContext.setViewer(null);
+        Key key = new Key(template, sharedContext.getPlayer(), sharedContext.getCustomObjects());
+        SharedText instance = instances.get(key);
+        if (instance == null) {
+            sharedContext.setPlayerSetFactory(new PlayerSetFactory(playerProvider, globalPlayerSetFactory, logger, sharedContext));
+            instance = new SharedText(key, template.instantiate());
+            instances.put(key, instance);
+            instance.textView.activate(sharedContext, instance);
+        }
+        instance.handles.add(handle);
+        return instance;
+    }
+
+    /**
+     * Identifies a shared view by its template and the content of the context it is activated with.
+     */
+    @Value
+    private static class Key {
+        TextTemplate template;
+        @Nullable
+        Player player;
+        List<Object> customObjects;
+    }
+
+    final class SharedText implements TextViewUpdateListener {
+        private final Key key;
+        private final TextView textView;
+        private final Set<SharedTextView> handles = new LinkedHashSet<>();
+
+        private SharedText(Key key, TextView textView) {
+            this.key = key;
+            this.textView = textView;
+        }
+
+        void release(SharedTextView handle) {
+            handles.remove(handle);
+            if (handles.isEmpty()) {
+                instances.remove(key);
+                textView.deactivate();
+            }
+        }
+
+        String getText() {
+            return textView.getText();
+        }
+
+        @Override
+        public void onTextUpdated() {
+            // handles may be released while being notified
+            for (SharedTextView handle : handles.toArray(new SharedTextView[0])) {
+                if (handles.contains(handle)) {
+                    handle.onTextUpdated();
+                }
+            }
+        }
+    }
+}
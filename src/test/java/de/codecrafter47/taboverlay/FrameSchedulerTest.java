@@ -0,0 +1,128 @@
+/*
+ *     Copyright (C) 2020 Florian Stober
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.codecrafter47.taboverlay;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+public class FrameSchedulerTest {
+
+    private ManualScheduledExecutorService executor;
+    private FrameScheduler frameScheduler;
+    private List<String> log;
+
+    @Before
+    public void setup() {
+        executor = new ManualScheduledExecutorService();
+        // 20 frames per second, i.e. one frame every 50 ms
+        frameScheduler = new FrameScheduler(executor, 20, Logger.getLogger(FrameSchedulerTest.class.getName()),
+                () -> TimeUnit.MILLISECONDS.toNanos(executor.getTime()));
+        log = new ArrayList<>();
+    }
+
+    @Test
+    public void testRepeatedRequestsRunOnce() {
+        Runnable a = task("a", 0);
+        Runnable b = task("b", 0);
+        frameScheduler.requestFrame(a);
+        frameScheduler.requestFrame(b);
+        frameScheduler.requestFrame(a);
+        Assert.assertTrue(log.isEmpty());
+
+        executor.runPending();
+        Assert.assertEquals(Arrays.asList("a@0", "b@0"), log);
+        Assert.assertEquals(1, frameScheduler.getFrameCount());
+        Assert.assertEquals(0, executor.getQueuedTaskCount());
+    }
+
+    @Test
+    public void testFramesAreLimitedToFrameInterval() {
+        Runnable a = task("a", 0);
+        frameScheduler.requestFrame(a);
+        executor.runPending();
+
+        executor.advance(10);
+        frameScheduler.requestFrame(a);
+        frameScheduler.requestFrame(a);
+        executor.advance(39);
+        Assert.assertEquals(Collections.singletonList("a@0"), log);
+
+        executor.advance(1);
+        Assert.assertEquals(Arrays.asList("a@0", "a@50"), log);
+
+        // the interval has passed since the last frame, so the next frame is sent right away
+        executor.advance(100);
+        frameScheduler.requestFrame(a);
+        executor.runPending();
+        Assert.assertEquals(Arrays.asList("a@0", "a@50", "a@150"), log);
+        Assert.assertEquals(3, frameScheduler.getFrameCount());
+    }
+
+    @Test
+    public void testTaskRequestingFrameRunsWithNextFrame() {
+        Runnable[] self = new Runnable[1];
+        self[0] = () -> {
+            log.add("a@" + executor.getTime());
+            if (log.size() < 3) {
+                frameScheduler.requestFrame(self[0]);
+            }
+        };
+        frameScheduler.requestFrame(self[0]);
+        executor.advance(200);
+        Assert.assertEquals(Arrays.asList("a@0", "a@50", "a@100"), log);
+    }
+
+    @Test
+    public void testDirtySlotMetrics() {
+        frameScheduler.requestFrame(task("a", 3));
+        frameScheduler.requestFrame(task("b", 4));
+        executor.runPending();
+        Assert.assertEquals(7, frameScheduler.getLastFrameDirtySlotCount());
+        Assert.assertEquals(7, frameScheduler.getDirtySlotCount());
+        Assert.assertEquals(0, frameScheduler.getOutOfFrameDirtySlotCount());
+
+        // e.g. an explicit flush before the size of the tab list changes
+        frameScheduler.recordDirtySlots(5);
+        Assert.assertEquals(12, frameScheduler.getDirtySlotCount());
+        Assert.assertEquals(5, frameScheduler.getOutOfFrameDirtySlotCount());
+        Assert.assertEquals(7, frameScheduler.getLastFrameDirtySlotCount());
+
+        executor.advance(50);
+        frameScheduler.requestFrame(task("c", 2));
+        executor.runPending();
+        Assert.assertEquals(2, frameScheduler.getLastFrameDirtySlotCount());
+        Assert.assertEquals(14, frameScheduler.getDirtySlotCount());
+        Assert.assertEquals(5, frameScheduler.getOutOfFrameDirtySlotCount());
+        Assert.assertEquals(2, frameScheduler.getFrameCount());
+    }
+
+    private Runnable task(String name, int dirtySlots) {
+        return () -> {
+            log.add(name + "@" + executor.getTime());
+            frameScheduler.recordDirtySlots(dirtySlots);
+        };
+    }
+}
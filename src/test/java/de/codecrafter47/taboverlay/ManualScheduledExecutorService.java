@@ -0,0 +1,176 @@
+/*
+ *     Copyright (C) 2020 Florian Stober
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.codecrafter47.taboverlay;
+
+import javax.annotation.Nonnull;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single threaded {@link ScheduledExecutorService} with a simulated clock. Tasks only run when the clock is advanced
+ * by the test, on the thread of the test.
+ */
+public class ManualScheduledExecutorService extends AbstractExecutorService implements ScheduledExecutorService {
+
+    private final PriorityQueue<Task<?>> tasks = new PriorityQueue<>();
+    private long now = 0;
+    private long sequence = 0;
+    private boolean shutdown = false;
+
+    /**
+     * Runs all tasks which are due now, including tasks they submit for immediate execution.
+     */
+    public void runPending() {
+        advance(0);
+    }
+
+    /**
+     * Advances the clock, running all tasks which become due in order.
+     *
+     * @param millis the time to advance the clock by, in milliseconds
+     */
+    public void advance(long millis) {
+        long target = now + millis;
+        Task<?> task;
+        while ((task = tasks.peek()) != null && task.time <= target) {
+            tasks.poll();
+            now = task.time;
+            task.run();
+        }
+        now = target;
+    }
+
+    public long getTime() {
+        return now;
+    }
+
+    public int getQueuedTaskCount() {
+        return (int) tasks.stream().filter(task -> !task.isCancelled()).count();
+    }
+
+    private <V> Task<V> enqueue(Task<V> task) {
+        if (shutdown) {
+            throw new IllegalStateException("Executor has been shut down");
+        }
+        tasks.add(task);
+        return task;
+    }
+
+    @Override
+    @Nonnull
+    public ScheduledFuture<?> schedule(@Nonnull Runnable command, long delay, @Nonnull TimeUnit unit) {
+        return enqueue(new Task<>(Executors.callable(command), unit.toMillis(delay), 0));
+    }
+
+    @Override
+    @Nonnull
+    public <V> ScheduledFuture<V> schedule(@Nonnull Callable<V> callable, long delay, @Nonnull TimeUnit unit) {
+        return enqueue(new Task<>(callable, unit.toMillis(delay), 0));
+    }
+
+    @Override
+    @Nonnull
+    public ScheduledFuture<?> scheduleAtFixedRate(@Nonnull Runnable command, long initialDelay, long period, @Nonnull TimeUnit unit) {
+        return enqueue(new Task<>(Executors.callable(command), unit.toMillis(initialDelay), unit.toMillis(period)));
+    }
+
+    @Override
+    @Nonnull
+    public ScheduledFuture<?> scheduleWithFixedDelay(@Nonnull Runnable command, long initialDelay, long delay, @Nonnull TimeUnit unit) {
+        // tasks take no simulated time, so fixed delay and fixed rate are the same
+        return scheduleAtFixedRate(command, initialDelay, delay, unit);
+    }
+
+    @Override
+    public void execute(@Nonnull Runnable command) {
+        schedule(command, 0, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void shutdown() {
+        shutdown = true;
+    }
+
+    @Override
+    @Nonnull
+    public List<Runnable> shutdownNow() {
+        shutdown = true;
+        tasks.clear();
+        return Collections.emptyList();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return shutdown;
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return shutdown && tasks.isEmpty();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, @Nonnull TimeUnit unit) {
+        return isTerminated();
+    }
+
+    private class Task<V> extends FutureTask<V> implements ScheduledFuture<V> {
+        private final long period;
+        private long time;
+        private long order;
+
+        private Task(Callable<V> callable, long delay, long period) {
+            super(callable);
+            this.time = now + Math.max(0, delay);
+            this.order = sequence++;
+            this.period = period;
+        }
+
+        @Override
+        public void run() {
+            if (period == 0) {
+                super.run();
+            } else if (runAndReset() && !shutdown) {
+                time += period;
+                order = sequence++;
+                tasks.add(this);
+            }
+        }
+
+        @Override
+        public long getDelay(@Nonnull TimeUnit unit) {
+            return unit.convert(time - now, TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(@Nonnull Delayed o) {
+            Task<?> other = (Task<?>) o;
+            int result = Long.compare(time, other.time);
+            return result != 0 ? result : Long.compare(order, other.order);
+        }
+    }
+}
@@ -0,0 +1,229 @@
+/*
+ *     Copyright (C) 2020 Florian Stober
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.codecrafter47.taboverlay.config.area;
+
+import de.codecrafter47.taboverlay.Icon;
+import de.codecrafter47.taboverlay.handler.SimpleTabOverlay;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+public class BufferedAreaTest {
+
+    private RecordingTabOverlay tabOverlay;
+    private List<Runnable> tasks;
+    private BufferedArea area;
+
+    @Before
+    public void setup() {
+        tabOverlay = new RecordingTabOverlay(4);
+        tasks = new ArrayList<>();
+        area = BufferedArea.of(tabOverlay, tasks::add);
+    }
+
+    @Test
+    public void testUnchangedWritesAreDropped() {
+        area.setSlot(0, Icon.DEFAULT_STEVE, "a", 0);
+        area.setSlot(0, Icon.DEFAULT_STEVE, "a", 0);
+        Assert.assertEquals(1, tasks.size());
+        Assert.assertEquals(Collections.emptyList(), tabOverlay.log);
+
+        runTasks();
+        Assert.assertEquals(Collections.singletonList("slot 0 a"), tabOverlay.log);
+
+        tabOverlay.log.clear();
+        area.setSlot(0, Icon.DEFAULT_STEVE, "a", 0);
+        area.setText(0, "a");
+        Assert.assertTrue(tasks.isEmpty());
+        area.flush();
+        Assert.assertEquals(Collections.emptyList(), tabOverlay.log);
+    }
+
+    @Test
+    public void testOnlyChangedFieldsAreSent() {
+        fill(0, 4, "a");
+        area.flush();
+        tabOverlay.log.clear();
+
+        area.setText(1, "b");
+        area.setPing(2, 10);
+        area.setSlot(3, Icon.DEFAULT_ALEX, "c", 0);
+        area.flush();
+        Assert.assertEquals(Arrays.asList("text 1 b", "ping 2 10", "icon 3", "text 3 c"), tabOverlay.log);
+    }
+
+    @Test
+    public void testFillSlotsOnlyMarksChangedSlots() {
+        fill(0, 4, "a");
+        area.flush();
+        tabOverlay.log.clear();
+
+        area.setText(1, "b");
+        area.flush();
+        tabOverlay.log.clear();
+
+        area.fillSlots(0, 4, Icon.DEFAULT_STEVE, "a", (char) 0, 0);
+        area.flush();
+        Assert.assertEquals(Collections.singletonList("text 1 a"), tabOverlay.log);
+    }
+
+    @Test
+    public void testFlushIsSingleBatch() {
+        fill(0, 4, "a");
+        area.setText(2, "b");
+        Assert.assertEquals(1, tasks.size());
+        runTasks();
+        Assert.assertEquals(1, tabOverlay.batches);
+        Assert.assertEquals(Arrays.asList("slot 0 a", "slot 1 a", "slot 2 b", "slot 3 a"), tabOverlay.log);
+
+        // nothing to send
+        area.flush();
+        Assert.assertEquals(1, tabOverlay.batches);
+    }
+
+    @Test
+    public void testResizeKeepsState() {
+        fill(0, 4, "a");
+        area.flush();
+        tabOverlay.log.clear();
+
+        tabOverlay.setSize(6);
+        area.resize();
+        Assert.assertEquals(6, area.getSize());
+        fill(0, 6, "a");
+        area.flush();
+        Assert.assertEquals(Arrays.asList("slot 4 a", "slot 5 a"), tabOverlay.log);
+
+        tabOverlay.log.clear();
+        tabOverlay.setSize(3);
+        area.resize();
+        tabOverlay.setSize(5);
+        area.resize();
+        fill(0, 5, "a");
+        area.flush();
+        // slots which have been removed are sent again
+        Assert.assertEquals(Arrays.asList("slot 3 a", "slot 4 a"), tabOverlay.log);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testResizeShrinks() {
+        tabOverlay.setSize(2);
+        area.resize();
+        area.setText(2, "a");
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testResizeRequiresFlush() {
+        area.setText(0, "a");
+        tabOverlay.setSize(6);
+        area.resize();
+    }
+
+    private void fill(int start, int end, String text) {
+        for (int i = start; i < end; i++) {
+            area.setSlot(i, Icon.DEFAULT_STEVE, text, 0);
+        }
+    }
+
+    private void runTasks() {
+        List<Runnable> pending = new ArrayList<>(tasks);
+        tasks.clear();
+        pending.forEach(Runnable::run);
+    }
+
+    private static class RecordingTabOverlay implements SimpleTabOverlay {
+        private final List<String> log = new ArrayList<>();
+        private int size;
+        private int batches = 0;
+
+        private RecordingTabOverlay(int size) {
+            this.size = size;
+        }
+
+        @Override
+        public int getSize() {
+            return size;
+        }
+
+        @Override
+        public int getMaxSize() {
+            return 80;
+        }
+
+        @Override
+        public void setSize(int size) {
+            this.size = size;
+        }
+
+        @Override
+        public void setSlot(int index, UUID uuid, @Nonnull Icon icon, @Nonnull String text, int ping) {
+            log.add("slot " + index + " " + text);
+        }
+
+        @Override
+        public void setSlot(int index, UUID uuid, @Nonnull Icon icon, @Nonnull String text, char alternateColorChar, int ping) {
+            log.add("slot " + index + " " + text);
+        }
+
+        @Override
+        public void setUuid(int index, UUID uuid) {
+            log.add("uuid " + index);
+        }
+
+        @Override
+        public void setIcon(int index, @Nonnull Icon icon) {
+            log.add("icon " + index);
+        }
+
+        @Override
+        public void setText(int index, @Nonnull String text) {
+            log.add("text " + index + " " + text);
+        }
+
+        @Override
+        public void setText(int index, @Nonnull String text, char alternateColorChar) {
+            log.add("text " + index + " " + text);
+        }
+
+        @Override
+        public void setPing(int index, int ping) {
+            log.add("ping " + index + " " + ping);
+        }
+
+        @Override
+        public boolean isValid() {
+            return true;
+        }
+
+        @Override
+        public void beginBatchModification() {
+            batches++;
+        }
+
+        @Override
+        public void completeBatchModification() {
+        }
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ *     Copyright (C) 2020 Florian Stober
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.codecrafter47.taboverlay.config.area;
+
+import de.codecrafter47.taboverlay.Icon;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+public class FlatAreaTest {
+
+    private RecordingArea root;
+
+    @Before
+    public void setup() {
+        root = new RecordingArea(4, 5);
+    }
+
+    @Test
+    public void testTransposeMapsColumnMajor() {
+        RectangularArea transposed = FlatArea.transpose(root);
+        Assert.assertEquals(1, transposed.getColumns());
+        Assert.assertEquals(20, transposed.getSize());
+        for (int i = 0; i < transposed.getSize(); i++) {
+            transposed.setText(i, "t" + i);
+        }
+        for (int i = 0; i < transposed.getSize(); i++) {
+            Assert.assertEquals("t" + i, root.getText(i / 5, i % 5));
+        }
+    }
+
+    @Test
+    public void testTransposedRectangularChild() {
+        RectangularArea transposed = FlatArea.transpose(root.createRectangularChild(1, 1, 2, 3));
+        Assert.assertEquals(6, transposed.getSize());
+        for (int i = 0; i < transposed.getSize(); i++) {
+            transposed.setText(i, "t" + i);
+        }
+        for (int i = 0; i < transposed.getSize(); i++) {
+            Assert.assertEquals("t" + i, root.getText(1 + i / 3, 1 + i % 3));
+        }
+        Assert.assertEquals(6, root.getWrites());
+    }
+
+    @Test
+    public void testNestedChildrenMapToRoot() {
+        Area child = root.createChild(4, 8).createChild(2, 3);
+        child.setText(0, "a");
+        child.fillText(1, 3, "b", '&');
+        Assert.assertEquals("a", root.getText(6));
+        Assert.assertEquals("b", root.getText(7));
+        Assert.assertEquals("b", root.getText(8));
+        Assert.assertEquals(3, root.getWrites());
+    }
+
+    @Test
+    public void testRectangularAccessOfChild() {
+        RectangularArea child = root.createRectangularChild(1, 2, 3, 2);
+        child.setText(2, 1, "x");
+        Assert.assertEquals("x", root.getText(3, 3));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testRectangularAccessOutOfBounds() {
+        root.createRectangularChild(1, 2, 3, 2).setText(3, 0, "x");
+    }
+
+    @Test
+    public void testEquality() {
+        Area child = root.createChild(4, 8);
+        Assert.assertEquals(child, root.createChild(4, 8));
+        Assert.assertEquals(child.hashCode(), root.createChild(4, 8).hashCode());
+        Assert.assertEquals(child, root.createChild(4, 8).createChild(0, 8));
+        Assert.assertEquals(FlatArea.transpose(root), FlatArea.transpose(root));
+
+        Assert.assertNotEquals(child, root.createChild(4, 7));
+        Assert.assertNotEquals(child, root.createChild(5, 8));
+        Assert.assertNotEquals(child, new RecordingArea(4, 5).createChild(4, 8));
+        // same slots, but a different shape
+        Assert.assertNotEquals(root.createRectangularChild(0, 1, 4, 2), root.createChild(4, 8));
+    }
+
+    @Test
+    public void testSlotWidthDelegatesToRoot() {
+        Area child = root.createChild(4, 8).createChild(2, 3);
+        Assert.assertEquals(root.getSlotWidth(), child.getSlotWidth());
+        root.slotWidth = 180;
+        Assert.assertEquals(180, child.getSlotWidth());
+    }
+
+    private static class RecordingArea implements RectangularArea {
+        private final int columns;
+        private final int rows;
+        private final String[] texts;
+        private int writes = 0;
+        private int slotWidth = 80;
+
+        private RecordingArea(int columns, int rows) {
+            this.columns = columns;
+            this.rows = rows;
+            this.texts = new String[columns * rows];
+        }
+
+        String getText(int index) {
+            return texts[index];
+        }
+
+        String getText(int column, int row) {
+            return texts[row * columns + column];
+        }
+
+        int getWrites() {
+            return writes;
+        }
+
+        @Override
+        public void setSlot(int column, int row, UUID uuid, Icon icon, String text, int ping) {
+            setText(column, row, text);
+        }
+
+        @Override
+        public void setSlot(int column, int row, UUID uuid, Icon icon, String text, char alternateColorChar, int ping) {
+            setText(column, row, text);
+        }
+
+        @Override
+        public void setUuid(int column, int row, UUID uuid) {
+        }
+
+        @Override
+        public void setIcon(int column, int row, Icon icon) {
+        }
+
+        @Override
+        public void setText(int column, int row, String text) {
+            if (column < 0 || column >= columns || row < 0 || row >= rows) {
+                throw new IndexOutOfBoundsException();
+            }
+            texts[row * columns + column] = text;
+            writes++;
+        }
+
+        @Override
+        public void setText(int column, int row, String text, char alternateColorChar) {
+            setText(column, row, text);
+        }
+
+        @Override
+        public void setPing(int column, int row, int ping) {
+        }
+
+        @Override
+        public int getRows() {
+            return rows;
+        }
+
+        @Override
+        public int getColumns() {
+            return columns;
+        }
+
+        @Override
+        public int getSize() {
+            return columns * rows;
+        }
+
+        @Override
+        public int getSlotWidth() {
+            return slotWidth;
+        }
+
+        @Override
+        public String toString() {
+            return "RecordingArea" + Arrays.toString(texts);
+        }
+    }
+}
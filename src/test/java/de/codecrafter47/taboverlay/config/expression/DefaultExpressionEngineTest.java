@@ -17,6 +17,7 @@
 
 package de.codecrafter47.taboverlay.config.expression;
 
+import de.codecrafter47.taboverlay.config.expression.template.ConstantExpressionTemplate;
 import de.codecrafter47.taboverlay.config.expression.template.ExpressionTemplate;
 import de.codecrafter47.taboverlay.config.template.TemplateCreationContext;
 import org.junit.Assert;
@@ -123,4 +124,21 @@ public class DefaultExpressionEngineTest {
         assertTrue("(4/2) == 2");
         assertTrue("(2*2) == 4");
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testConstantFolding() {
+        ExpressionTemplate expression = expressionEngine.compile(tcc, "1 + 2 * 3 == 7 && (true || false)", null);
+        Assert.assertTrue(expression instanceof ConstantExpressionTemplate);
+        Assert.assertTrue(expression.instantiateWithBooleanResult().evaluate());
+        Assert.assertEquals("true", expression.instantiateWithStringResult().evaluate());
+
+        // folded concatenations must convert to numbers like the unfolded ones
+        expression = expressionEngine.compile(tcc, "\"ab\" . \"cd\"", null);
+        Assert.assertTrue(expression instanceof ConstantExpressionTemplate);
+        Assert.assertEquals("abcd", expression.instantiateWithStringResult().evaluate());
+        Assert.assertEquals(0, expression.instantiateWithDoubleResult().evaluate(), 0.001);
+
+        expression = expressionEngine.compile(tcc, "\"1\" . \"2\"", null);
+        Assert.assertEquals(12, expression.instantiateWithDoubleResult().evaluate(), 0.001);
+    }
+}
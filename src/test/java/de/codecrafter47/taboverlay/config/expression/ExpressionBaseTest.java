@@ -0,0 +1,143 @@
+/*
+ *     Copyright (C) 2020 Florian Stober
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.codecrafter47.taboverlay.config.expression;
+
+import de.codecrafter47.taboverlay.config.context.Context;
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class ExpressionBaseTest {
+
+    @Test
+    public void testResultCachedUntilOperandChanges() {
+        Source source = new Source("a");
+        Leaf leaf = new Leaf(source);
+        ToBooleanExpression expression = Expressions.equal(leaf, ToStringExpression.literal("a"));
+        expression.activate(Context.from(null, null), null);
+
+        Assert.assertTrue(expression.evaluate());
+        Assert.assertTrue(expression.evaluate());
+        Assert.assertEquals(1, leaf.evaluations);
+
+        source.value = "b";
+        leaf.notifyListener();
+        Assert.assertFalse(expression.evaluate());
+        Assert.assertFalse(expression.evaluate());
+        Assert.assertEquals(2, leaf.evaluations);
+
+        // inactive expressions don't cache their result
+        expression.deactivate();
+        source.value = "a";
+        Assert.assertTrue(expression.evaluate());
+    }
+
+    @Test
+    public void testNoGlitchWhenOperandsShareData() {
+        Source source = new Source("a");
+        Leaf leaf1 = new Leaf(source);
+        Leaf leaf2 = new Leaf(source);
+        ToBooleanExpression expression = Expressions.or(Arrays.asList(
+                Expressions.equal(leaf2, ToStringExpression.literal("b")),
+                Expressions.equal(leaf1, ToStringExpression.literal("a"))));
+        List<Boolean> results = new ArrayList<>();
+        expression.activate(Context.from(null, null), () -> results.add(expression.evaluate()));
+        Assert.assertTrue(expression.evaluate());
+
+        // both operands are notified one after another, the result must not change in between
+        source.value = "b";
+        leaf1.notifyListener();
+        leaf2.notifyListener();
+        Assert.assertEquals(Arrays.asList(true, true), results);
+        Assert.assertTrue(expression.evaluate());
+
+        source.value = "c";
+        leaf2.notifyListener();
+        leaf1.notifyListener();
+        Assert.assertEquals(Arrays.asList(true, true, false, false), results);
+    }
+
+    @Test
+    public void testChangesDontInvalidateOtherRootContexts() {
+        Source source1 = new Source("a");
+        Leaf leaf1 = new Leaf(source1);
+        ToBooleanExpression expression1 = Expressions.equal(leaf1, ToStringExpression.literal("a"));
+        expression1.activate(Context.from(null, null), null);
+        Source source2 = new Source("a");
+        Leaf leaf2 = new Leaf(source2);
+        ToBooleanExpression expression2 = Expressions.equal(leaf2, ToStringExpression.literal("a"));
+        expression2.activate(Context.from(null, null), null);
+        Assert.assertTrue(expression1.evaluate());
+        Assert.assertTrue(expression2.evaluate());
+
+        source2.value = "b";
+        leaf2.notifyListener();
+        Assert.assertTrue(expression1.evaluate());
+        Assert.assertFalse(expression2.evaluate());
+        Assert.assertEquals(1, leaf1.evaluations);
+        Assert.assertEquals(2, leaf2.evaluations);
+    }
+
+    private static class Source {
+        private String value;
+
+        private Source(String value) {
+            this.value = value;
+        }
+    }
+
+    /**
+     * Operand reading the current value of the source, like a placeholder reading player data.
+     */
+    private static class Leaf implements ToStringExpression {
+        private final Source source;
+        private ExpressionUpdateListener listener;
+        private int evaluations;
+
+        private Leaf(Source source) {
+            this.source = source;
+        }
+
+        void notifyListener() {
+            if (listener != null) {
+                listener.onExpressionUpdate();
+            }
+        }
+
+        @Override
+        public String evaluate() {
+            evaluations++;
+            return source.value;
+        }
+
+        @Override
+        public void activate(@Nonnull Context context, @Nullable ExpressionUpdateListener listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        public void deactivate() {
+            this.listener = null;
+        }
+    }
+}
@@ -19,7 +19,10 @@ package de.codecrafter47.taboverlay.config.misc;
 
 import org.junit.Test;
 
+import java.io.IOException;
+
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 
 public class ChatFormatTest {
 
@@ -41,9 +44,102 @@ public class ChatFormatTest {
         assertEquals("{\"text\":\"\",\"extra\":[{\"text\":\"Test\",\"color\":\"#012345\"}]}", json);
     }
 
+    @Test
+    public void textJsonAppendable() throws IOException {
+        String text = "&aTest &l\"bold\"[font=minecraft:uniform] text";
+        StringBuilder sb = new StringBuilder();
+        ChatFormat.formattedTextToJson(text, sb);
+        assertEquals(ChatFormat.formattedTextToJson(text), sb.toString());
+    }
+
     @Test
     public void textLegacy() {
         String legacy = ChatFormat.formattedTextToLegacy("[font=minecraft:default]&aTest");
         assertEquals("§aTest", legacy);
     }
-}
\ No newline at end of file
+
+    private static final String[] FORMATTED_TEXTS = {
+            "",
+            "Hello &cWorld&r!",
+            "&aTest &l\"bold\"[font=minecraft:uniform] text",
+            "&#012345Test &lbold &oitalic",
+            "{#012345}Test §x§0§1§2§3§4§5hex",
+            "&k&mobf&nund&r plain",
+            "trailing&a&l",
+            "[font=minecraft:default]&aTest",
+            "quote \" backslash \\ newline \n",
+            "&lBold &aNot bold",
+            "ab&c&lcd",
+            "&l&l&l",
+    };
+
+    @Test
+    public void formattedTextWidth() {
+        for (String text : FORMATTED_TEXTS) {
+            assertEquals(text, ChatFormat.formattedTextLength(text), FormattedText.parse(text).getWidth(), 0.001f);
+        }
+    }
+
+    @Test
+    public void formattedTextCrop() {
+        for (String text : FORMATTED_TEXTS) {
+            FormattedText formattedText = FormattedText.parse(text);
+            for (float maxWidth = 0; maxWidth <= formattedText.getWidth() + 2; maxWidth += 0.5f) {
+                FormattedText cropped = formattedText.crop(maxWidth);
+                String expected = ChatFormat.cropFormattedText(text, maxWidth);
+                assertEquals(text + " cropped to " + maxWidth, expected, cropped.getText());
+                assertEquals(text + " cropped to " + maxWidth, ChatFormat.formattedTextLength(expected), cropped.getWidth(), 0.001f);
+                assertEquals(text + " cropped to " + maxWidth, ChatFormat.formattedTextToLegacy(expected), cropped.toLegacy());
+                assertEquals(text + " cropped to " + maxWidth, ChatFormat.formattedTextToJson(expected), cropped.toJson());
+            }
+        }
+    }
+
+    @Test
+    public void formattedTextCropKeepsFormatCodes() {
+        FormattedText text = FormattedText.parse("ab&c&lcd");
+        FormattedText cropped = text.crop(FormattedText.parse("ab").getWidth());
+        assertEquals("ab&c&l", cropped.getText());
+        assertEquals("ab§c§l", cropped.toLegacy());
+        assertSame(text, text.crop(text.getWidth()));
+    }
+
+    @Test
+    public void formattedTextLegacy() {
+        assertEquals("Hello §cWorld§r!", FormattedText.parse("Hello &cWorld&r!").toLegacy());
+        assertEquals("§aTest §l\"bold\" text", FormattedText.parse("&aTest &l\"bold\"[font=minecraft:uniform] text").toLegacy());
+        assertEquals("Test §lbold §oitalic", FormattedText.parse("&#012345Test &lbold &oitalic").toLegacy());
+        assertEquals("trailing§a§l", FormattedText.parse("trailing&a&l").toLegacy());
+        assertEquals("§aTest", FormattedText.parse("[font=minecraft:default]&aTest").toLegacy());
+    }
+
+    @Test
+    public void formattedTextJson() {
+        assertEquals("{\"text\":\"\",\"extra\":[{\"text\":\"Hello \",\"color\":\"white\"},{\"text\":\"World\",\"color\":\"red\"},{\"text\":\"!\",\"color\":\"white\"}]}",
+                FormattedText.parse("Hello &cWorld&r!").toJson());
+        assertEquals("{\"text\":\"\",\"extra\":[{\"text\":\"Test \",\"color\":\"green\"},{\"text\":\"\\\"bold\\\"\",\"color\":\"green\",\"bold\":\"true\"},{\"text\":\" text\",\"color\":\"green\",\"font\":\"minecraft:uniform\",\"bold\":\"true\"}]}",
+                FormattedText.parse("&aTest &l\"bold\"[font=minecraft:uniform] text").toJson());
+        assertEquals("{\"text\":\"\",\"extra\":[{\"text\":\"obf\",\"color\":\"white\",\"strikethrough\":\"true\",\"obfuscated\":\"true\"},{\"text\":\"und\",\"color\":\"white\",\"underlined\":\"true\",\"strikethrough\":\"true\",\"obfuscated\":\"true\"},{\"text\":\" plain\",\"color\":\"white\"}]}",
+                FormattedText.parse("&k&mobf&nund&r plain").toJson());
+        assertEquals("{\"text\":\"\",\"extra\":[{\"text\":\"trailing\",\"color\":\"white\"}]}",
+                FormattedText.parse("trailing&a&l").toJson());
+        assertEquals("{\"text\":\"\",\"extra\":[{\"text\":\"quote \\\" backslash \\\\ newline \\n\",\"color\":\"white\"}]}",
+                FormattedText.parse("quote \" backslash \\ newline \n").toJson());
+        assertEquals("{\"text\":\"\"}", FormattedText.parse("").toJson());
+    }
+
+    @Test
+    public void paddedTextWidthIsAdditive() {
+        // BasicComponentView adds up the widths of the left text, the padding and the center text
+        for (String left : FORMATTED_TEXTS) {
+            for (String center : FORMATTED_TEXTS) {
+                for (float length : new float[]{4f, 37.5f, 100f, 173.25f}) {
+                    String spaces = ChatFormat.createSpaces(length);
+                    float expected = ChatFormat.formattedTextLength(left + spaces + center);
+                    float sum = FormattedText.parse(left).getWidth() + ChatFormat.formattedTextLength(spaces) + FormattedText.parse(center).getWidth();
+                    assertEquals(left + "|" + center + "|" + length, expected, sum, 0.001f);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ *     Copyright (C) 2020 Florian Stober
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.codecrafter47.taboverlay.config.placeholder;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+public class SharedPlaceholderDataProviderRegistryTest {
+
+    private SharedPlaceholderDataProviderRegistry registry;
+    private List<CountingDataProvider> created;
+    private Supplier<PlaceholderDataProvider<String, String>> factory;
+
+    @Before
+    public void setup() {
+        registry = new SharedPlaceholderDataProviderRegistry();
+        created = new ArrayList<>();
+        factory = () -> {
+            CountingDataProvider dataProvider = new CountingDataProvider();
+            created.add(dataProvider);
+            return dataProvider;
+        };
+    }
+
+    @Test
+    public void testReferenceCounting() {
+        PlaceholderDataProvider<String, String> a = registry.createDataProvider(factory);
+        PlaceholderDataProvider<String, String> b = registry.createDataProvider(factory);
+        PlaceholderDataProvider<String, String> c = registry.createDataProvider(factory);
+        a.activate("x", () -> {
+        });
+        b.activate("x", () -> {
+        });
+        c.activate("y", () -> {
+        });
+        Assert.assertEquals(2, created.size());
+        CountingDataProvider shared = created.get(0);
+        Assert.assertEquals("x", a.getData());
+        Assert.assertEquals("x", b.getData());
+        Assert.assertEquals("y", c.getData());
+
+        a.deactivate();
+        Assert.assertTrue(shared.active);
+        b.deactivate();
+        Assert.assertFalse(shared.active);
+        Assert.assertEquals(1, shared.activations);
+        Assert.assertTrue(created.get(1).active);
+
+        // a released data provider is not reused
+        a.activate("x", () -> {
+        });
+        Assert.assertEquals(3, created.size());
+        Assert.assertTrue(created.get(2).active);
+    }
+
+    @Test
+    public void testReleaseWhileNotifying() {
+        List<String> notified = new ArrayList<>();
+        PlaceholderDataProvider<String, String> a = registry.createDataProvider(factory);
+        PlaceholderDataProvider<String, String> b = registry.createDataProvider(factory);
+        PlaceholderDataProvider<String, String> c = registry.createDataProvider(factory);
+        a.activate("x", () -> {
+            notified.add("a");
+            b.deactivate();
+        });
+        b.activate("x", () -> notified.add("b"));
+        c.activate("x", () -> notified.add("c"));
+
+        created.get(0).listener.run();
+        Assert.assertEquals(2, notified.size());
+        Assert.assertTrue(notified.contains("a"));
+        Assert.assertTrue(notified.contains("c"));
+        Assert.assertFalse(notified.contains("b"));
+        Assert.assertTrue(created.get(0).active);
+    }
+
+    private static class CountingDataProvider implements PlaceholderDataProvider<String, String> {
+        private String context;
+        private Runnable listener;
+        private boolean active;
+        private int activations;
+
+        @Override
+        public void activate(String context, Runnable listener) {
+            this.context = context;
+            this.listener = listener;
+            this.active = true;
+            this.activations++;
+        }
+
+        @Override
+        public void deactivate() {
+            this.active = false;
+        }
+
+        @Override
+        public String getData() {
+            return context;
+        }
+    }
+}
@@ -0,0 +1,226 @@
+/*
+ *     Copyright (C) 2020 Florian Stober
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.codecrafter47.taboverlay.config.player;
+
+import de.codecrafter47.data.api.DataKey;
+import de.codecrafter47.taboverlay.ManualScheduledExecutorService;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+
+public class JoinedPlayerProviderTest {
+
+    private ManualScheduledExecutorService executor;
+    private TestPlayerProvider source1;
+    private TestPlayerProvider source2;
+    private List<String> events;
+
+    @Before
+    public void setup() {
+        executor = new ManualScheduledExecutorService();
+        source1 = new TestPlayerProvider();
+        source2 = new TestPlayerProvider();
+        events = new ArrayList<>();
+    }
+
+    @Test
+    public void testSynchronousMode() {
+        Player a = new TestPlayer("a");
+        source1.addPlayer(a);
+        JoinedPlayerProvider provider = create(null);
+        Assert.assertEquals(Collections.singleton(a), new HashSet<>(provider.getPlayers()));
+
+        Player b = new TestPlayer("b");
+        source2.addPlayer(b);
+        source1.removePlayer(a);
+        Assert.assertEquals(Arrays.asList("+b", "-a"), events);
+    }
+
+    @Test
+    public void testSnapshotIsAppliedOnEventQueue() {
+        Player a = new TestPlayer("a");
+        Player b = new TestPlayer("b");
+        source1.addPlayer(a);
+        source2.addPlayer(b);
+        JoinedPlayerProvider provider = create(executor);
+        Assert.assertTrue(provider.getPlayers().isEmpty());
+
+        executor.runPending();
+        Assert.assertEquals(new HashSet<>(Arrays.asList(a, b)), new HashSet<>(provider.getPlayers()));
+    }
+
+    @Test
+    public void testChangesWhileTakingSnapshotAreNotLost() {
+        Player a = new TestPlayer("a");
+        Player b = new TestPlayer("b");
+        Player c = new TestPlayer("c");
+        source1.addPlayer(a);
+        // b joins and a leaves while the snapshot of source1 is taken, c joins source2 afterwards
+        source1.onGetPlayers = () -> {
+            source1.addPlayer(b);
+            source1.removePlayer(a);
+        };
+        source2.onGetPlayers = () -> source2.addPlayer(c);
+        JoinedPlayerProvider provider = create(executor);
+
+        executor.runPending();
+        Assert.assertEquals(new HashSet<>(Arrays.asList(b, c)), new HashSet<>(provider.getPlayers()));
+    }
+
+    @Test
+    public void testChangesAreDrainedOncePerTick() {
+        JoinedPlayerProvider provider = create(executor);
+        executor.runPending();
+
+        Player a = new TestPlayer("a");
+        Player b = new TestPlayer("b");
+        source1.addPlayer(a);
+        source2.addPlayer(b);
+        Assert.assertEquals(1, executor.getQueuedTaskCount());
+
+        executor.advance(49);
+        Assert.assertTrue(events.isEmpty());
+        Assert.assertTrue(provider.getPlayers().isEmpty());
+
+        executor.advance(1);
+        Assert.assertEquals(Arrays.asList("+a", "+b"), events);
+        Assert.assertEquals(0, executor.getQueuedTaskCount());
+    }
+
+    @Test
+    public void testChangesWithinTickAreCoalesced() {
+        Player a = new TestPlayer("a");
+        Player b = new TestPlayer("b");
+        Player c = new TestPlayer("c");
+        source1.addPlayer(c);
+        JoinedPlayerProvider provider = create(executor);
+        executor.runPending();
+        events.clear();
+
+        // a joins and leaves, b joins, c leaves and joins again
+        source1.addPlayer(a);
+        source1.removePlayer(a);
+        source2.addPlayer(b);
+        source1.removePlayer(c);
+        source1.addPlayer(c);
+        executor.advance(50);
+
+        Assert.assertEquals(Collections.singletonList("+b"), events);
+        Assert.assertEquals(new HashSet<>(Arrays.asList(b, c)), new HashSet<>(provider.getPlayers()));
+    }
+
+    private JoinedPlayerProvider create(ManualScheduledExecutorService eventQueue) {
+        JoinedPlayerProvider provider = new JoinedPlayerProvider(Arrays.asList(source1, source2), eventQueue);
+        provider.registerListener(new PlayerProvider.Listener() {
+            @Override
+            public void onPlayerAdded(Player player) {
+                events.add("+" + player.getName());
+            }
+
+            @Override
+            public void onPlayerRemoved(Player player) {
+                events.add("-" + player.getName());
+            }
+        });
+        return provider;
+    }
+
+    private static class TestPlayerProvider implements PlayerProvider {
+        private final List<Player> players = new ArrayList<>();
+        private final List<Listener> listeners = new ArrayList<>();
+        private Runnable onGetPlayers = null;
+
+        void addPlayer(Player player) {
+            players.add(player);
+            for (Listener listener : new ArrayList<>(listeners)) {
+                listener.onPlayerAdded(player);
+            }
+        }
+
+        void removePlayer(Player player) {
+            players.remove(player);
+            for (Listener listener : new ArrayList<>(listeners)) {
+                listener.onPlayerRemoved(player);
+            }
+        }
+
+        @Override
+        public Collection<? extends Player> getPlayers() {
+            List<Player> snapshot = new ArrayList<>(players);
+            if (onGetPlayers != null) {
+                Runnable action = onGetPlayers;
+                onGetPlayers = null;
+                action.run();
+            }
+            return snapshot;
+        }
+
+        @Override
+        public void registerListener(Listener listener) {
+            listeners.add(listener);
+        }
+
+        @Override
+        public void unregisterListener(Listener listener) {
+            listeners.remove(listener);
+        }
+    }
+
+    private static class TestPlayer implements Player {
+        private final String name;
+        private final UUID uuid = UUID.randomUUID();
+
+        private TestPlayer(String name) {
+            this.name = name;
+        }
+
+        @Nonnull
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Nonnull
+        @Override
+        public UUID getUniqueID() {
+            return uuid;
+        }
+
+        @Override
+        public <V> V get(DataKey<V> key) {
+            return null;
+        }
+
+        @Override
+        public <T> void addDataChangeListener(DataKey<T> key, Runnable listener) {
+        }
+
+        @Override
+        public <T> void removeDataChangeListener(DataKey<T> key, Runnable listener) {
+        }
+    }
+}
@@ -0,0 +1,239 @@
+/*
+ *     Copyright (C) 2020 Florian Stober
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.codecrafter47.taboverlay.config.player;
+
+import de.codecrafter47.data.api.DataKey;
+import de.codecrafter47.data.api.TypeToken;
+import de.codecrafter47.taboverlay.ManualScheduledExecutorService;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.annotation.Nonnull;
+import java.lang.reflect.Constructor;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+public class MirroredPlayerProviderTest {
+
+    private static final DataKey<String> GROUP = createDataKey();
+
+    private ManualScheduledExecutorService mainQueue;
+    private ManualScheduledExecutorService targetLoop;
+    private TestPlayerProvider source;
+    private TestPlayer alice;
+
+    @Before
+    public void setup() {
+        mainQueue = new ManualScheduledExecutorService();
+        targetLoop = new ManualScheduledExecutorService();
+        source = new TestPlayerProvider();
+        alice = new TestPlayer("Alice", "admin");
+        source.players.add(alice);
+    }
+
+    @Test
+    public void testPlayerIsPublishedWithSnapshotOfInitialKeys() {
+        MirroredPlayerProvider provider = new MirroredPlayerProvider(source, mainQueue, targetLoop, Collections.singletonList(GROUP));
+        List<String> groups = new ArrayList<>();
+        provider.registerListener(new GroupRecordingListener(groups));
+        mainQueue.runPending();
+        targetLoop.runPending();
+        Assert.assertEquals(Collections.singletonList("admin"), groups);
+        Assert.assertEquals(1, alice.listeners.size());
+    }
+
+    @Test
+    public void testKeyInUseIsMirroredForNewPlayers() {
+        MirroredPlayerProvider provider = new MirroredPlayerProvider(source, mainQueue, targetLoop, Collections.emptyList());
+        mainQueue.runPending();
+        targetLoop.runPending();
+        Player mirroredAlice = provider.getPlayers().iterator().next();
+        Assert.assertNull(mirroredAlice.get(GROUP));
+
+        // first use of the key, the value is absent until the snapshot arrives
+        int[] updates = new int[1];
+        mirroredAlice.addDataChangeListener(GROUP, () -> updates[0]++);
+        mainQueue.runPending();
+        targetLoop.runPending();
+        Assert.assertEquals(1, updates[0]);
+        Assert.assertEquals("admin", mirroredAlice.get(GROUP));
+
+        // players added later are seeded with the key
+        List<String> groups = new ArrayList<>();
+        provider.registerListener(new GroupRecordingListener(groups));
+        source.add(new TestPlayer("Bob", "default"));
+        targetLoop.runPending();
+        Assert.assertEquals(Collections.singletonList("default"), groups);
+    }
+
+    @Test
+    public void testDataChangeIsForwarded() {
+        MirroredPlayerProvider provider = new MirroredPlayerProvider(source, mainQueue, targetLoop, Collections.singletonList(GROUP));
+        mainQueue.runPending();
+        targetLoop.runPending();
+        Player mirroredAlice = provider.getPlayer(alice);
+        int[] updates = new int[1];
+        mirroredAlice.addDataChangeListener(GROUP, () -> updates[0]++);
+
+        alice.setGroup("moderator");
+        Assert.assertEquals("admin", mirroredAlice.get(GROUP));
+        targetLoop.runPending();
+        Assert.assertEquals("moderator", mirroredAlice.get(GROUP));
+        Assert.assertEquals(1, updates[0]);
+    }
+
+    @Test
+    public void testRemovedPlayerIsUnsubscribed() {
+        MirroredPlayerProvider provider = new MirroredPlayerProvider(source, mainQueue, targetLoop, Collections.singletonList(GROUP));
+        mainQueue.runPending();
+        targetLoop.runPending();
+        Player mirroredAlice = provider.getPlayer(alice);
+
+        source.remove(alice);
+        Assert.assertTrue(alice.listeners.isEmpty());
+        Assert.assertTrue(provider.getPlayers().contains(mirroredAlice));
+        targetLoop.runPending();
+        Assert.assertTrue(provider.getPlayers().isEmpty());
+    }
+
+    /**
+     * Data keys are created by the platform, the constructor is not part of the api used by this library.
+     */
+    @SuppressWarnings("unchecked")
+    private static DataKey<String> createDataKey() {
+        try {
+            Constructor<?> constructor = DataKey.class.getConstructors()[0];
+            Object[] args = new Object[constructor.getParameterCount()];
+            for (int i = 0; i < args.length; i++) {
+                Class<?> type = constructor.getParameterTypes()[i];
+                if (type == String.class) {
+                    args[i] = "test:group";
+                } else if (type == TypeToken.class) {
+                    args[i] = TypeToken.STRING;
+                }
+            }
+            return (DataKey<String>) constructor.newInstance(args);
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private static class GroupRecordingListener implements PlayerProvider.Listener {
+        private final List<String> groups;
+
+        private GroupRecordingListener(List<String> groups) {
+            this.groups = groups;
+        }
+
+        @Override
+        public void onPlayerAdded(Player player) {
+            groups.add(player.get(GROUP));
+        }
+
+        @Override
+        public void onPlayerRemoved(Player player) {
+        }
+    }
+
+    /**
+     * Player provider of the main queue, tests call it as if they were running on the main queue.
+     */
+    private static class TestPlayerProvider implements PlayerProvider {
+        private final List<Player> players = new ArrayList<>();
+        private final List<Listener> listeners = new ArrayList<>();
+
+        private void add(Player player) {
+            players.add(player);
+            for (Listener listener : listeners) {
+                listener.onPlayerAdded(player);
+            }
+        }
+
+        private void remove(Player player) {
+            players.remove(player);
+            for (Listener listener : listeners) {
+                listener.onPlayerRemoved(player);
+            }
+        }
+
+        @Override
+        public Collection<? extends Player> getPlayers() {
+            return players;
+        }
+
+        @Override
+        public void registerListener(Listener listener) {
+            listeners.add(listener);
+        }
+
+        @Override
+        public void unregisterListener(Listener listener) {
+            listeners.remove(listener);
+        }
+    }
+
+    private static class TestPlayer implements Player {
+        private final String name;
+        private final UUID uuid = UUID.randomUUID();
+        private final List<Runnable> listeners = new ArrayList<>();
+        private String group;
+
+        private TestPlayer(String name, String group) {
+            this.name = name;
+            this.group = group;
+        }
+
+        private void setGroup(String group) {
+            this.group = group;
+            for (Runnable listener : new ArrayList<>(listeners)) {
+                listener.run();
+            }
+        }
+
+        @Nonnull
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Nonnull
+        @Override
+        public UUID getUniqueID() {
+            return uuid;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <V> V get(DataKey<V> key) {
+            return GROUP.equals(key) ? (V) group : null;
+        }
+
+        @Override
+        public <T> void addDataChangeListener(DataKey<T> key, Runnable listener) {
+            listeners.add(listener);
+        }
+
+        @Override
+        public <T> void removeDataChangeListener(DataKey<T> key, Runnable listener) {
+            listeners.remove(listener);
+        }
+    }
+}
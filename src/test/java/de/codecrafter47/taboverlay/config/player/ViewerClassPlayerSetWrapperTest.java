@@ -0,0 +1,271 @@
+/*
+ *     Copyright (C) 2020 Florian Stober
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.codecrafter47.taboverlay.config.player;
+
+import de.codecrafter47.data.api.DataKey;
+import de.codecrafter47.data.api.TypeToken;
+import de.codecrafter47.taboverlay.ManualScheduledExecutorService;
+import de.codecrafter47.taboverlay.config.context.Context;
+import de.codecrafter47.taboverlay.config.dsl.PlayerSetConfiguration;
+import de.codecrafter47.taboverlay.config.expression.ExpressionUpdateListener;
+import de.codecrafter47.taboverlay.config.expression.ToBooleanExpression;
+import de.codecrafter47.taboverlay.config.expression.ToStringExpression;
+import de.codecrafter47.taboverlay.config.expression.template.AbstractBooleanExpressionTemplate;
+import de.codecrafter47.taboverlay.config.expression.template.AbstractStringExpressionTemplate;
+import de.codecrafter47.taboverlay.config.template.PlayerSetTemplate;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.lang.reflect.Constructor;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.logging.Logger;
+
+public class ViewerClassPlayerSetWrapperTest {
+
+    private static final DataKey<String> GROUP = createDataKey();
+
+    private final Logger logger = Logger.getLogger(ViewerClassPlayerSetWrapperTest.class.getName());
+    private ManualScheduledExecutorService executor;
+    private GlobalPlayerSetFactory globalPlayerSetFactory;
+    private PlayerSetTemplate template;
+
+    @Before
+    public void setup() {
+        executor = new ManualScheduledExecutorService();
+        TestPlayerProvider playerProvider = new TestPlayerProvider();
+        playerProvider.players.add(new TestPlayer("Alice", "admin"));
+        playerProvider.players.add(new TestPlayer("Bob", "admin"));
+        globalPlayerSetFactory = new GlobalPlayerSetFactory(playerProvider, executor, logger, null, null);
+        template = PlayerSetTemplate.builder()
+                .hiddenPlayersVisibility(PlayerSetConfiguration.Visibility.VISIBLE)
+                .predicate(new ViewerGroupPredicate())
+                .build();
+        Assert.assertEquals(Collections.singletonList(GROUP), template.getViewerDataKeys());
+    }
+
+    @Test
+    public void testViewerDependentPartitionSeesViewer() {
+        PlayerSetPartition partition = createWrapper("Carol").getPartition(new PartitionFunction(context -> context.getViewer().getName(), true));
+        partition.addListener(new NoopPartitionListener());
+        executor.runPending();
+
+        Assert.assertEquals(Collections.singleton("Carol"), getPartitionNames(partition));
+        Assert.assertEquals(2, partition.getPartition("Carol").getCount());
+    }
+
+    @Test
+    public void testViewerIndependentPartitionIsShared() {
+        PartitionFunction partitionFunction = new PartitionFunction(context -> context.getPlayer().getName(), false);
+        PlayerSetPartition partition1 = createWrapper("Carol").getPartition(partitionFunction);
+        PlayerSetPartition partition2 = createWrapper("Dave").getPartition(partitionFunction);
+        partition1.addListener(new NoopPartitionListener());
+        partition2.addListener(new NoopPartitionListener());
+        executor.runPending();
+
+        Assert.assertEquals(new HashSet<>(Arrays.asList("Alice", "Bob")), getPartitionNames(partition1));
+        Assert.assertSame(partition1.getPartition("Alice"), partition2.getPartition("Alice"));
+    }
+
+    private ViewerClassPlayerSetWrapper createWrapper(String viewerName) {
+        Context context = Context.from(new TestPlayer(viewerName, "admin"), executor);
+        return new ViewerClassPlayerSetWrapper(globalPlayerSetFactory, context, logger, template);
+    }
+
+    private static Set<String> getPartitionNames(PlayerSetPartition partition) {
+        Set<String> names = new HashSet<>();
+        for (Map.Entry<String, ? extends PlayerSet> entry : partition.getPartitions()) {
+            names.add(entry.getKey());
+        }
+        return names;
+    }
+
+    /**
+     * Data keys are created by the platform, the constructor is not part of the api used by this library.
+     */
+    @SuppressWarnings("unchecked")
+    private static DataKey<String> createDataKey() {
+        try {
+            Constructor<?> constructor = DataKey.class.getConstructors()[0];
+            Object[] args = new Object[constructor.getParameterCount()];
+            for (int i = 0; i < args.length; i++) {
+                Class<?> type = constructor.getParameterTypes()[i];
+                if (type == String.class) {
+                    args[i] = "test:group";
+                } else if (type == TypeToken.class) {
+                    args[i] = TypeToken.STRING;
+                }
+            }
+            return (DataKey<String>) constructor.newInstance(args);
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    /**
+     * Selects all players in the same group as the viewer.
+     */
+    private static class ViewerGroupPredicate extends AbstractBooleanExpressionTemplate {
+
+        @Override
+        public ToBooleanExpression instantiateWithBooleanResult() {
+            return new ToBooleanExpression() {
+                private Context context;
+
+                @Override
+                public boolean evaluate() {
+                    return context.getViewer().get(GROUP).equals(context.getPlayer().get(GROUP));
+                }
+
+                @Override
+                public void activate(@Nonnull Context context, @Nullable ExpressionUpdateListener listener) {
+                    this.context = context;
+                }
+
+                @Override
+                public void deactivate() {
+                    this.context = null;
+                }
+            };
+        }
+
+        @Override
+        public boolean requiresViewerContext() {
+            return true;
+        }
+
+        @Override
+        public boolean collectViewerDataKeys(Set<DataKey<?>> keys) {
+            keys.add(GROUP);
+            return true;
+        }
+    }
+
+    private static class PartitionFunction extends AbstractStringExpressionTemplate {
+        private final Function<Context, String> function;
+        private final boolean requiresViewerContext;
+
+        private PartitionFunction(Function<Context, String> function, boolean requiresViewerContext) {
+            this.function = function;
+            this.requiresViewerContext = requiresViewerContext;
+        }
+
+        @Override
+        public ToStringExpression instantiateWithStringResult() {
+            return new ToStringExpression() {
+                private Context context;
+
+                @Override
+                public String evaluate() {
+                    return function.apply(context);
+                }
+
+                @Override
+                public void activate(@Nonnull Context context, @Nullable ExpressionUpdateListener listener) {
+                    this.context = context;
+                }
+
+                @Override
+                public void deactivate() {
+                    this.context = null;
+                }
+            };
+        }
+
+        @Override
+        public boolean requiresViewerContext() {
+            return requiresViewerContext;
+        }
+    }
+
+    private static class NoopPartitionListener implements PlayerSetPartition.Listener {
+
+        @Override
+        public void onPartitionAdded(String id, PlayerSet playerSet) {
+        }
+
+        @Override
+        public void onPartitionRemoved(String id) {
+        }
+    }
+
+    private static class TestPlayerProvider implements PlayerProvider {
+        private final List<Player> players = new ArrayList<>();
+
+        @Override
+        public Collection<? extends Player> getPlayers() {
+            return players;
+        }
+
+        @Override
+        public void registerListener(Listener listener) {
+        }
+
+        @Override
+        public void unregisterListener(Listener listener) {
+        }
+    }
+
+    private static class TestPlayer implements Player {
+        private final String name;
+        private final String group;
+        private final UUID uuid = UUID.randomUUID();
+
+        private TestPlayer(String name, String group) {
+            this.name = name;
+            this.group = group;
+        }
+
+        @Nonnull
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Nonnull
+        @Override
+        public UUID getUniqueID() {
+            return uuid;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <V> V get(DataKey<V> key) {
+            return GROUP.equals(key) ? (V) group : null;
+        }
+
+        @Override
+        public <T> void addDataChangeListener(DataKey<T> key, Runnable listener) {
+        }
+
+        @Override
+        public <T> void removeDataChangeListener(DataKey<T> key, Runnable listener) {
+        }
+    }
+}
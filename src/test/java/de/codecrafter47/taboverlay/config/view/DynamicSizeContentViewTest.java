@@ -0,0 +1,278 @@
+/*
+ *     Copyright (C) 2020 Florian Stober
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.codecrafter47.taboverlay.config.view;
+
+import de.codecrafter47.data.api.DataKey;
+import de.codecrafter47.taboverlay.Icon;
+import de.codecrafter47.taboverlay.config.context.Context;
+import de.codecrafter47.taboverlay.config.dsl.PlayerSetConfiguration;
+import de.codecrafter47.taboverlay.config.dsl.components.BasicComponentConfiguration;
+import de.codecrafter47.taboverlay.config.expression.template.ConstantExpressionTemplate;
+import de.codecrafter47.taboverlay.config.misc.ChatFormat;
+import de.codecrafter47.taboverlay.config.player.GlobalPlayerSetFactory;
+import de.codecrafter47.taboverlay.config.player.Player;
+import de.codecrafter47.taboverlay.config.player.PlayerProvider;
+import de.codecrafter47.taboverlay.config.player.PlayerSetFactory;
+import de.codecrafter47.taboverlay.config.template.DynamicSizeTabOverlayTemplate;
+import de.codecrafter47.taboverlay.config.template.PlayerOrderTemplate;
+import de.codecrafter47.taboverlay.config.template.PlayerSetTemplate;
+import de.codecrafter47.taboverlay.config.template.component.BasicComponentTemplate;
+import de.codecrafter47.taboverlay.config.template.icon.IconTemplate;
+import de.codecrafter47.taboverlay.config.template.ping.PingTemplate;
+import de.codecrafter47.taboverlay.config.template.text.ConstantTextTemplate;
+import de.codecrafter47.taboverlay.handler.SimpleTabOverlay;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.logging.Logger;
+
+public class DynamicSizeContentViewTest {
+
+    private ScheduledExecutorService executor;
+    private TestPlayerProvider playerProvider;
+    private TestTabOverlay tabOverlay;
+    private DynamicSizeContentView view;
+
+    @Before
+    public void setup() throws Exception {
+        executor = Executors.newSingleThreadScheduledExecutor();
+        playerProvider = new TestPlayerProvider();
+        tabOverlay = new TestTabOverlay();
+        Logger logger = Logger.getLogger(DynamicSizeContentViewTest.class.getName());
+
+        DynamicSizeTabOverlayTemplate template = new DynamicSizeTabOverlayTemplate();
+        template.setPlayerSet(PlayerSetTemplate.builder()
+                .hiddenPlayersVisibility(PlayerSetConfiguration.Visibility.VISIBLE)
+                .predicate(ConstantExpressionTemplate.of(true))
+                .build());
+        template.setPlayerOrder(new PlayerOrderTemplate(Collections.emptyList()));
+        template.setPlayerComponent(BasicComponentTemplate.builder()
+                .leftText(new ConstantTextTemplate("left"))
+                .rightText(new ConstantTextTemplate("right"))
+                .icon(IconTemplate.STEVE)
+                .ping(PingTemplate.ZERO)
+                .longText(BasicComponentConfiguration.LongTextBehaviour.DISPLAY_ALL)
+                .build());
+        template.setMorePlayersComponent(BasicComponentTemplate.builder()
+                .leftText(new ConstantTextTemplate("more"))
+                .icon(IconTemplate.STEVE)
+                .ping(PingTemplate.ZERO)
+                .longText(BasicComponentConfiguration.LongTextBehaviour.DISPLAY_ALL)
+                .build());
+
+        call(() -> {
+            Context context = Context.from(null, executor);
+            GlobalPlayerSetFactory globalPlayerSetFactory = new GlobalPlayerSetFactory(playerProvider, executor, logger, null, null);
+            context.setPlayerSetFactory(new PlayerSetFactory(playerProvider, globalPlayerSetFactory, logger, context));
+            view = new DynamicSizeContentView(template, tabOverlay);
+            view.activate(context, null);
+            return null;
+        });
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        call(() -> {
+            view.deactivate();
+            return null;
+        });
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testSlotWidthChangesWhenGrowing() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            playerProvider.addPlayer();
+        }
+        awaitSize(20);
+        assertSlotWidth(360);
+
+        playerProvider.addPlayer();
+        awaitSize(21);
+        assertSlotWidth(180);
+    }
+
+    private void assertSlotWidth(int slotWidth) throws Exception {
+        List<String> texts = call(() -> new ArrayList<>(tabOverlay.texts.subList(0, tabOverlay.size)));
+        for (String text : texts) {
+            Assert.assertEquals(text, slotWidth, ChatFormat.formattedTextLength(text), 2f);
+        }
+    }
+
+    private void awaitSize(int size) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (call(() -> tabOverlay.size) != size) {
+            Assert.assertTrue("tab overlay did not reach size " + size, System.currentTimeMillis() < deadline);
+            Thread.sleep(10);
+        }
+        // let pending updates complete
+        Thread.sleep(100);
+    }
+
+    private <T> T call(Callable<T> task) throws Exception {
+        return executor.submit(task).get();
+    }
+
+    private class TestPlayerProvider implements PlayerProvider {
+        private final List<Player> players = new ArrayList<>();
+        private final List<Listener> listeners = new ArrayList<>();
+
+        void addPlayer() throws Exception {
+            call(() -> {
+                Player player = new TestPlayer("Player" + players.size());
+                players.add(player);
+                for (Listener listener : new ArrayList<>(listeners)) {
+                    listener.onPlayerAdded(player);
+                }
+                return null;
+            });
+        }
+
+        @Override
+        public Collection<? extends Player> getPlayers() {
+            return players;
+        }
+
+        @Override
+        public void registerListener(Listener listener) {
+            listeners.add(listener);
+        }
+
+        @Override
+        public void unregisterListener(Listener listener) {
+            listeners.remove(listener);
+        }
+    }
+
+    private static class TestPlayer implements Player {
+        private final String name;
+        private final UUID uuid = UUID.randomUUID();
+
+        private TestPlayer(String name) {
+            this.name = name;
+        }
+
+        @Nonnull
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Nonnull
+        @Override
+        public UUID getUniqueID() {
+            return uuid;
+        }
+
+        @Override
+        public <V> V get(DataKey<V> key) {
+            return null;
+        }
+
+        @Override
+        public <T> void addDataChangeListener(DataKey<T> key, Runnable listener) {
+        }
+
+        @Override
+        public <T> void removeDataChangeListener(DataKey<T> key, Runnable listener) {
+        }
+    }
+
+    private static class TestTabOverlay implements SimpleTabOverlay {
+        private final List<String> texts = new ArrayList<>(Collections.nCopies(80, ""));
+        private int size = 0;
+
+        @Override
+        public int getSize() {
+            return size;
+        }
+
+        @Override
+        public int getMaxSize() {
+            return 80;
+        }
+
+        @Override
+        public void setSize(int size) {
+            this.size = size;
+        }
+
+        @Override
+        public void setSlot(int index, UUID uuid, @Nonnull Icon icon, @Nonnull String text, int ping) {
+            setText(index, text);
+        }
+
+        @Override
+        public void setSlot(int index, UUID uuid, @Nonnull Icon icon, @Nonnull String text, char alternateColorChar, int ping) {
+            setText(index, text, alternateColorChar);
+        }
+
+        @Override
+        public void setUuid(int index, UUID uuid) {
+        }
+
+        @Override
+        public void setIcon(int index, @Nonnull Icon icon) {
+        }
+
+        @Override
+        public void setText(int index, @Nonnull String text) {
+            checkIndex(index);
+            texts.set(index, text);
+        }
+
+        @Override
+        public void setText(int index, @Nonnull String text, char alternateColorChar) {
+            setText(index, text);
+        }
+
+        @Override
+        public void setPing(int index, int ping) {
+        }
+
+        private void checkIndex(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("index " + index + " size " + size);
+            }
+        }
+
+        @Override
+        public boolean isValid() {
+            return true;
+        }
+
+        @Override
+        public void beginBatchModification() {
+        }
+
+        @Override
+        public void completeBatchModification() {
+        }
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ *     Copyright (C) 2020 Florian Stober
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.codecrafter47.taboverlay.config.view.components;
+
+import de.codecrafter47.taboverlay.config.context.Context;
+import de.codecrafter47.taboverlay.config.context.ContextKeys;
+import de.codecrafter47.taboverlay.config.template.icon.IconTemplate;
+import de.codecrafter47.taboverlay.config.template.ping.PingTemplate;
+import de.codecrafter47.taboverlay.config.template.text.TextTemplate;
+import de.codecrafter47.taboverlay.config.view.AbstractActiveElement;
+import de.codecrafter47.taboverlay.config.view.text.TextView;
+import de.codecrafter47.taboverlay.config.view.text.TextViewUpdateListener;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.List;
+
+public class DefaultSlotRegistryTest {
+
+    private Context context;
+    private List<TestTextView> created;
+    private TextTemplate template;
+
+    @Before
+    public void setup() {
+        context = Context.from(null, null);
+        context.setCustomObject(ContextKeys.DEFAULT_SLOT_REGISTRY, new DefaultSlotRegistry());
+        created = new ArrayList<>();
+        template = new TextTemplate() {
+            @Nonnull
+            @Override
+            public TextView instantiate() {
+                TestTextView textView = new TestTextView();
+                created.add(textView);
+                return textView;
+            }
+
+            @Override
+            public boolean requiresViewerContext() {
+                return false;
+            }
+        };
+    }
+
+    @Test
+    public void testSharedPerContextInstance() {
+        DefaultSlotHandler a = createHandler();
+        DefaultSlotHandler b = createHandler();
+        DefaultSlotHandler c = createHandler();
+        a.activate(context, new RecordingListener("a", null));
+        b.activate(context, new RecordingListener("b", null));
+        c.activate(context.clone(), new RecordingListener("c", null));
+        Assert.assertEquals(2, created.size());
+
+        a.deactivate();
+        Assert.assertTrue(created.get(0).isActive());
+        b.deactivate();
+        Assert.assertFalse(created.get(0).isActive());
+        Assert.assertTrue(created.get(1).isActive());
+        c.deactivate();
+    }
+
+    @Test
+    public void testReleaseWhileNotifying() {
+        List<String> notified = new ArrayList<>();
+        DefaultSlotHandler a = createHandler();
+        DefaultSlotHandler b = createHandler();
+        DefaultSlotHandler c = createHandler();
+        a.activate(context, new RecordingListener("a", notified) {
+            @Override
+            public void onDefaultSlotTextUpdated() {
+                super.onDefaultSlotTextUpdated();
+                b.deactivate();
+            }
+        });
+        b.activate(context, new RecordingListener("b", notified));
+        c.activate(context, new RecordingListener("c", notified));
+
+        created.get(0).update();
+        Assert.assertEquals(2, notified.size());
+        Assert.assertTrue(notified.contains("a"));
+        Assert.assertTrue(notified.contains("c"));
+        Assert.assertTrue(created.get(0).isActive());
+    }
+
+    private DefaultSlotHandler createHandler() {
+        return new DefaultSlotHandler(template, PingTemplate.ZERO, IconTemplate.STEVE);
+    }
+
+    private static class RecordingListener implements DefaultSlotHandler.Listener {
+        private final String name;
+        private final List<String> notified;
+
+        private RecordingListener(String name, List<String> notified) {
+            this.name = name;
+            this.notified = notified;
+        }
+
+        @Override
+        public void onDefaultSlotTextUpdated() {
+            notified.add(name);
+        }
+
+        @Override
+        public void onDefaultSlotPingUpdated() {
+        }
+
+        @Override
+        public void onDefaultSlotIconUpdated() {
+        }
+    }
+
+    private static class TestTextView extends AbstractActiveElement<TextViewUpdateListener> implements TextView {
+
+        @Override
+        protected void onActivation() {
+        }
+
+        @Override
+        protected void onDeactivation() {
+        }
+
+        @Override
+        public String getText() {
+            return "text";
+        }
+
+        void update() {
+            getListener().onTextUpdated();
+        }
+    }
+}
@@ -0,0 +1,312 @@
+/*
+ *     Copyright (C) 2020 Florian Stober
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.codecrafter47.taboverlay.config.view.components;
+
+import de.codecrafter47.data.api.DataKey;
+import de.codecrafter47.taboverlay.Icon;
+import de.codecrafter47.taboverlay.config.area.Area;
+import de.codecrafter47.taboverlay.config.area.RectangularArea;
+import de.codecrafter47.taboverlay.config.context.Context;
+import de.codecrafter47.taboverlay.config.dsl.components.BasicComponentConfiguration;
+import de.codecrafter47.taboverlay.config.player.OrderedPlayerSet;
+import de.codecrafter47.taboverlay.config.player.Player;
+import de.codecrafter47.taboverlay.config.template.component.BasicComponentTemplate;
+import de.codecrafter47.taboverlay.config.template.icon.IconTemplate;
+import de.codecrafter47.taboverlay.config.template.ping.PingTemplate;
+import de.codecrafter47.taboverlay.config.template.text.ConstantTextTemplate;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+public class PlayersComponentViewTest {
+
+    private static final String DEFAULT_TEXT = "default";
+
+    private TestPlayerSet playerSet;
+    private RecordingArea area;
+    private ParentView parent;
+
+    @Before
+    public void setup() {
+        playerSet = new TestPlayerSet();
+        playerSet.players.add(new TestPlayer("Player0"));
+        playerSet.players.add(new TestPlayer("Player1"));
+        area = new RecordingArea(8);
+
+        BasicComponentTemplate playerComponent = BasicComponentTemplate.builder()
+                .leftText(new ConstantTextTemplate("player"))
+                .icon(IconTemplate.STEVE)
+                .ping(PingTemplate.ZERO)
+                .longText(BasicComponentConfiguration.LongTextBehaviour.DISPLAY_ALL)
+                .build();
+        PlayersComponentView view = new PlayersComponentView(playerSet, playerComponent, 1, playerComponent, 0,
+                IconTemplate.STEVE, new ConstantTextTemplate(DEFAULT_TEXT), PingTemplate.ZERO);
+        parent = new ParentView(view);
+        parent.activate(Context.from(null, null), null);
+        parent.updateArea(area);
+    }
+
+    @After
+    public void tearDown() {
+        parent.deactivate();
+    }
+
+    @Test
+    public void testInitialLayout() {
+        Assert.assertEquals(Arrays.asList(0, 0, 1, 1, 1, 1, 1, 1), area.defaultSlotWrites());
+    }
+
+    @Test
+    public void testPlayerAddedOnlyOverwritesNewSlot() {
+        area.clear();
+        playerSet.addPlayer(new TestPlayer("Player2"));
+        Assert.assertEquals(Arrays.asList(0, 0, 0, 0, 0, 0, 0, 0), area.defaultSlotWrites());
+        Assert.assertNotEquals(DEFAULT_TEXT, area.texts[2]);
+    }
+
+    @Test
+    public void testPlayerRemovedOnlyWritesFreedSlot() {
+        area.clear();
+        playerSet.removePlayer(0);
+        Assert.assertEquals(Arrays.asList(0, 1, 0, 0, 0, 0, 0, 0), area.defaultSlotWrites());
+    }
+
+    @Test
+    public void testUnchangedAreaWritesNothing() {
+        area.clear();
+        parent.updateArea(area);
+        Assert.assertEquals(Arrays.asList(0, 0, 0, 0, 0, 0, 0, 0), area.defaultSlotWrites());
+    }
+
+    @Test
+    public void testNewAreaWritesAllDefaultSlots() {
+        area.clear();
+        parent.updateArea(area.createChild(1, 6));
+        Assert.assertEquals(Arrays.asList(0, 0, 0, 1, 1, 1, 1, 0), area.defaultSlotWrites());
+    }
+
+    /**
+     * Lays out its only child again using the same area, like the containers do.
+     */
+    private static class ParentView extends ComponentView {
+        private final ComponentView child;
+
+        private ParentView(ComponentView child) {
+            this.child = child;
+        }
+
+        @Override
+        protected void onActivation() {
+            super.onActivation();
+            child.activate(getContext(), this);
+        }
+
+        @Override
+        protected void onAreaUpdated() {
+            child.updateArea(getArea());
+        }
+
+        @Override
+        protected void requestLayoutUpdate(ComponentView source) {
+            onAreaUpdated();
+        }
+
+        @Override
+        public int getMinSize() {
+            return child.getMinSize();
+        }
+
+        @Override
+        public int getPreferredSize() {
+            return child.getPreferredSize();
+        }
+
+        @Override
+        public int getMaxSize() {
+            return child.getMaxSize();
+        }
+
+        @Override
+        public boolean isBlockAligned() {
+            return child.isBlockAligned();
+        }
+
+        @Override
+        protected void onDeactivation() {
+            child.deactivate();
+            super.onDeactivation();
+        }
+    }
+
+    private static class TestPlayerSet implements OrderedPlayerSet {
+        private final List<Player> players = new ArrayList<>();
+        private final List<Listener> listeners = new ArrayList<>();
+
+        void addPlayer(Player player) {
+            players.add(player);
+            for (Listener listener : new ArrayList<>(listeners)) {
+                listener.onUpdate(true);
+            }
+        }
+
+        void removePlayer(int index) {
+            Player player = players.remove(index);
+            for (Listener listener : new ArrayList<>(listeners)) {
+                listener.onPlayerRemoved(player);
+            }
+        }
+
+        @Override
+        public int getCount() {
+            return players.size();
+        }
+
+        @Override
+        public void addListener(Listener listener) {
+            listeners.add(listener);
+        }
+
+        @Override
+        public void removeListener(Listener listener) {
+            listeners.remove(listener);
+        }
+
+        @Override
+        public Player getPlayer(int index) {
+            return players.get(index);
+        }
+    }
+
+    private static class TestPlayer implements Player {
+        private final String name;
+        private final UUID uuid = UUID.randomUUID();
+
+        private TestPlayer(String name) {
+            this.name = name;
+        }
+
+        @Nonnull
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Nonnull
+        @Override
+        public UUID getUniqueID() {
+            return uuid;
+        }
+
+        @Override
+        public <V> V get(DataKey<V> key) {
+            return null;
+        }
+
+        @Override
+        public <T> void addDataChangeListener(DataKey<T> key, Runnable listener) {
+        }
+
+        @Override
+        public <T> void removeDataChangeListener(DataKey<T> key, Runnable listener) {
+        }
+    }
+
+    private static class RecordingArea implements RectangularArea {
+        private final String[] texts;
+        private final int[] defaultSlotWrites;
+
+        private RecordingArea(int size) {
+            this.texts = new String[size];
+            this.defaultSlotWrites = new int[size];
+        }
+
+        void clear() {
+            Arrays.fill(defaultSlotWrites, 0);
+        }
+
+        List<Integer> defaultSlotWrites() {
+            List<Integer> result = new ArrayList<>();
+            for (int writes : defaultSlotWrites) {
+                result.add(writes);
+            }
+            return result;
+        }
+
+        @Override
+        public void setSlot(int column, int row, UUID uuid, Icon icon, String text, int ping) {
+            setText(column, row, text);
+        }
+
+        @Override
+        public void setSlot(int column, int row, UUID uuid, Icon icon, String text, char alternateColorChar, int ping) {
+            setText(column, row, text);
+        }
+
+        @Override
+        public void setUuid(int column, int row, UUID uuid) {
+        }
+
+        @Override
+        public void setIcon(int column, int row, Icon icon) {
+        }
+
+        @Override
+        public void setText(int column, int row, String text) {
+            texts[row] = text;
+            if (DEFAULT_TEXT.equals(text)) {
+                defaultSlotWrites[row]++;
+            }
+        }
+
+        @Override
+        public void setText(int column, int row, String text, char alternateColorChar) {
+            setText(column, row, text);
+        }
+
+        @Override
+        public void setPing(int column, int row, int ping) {
+        }
+
+        @Override
+        public int getRows() {
+            return texts.length;
+        }
+
+        @Override
+        public int getColumns() {
+            return 1;
+        }
+
+        @Override
+        public int getSize() {
+            return texts.length;
+        }
+
+        @Override
+        public int getSlotWidth() {
+            return 80;
+        }
+    }
+}
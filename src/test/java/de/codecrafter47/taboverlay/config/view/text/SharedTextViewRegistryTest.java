@@ -0,0 +1,177 @@
+/*
+ *     Copyright (C) 2020 Florian Stober
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.codecrafter47.taboverlay.config.view.text;
+
+import de.codecrafter47.data.api.DataKey;
+import de.codecrafter47.taboverlay.config.context.Context;
+import de.codecrafter47.taboverlay.config.context.ContextKeys;
+import de.codecrafter47.taboverlay.config.player.Player;
+import de.codecrafter47.taboverlay.config.template.text.TextTemplate;
+import de.codecrafter47.taboverlay.config.view.AbstractActiveElement;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+public class SharedTextViewRegistryTest {
+
+    private Context context;
+    private List<CountingTextView> created;
+    private TextTemplate template;
+
+    @Before
+    public void setup() {
+        context = Context.from(null, null);
+        context.setCustomObject(ContextKeys.SHARED_TEXT_VIEW_REGISTRY, new SharedTextViewRegistry(null, null, null));
+        created = new ArrayList<>();
+        template = new TextTemplate() {
+            @Nonnull
+            @Override
+            public TextView instantiate() {
+                CountingTextView textView = new CountingTextView();
+                created.add(textView);
+                return textView;
+            }
+
+            @Override
+            public boolean requiresViewerContext() {
+                return false;
+            }
+        };
+    }
+
+    @Test
+    public void testReferenceCounting() {
+        TextView a = SharedTextView.of(template);
+        TextView b = SharedTextView.of(template);
+        a.activate(context, null);
+        b.activate(context, null);
+        Assert.assertEquals(1, created.size());
+        Assert.assertEquals("text", a.getText());
+        Assert.assertEquals("text", b.getText());
+
+        a.deactivate();
+        Assert.assertTrue(created.get(0).isActive());
+        b.deactivate();
+        Assert.assertFalse(created.get(0).isActive());
+
+        a.activate(context, null);
+        Assert.assertEquals(2, created.size());
+        Assert.assertTrue(created.get(1).isActive());
+    }
+
+    @Test
+    public void testSharedBetweenViewersWithoutViewer() {
+        Context alice = context.clone();
+        alice.setViewer(new TestPlayer("Alice"));
+        Context bob = context.clone();
+        bob.setViewer(new TestPlayer("Bob"));
+        TextView a = SharedTextView.of(template);
+        TextView b = SharedTextView.of(template);
+        a.activate(alice, null);
+        b.activate(bob, null);
+        Assert.assertEquals(1, created.size());
+        Assert.assertNull(created.get(0).context.getViewer());
+        Assert.assertNotNull(created.get(0).context.getPlayerSetFactory());
+
+        a.deactivate();
+        Assert.assertTrue(created.get(0).isActive());
+        b.deactivate();
+    }
+
+    @Test
+    public void testReleaseWhileNotifying() {
+        List<String> notified = new ArrayList<>();
+        TextView a = SharedTextView.of(template);
+        TextView b = SharedTextView.of(template);
+        TextView c = SharedTextView.of(template);
+        a.activate(context, () -> {
+            notified.add("a");
+            b.deactivate();
+        });
+        b.activate(context, () -> notified.add("b"));
+        c.activate(context, () -> notified.add("c"));
+
+        created.get(0).update();
+        Assert.assertEquals(2, notified.size());
+        Assert.assertTrue(notified.contains("a"));
+        Assert.assertTrue(notified.contains("c"));
+        Assert.assertFalse(notified.contains("b"));
+        Assert.assertTrue(created.get(0).isActive());
+    }
+
+    private static class CountingTextView extends AbstractActiveElement<TextViewUpdateListener> implements TextView {
+        private Context context;
+
+        @Override
+        protected void onActivation() {
+            context = getContext();
+        }
+
+        @Override
+        protected void onDeactivation() {
+        }
+
+        @Override
+        public String getText() {
+            return "text";
+        }
+
+        void update() {
+            getListener().onTextUpdated();
+        }
+    }
+
+    private static class TestPlayer implements Player {
+        private final String name;
+        private final UUID uuid = UUID.randomUUID();
+
+        private TestPlayer(String name) {
+            this.name = name;
+        }
+
+        @Nonnull
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Nonnull
+        @Override
+        public UUID getUniqueID() {
+            return uuid;
+        }
+
+        @Override
+        public <V> V get(DataKey<V> key) {
+            return null;
+        }
+
+        @Override
+        public <T> void addDataChangeListener(DataKey<T> key, Runnable listener) {
+        }
+
+        @Override
+        public <T> void removeDataChangeListener(DataKey<T> key, Runnable listener) {
+        }
+    }
+}